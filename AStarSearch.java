@@ -0,0 +1,315 @@
+import java.util.Arrays;
+
+/**
+ * Point-to-point shortest path queries on a {@link CsrGraph} of words by A*
+ * search, guided by the edit distance to the target word.
+ *
+ * Adjacent words are at most {@link AdjacencyPolicy#getMaxEdits()} edits
+ * apart, so a word w at Levenshtein distance d from the target is at least
+ * ceil(d / maxEdits) edges from it (a transposition is two Levenshtein edits,
+ * so the bound is halved again with transpositions). The bound never
+ * overestimates and changes by at most one along an edge, so the first time
+ * the target is taken from the queue its path is a shortest one, and no word
+ * is expanded twice. Words that drift away from the target are left in the
+ * queue, where plain breadth-first search expands every word closer to the
+ * source than the target is.
+ *
+ * With a {@link LandmarkIndex}, the bound is the larger of the edit distance
+ * bound and the landmark lower bound, both consistent, so the search is also
+ * drawn towards targets whose words look nothing like the source.
+ *
+ * The queue is a binary heap of primitive keys. Each thread gets its own
+ * workspace, and words are marked seen by stamping them with the number of the
+ * current query, as in {@link BidirectionalBfs}.
+ */
+public class AStarSearch {
+
+	/**
+	 * Graph the queries run on
+	 */
+	private final CsrGraph<String> graph;
+
+	/**
+	 * Largest change of the Levenshtein distance to the target along one edge
+	 */
+	private final int editsPerEdge;
+
+	/**
+	 * Landmark distances of graph, or null to use the edit distance bound alone
+	 */
+	private final LandmarkIndex landmarks;
+
+	/**
+	 * Workspace of each thread
+	 */
+	private final ThreadLocal<Workspace> workspaces;
+
+	/**
+	 * Search state owned by a single thread
+	 */
+	private static final class Workspace {
+		final int[] stamp;
+		final int[] closed;
+		final int[] dist;
+		final int[] bound;
+		final int[] parent;
+		final Heap open = new Heap();
+		int[] previous = new int[16];
+		int[] row = new int[16];
+		final int[] goalRow;
+		int query;
+		int expanded;
+
+		Workspace(int size, int landmarks) {
+			goalRow = new int[landmarks];
+			stamp = new int[size];
+			closed = new int[size];
+			dist = new int[size];
+			bound = new int[size];
+			parent = new int[size];
+		}
+	}
+
+	/**
+	 * Binary min-heap of vertices keyed by a long, without boxing. A vertex whose
+	 * key decreases is pushed again and its stale entries are skipped when
+	 * polled.
+	 */
+	private static final class Heap {
+		long[] keys = new long[64];
+		int[] vertices = new int[64];
+		int size;
+
+		void clear() {
+			size = 0;
+		}
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		void push(int vertex, long key) {
+			if (size == keys.length) {
+				keys = Arrays.copyOf(keys, size * 2);
+				vertices = Arrays.copyOf(vertices, size * 2);
+			}
+			int i = size++;
+			while (i > 0) {
+				int up = (i - 1) >>> 1;
+				if (keys[up] <= key)
+					break;
+				keys[i] = keys[up];
+				vertices[i] = vertices[up];
+				i = up;
+			}
+			keys[i] = key;
+			vertices[i] = vertex;
+		}
+
+		int poll() {
+			int top = vertices[0];
+			long key = keys[--size];
+			int vertex = vertices[size];
+			int i = 0;
+			int half = size >>> 1;
+			while (i < half) {
+				int child = 2 * i + 1;
+				if (child + 1 < size && keys[child + 1] < keys[child])
+					child++;
+				if (key <= keys[child])
+					break;
+				keys[i] = keys[child];
+				vertices[i] = vertices[child];
+				i = child;
+			}
+			keys[i] = key;
+			vertices[i] = vertex;
+			return top;
+		}
+	}
+
+	/**
+	 * Constructor for queries on a graph of words
+	 *
+	 * @param graph
+	 *            the graph to search
+	 * @param policy
+	 *            the adjacency policy the edges of graph were found with
+	 */
+	public AStarSearch(CsrGraph<String> graph, AdjacencyPolicy policy) {
+		this(graph, policy, null);
+	}
+
+	/**
+	 * Constructor for queries on a graph of words also guided by landmarks
+	 *
+	 * @param graph
+	 *            the graph to search
+	 * @param policy
+	 *            the adjacency policy the edges of graph were found with
+	 * @param landmarks
+	 *            landmark distances computed on graph, or null for none
+	 */
+	public AStarSearch(CsrGraph<String> graph, AdjacencyPolicy policy, LandmarkIndex landmarks) {
+		this.graph = graph;
+		this.editsPerEdge = policy.getMaxEdits() * (policy.allowsTranspositions() ? 2 : 1);
+		this.landmarks = landmarks;
+		int k = landmarks == null ? 0 : landmarks.size();
+		this.workspaces = ThreadLocal.withInitial(() -> new Workspace(graph.size(), k));
+	}
+
+	/**
+	 * Finds a shortest path between two vertices
+	 *
+	 * @param source
+	 *            the ID of the first vertex
+	 * @param target
+	 *            the ID of the second vertex
+	 * @return int[] the IDs from source to target (both included), or null if
+	 *         target is not reachable from source
+	 */
+	public int[] path(int source, int target) {
+		Workspace ws = workspaces.get();
+		if (++ws.query == Integer.MAX_VALUE) {
+			Arrays.fill(ws.stamp, 0);
+			Arrays.fill(ws.closed, 0);
+			ws.query = 1;
+		}
+		int query = ws.query;
+		ws.expanded = 0;
+		ws.open.clear();
+		String goal = graph.getVertex(target);
+		if (landmarks != null)
+			landmarks.copyRow(target, ws.goalRow);
+		ws.stamp[source] = query;
+		ws.dist[source] = 0;
+		ws.parent[source] = -1;
+		ws.bound[source] = bound(ws, source, goal);
+		ws.open.push(source, key(0, ws.bound[source]));
+
+		int[] offsets = graph.offsets;
+		int[] targets = graph.targets;
+		while (!ws.open.isEmpty()) {
+			int v = ws.open.poll();
+			if (ws.closed[v] == query)
+				continue;
+			ws.closed[v] = query;
+			ws.expanded++;
+			if (v == target)
+				return path(ws, v);
+			int d = ws.dist[v] + 1;
+			for (int i = offsets[v], end = offsets[v + 1]; i < end; i++) {
+				int w = targets[i];
+				if (ws.stamp[w] != query) {
+					ws.stamp[w] = query;
+					ws.bound[w] = bound(ws, w, goal);
+				} else if (d >= ws.dist[w]) {
+					continue;
+				}
+				ws.dist[w] = d;
+				ws.parent[w] = v;
+				ws.open.push(w, key(d, ws.bound[w]));
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Finds the shortest distance between two vertices
+	 *
+	 * @param source
+	 *            the ID of the first vertex
+	 * @param target
+	 *            the ID of the second vertex
+	 * @return int the number of edges on a shortest path, or -1 if target is not
+	 *         reachable from source
+	 */
+	public int distance(int source, int target) {
+		int[] path = path(source, target);
+		return path == null ? -1 : path.length - 1;
+	}
+
+	/**
+	 * @return int the number of vertices expanded by the last query of the
+	 *         calling thread
+	 */
+	public int getExpanded() {
+		return workspaces.get().expanded;
+	}
+
+	/**
+	 * Private helper method to order the queue by estimated path length, then by
+	 * larger distance from the source, so that among equally promising words the
+	 * search goes deeper first
+	 */
+	private static long key(int dist, int bound) {
+		return ((long) (dist + bound) << 32) - dist;
+	}
+
+	/**
+	 * Private helper method to walk the parents back from a vertex
+	 */
+	private static int[] path(Workspace ws, int v) {
+		int[] path = new int[ws.dist[v] + 1];
+		for (int k = path.length - 1; k >= 0; k--, v = ws.parent[v])
+			path[k] = v;
+		return path;
+	}
+
+	/**
+	 * Private helper method to compute the lower bound on the number of edges
+	 * from a vertex to the target
+	 *
+	 * @param ws
+	 *            - the workspace of the calling thread, holding the landmark
+	 *            distances of the target
+	 * @param v
+	 *            - the ID of the vertex
+	 * @param goal
+	 *            - the target word
+	 * @return int the larger of the edit distance and landmark bounds
+	 */
+	private int bound(Workspace ws, int v, String goal) {
+		int bound = editBound(ws, graph.getVertex(v), goal);
+		if (landmarks != null)
+			bound = Math.max(bound, landmarks.lowerBound(v, ws.goalRow));
+		return bound;
+	}
+
+	/**
+	 * Private helper method to compute the lower bound on the number of edges
+	 * between two words from their Levenshtein distance, reusing the rows of the
+	 * workspace
+	 *
+	 * @param ws
+	 *            - the workspace of the calling thread
+	 * @param word
+	 *            - a word
+	 * @param goal
+	 *            - the target word
+	 * @return int ceil(distance / editsPerEdge)
+	 */
+	private int editBound(Workspace ws, String word, String goal) {
+		int n = goal.length();
+		if (ws.row.length <= n) {
+			ws.previous = new int[n + 1];
+			ws.row = new int[n + 1];
+		}
+		int[] previous = ws.previous;
+		int[] row = ws.row;
+		for (int j = 0; j <= n; j++)
+			previous[j] = j;
+		for (int i = 1; i <= word.length(); i++) {
+			char c = word.charAt(i - 1);
+			row[0] = i;
+			for (int j = 1; j <= n; j++) {
+				int cost = c == goal.charAt(j - 1) ? 0 : 1;
+				row[j] = Math.min(Math.min(previous[j], row[j - 1]) + 1, previous[j - 1] + cost);
+			}
+			int[] swap = previous;
+			previous = row;
+			row = swap;
+		}
+		return (previous[n] + editsPerEdge - 1) / editsPerEdge;
+	}
+}
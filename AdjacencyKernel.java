@@ -0,0 +1,142 @@
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+
+/**
+ * Adjacency test of {@link WordProcessor#isAdjacent(String, String)} on words
+ * encoded once as Latin-1 bytes, for the inner loop of graph construction.
+ *
+ * Both one-substitution and one-insertion checks reduce to finding the first
+ * mismatch of two byte ranges and then checking that the rest matches with an
+ * offset. On Java 9 and later the mismatches are found with
+ * {@code Arrays.mismatch}, which the JIT compiles to wide comparisons of
+ * several bytes at once; on Java 8, which has no such method, a plain byte
+ * loop is used.
+ */
+public final class AdjacencyKernel {
+
+	/**
+	 * {@code Arrays.mismatch(byte[], int, int, byte[], int, int)}, or null before
+	 * Java 9
+	 */
+	private static final MethodHandle MISMATCH = findMismatch();
+
+	/**
+	 * Shortest range compared with Arrays.mismatch; shorter ones fit in fewer
+	 * bytes than one wide comparison and are compared byte by byte
+	 */
+	private static final int WIDE_LENGTH = 8;
+
+	private AdjacencyKernel() {
+	}
+
+	/**
+	 * Encodes a word for the kernel
+	 *
+	 * @param word
+	 *            the word to encode
+	 * @return byte[] the Latin-1 bytes of word, or null if it has characters
+	 *         outside Latin-1
+	 */
+	public static byte[] encode(String word) {
+		byte[] bytes = new byte[word.length()];
+		for (int i = 0; i < bytes.length; i++) {
+			char c = word.charAt(i);
+			if (c > 0xFF)
+				return null;
+			bytes[i] = (byte) c;
+		}
+		return bytes;
+	}
+
+	/**
+	 * Checks if two encoded words are one substitution, insertion or deletion
+	 * apart
+	 *
+	 * @param word1
+	 *            first encoded word
+	 * @param word2
+	 *            second encoded word
+	 * @return true if word1 and word2 are adjacent, false if they are not or are
+	 *         equal
+	 */
+	public static boolean isAdjacent(byte[] word1, byte[] word2) {
+		int length1 = word1.length;
+		int length2 = word2.length;
+		if (length1 == length2) {
+			int i = mismatch(word1, 0, word2, 0, length1);
+			return i >= 0 && mismatch(word1, i + 1, word2, i + 1, length1 - i - 1) < 0;
+		}
+		if (length1 + 1 == length2)
+			return insertsOne(word1, word2);
+		if (length1 == length2 + 1)
+			return insertsOne(word2, word1);
+		return false;
+	}
+
+	/**
+	 * Checks one encoded word against many candidates
+	 *
+	 * @param word
+	 *            the encoded word
+	 * @param candidates
+	 *            the encoded candidates; null entries are never adjacent
+	 * @param count
+	 *            the number of candidates to check
+	 * @param matches
+	 *            filled with the indexes of the adjacent candidates, in order;
+	 *            must have room for count entries
+	 * @return int the number of adjacent candidates
+	 */
+	public static int findAdjacent(byte[] word, byte[][] candidates, int count, int[] matches) {
+		int found = 0;
+		for (int c = 0; c < count; c++) {
+			if (candidates[c] != null && isAdjacent(word, candidates[c]))
+				matches[found++] = c;
+		}
+		return found;
+	}
+
+	/**
+	 * Private helper method to check if longer is shorter with one byte inserted
+	 */
+	private static boolean insertsOne(byte[] shorter, byte[] longer) {
+		int i = mismatch(shorter, 0, longer, 0, shorter.length);
+		return i < 0 || mismatch(shorter, i, longer, i + 1, shorter.length - i) < 0;
+	}
+
+	/**
+	 * Private helper method to find the first mismatch of two byte ranges of the
+	 * same length
+	 *
+	 * @return int the index of the first mismatch relative to the starts, or -1
+	 *         if the ranges are equal
+	 */
+	private static int mismatch(byte[] a, int aFrom, byte[] b, int bFrom, int length) {
+		if (MISMATCH != null && length >= WIDE_LENGTH) {
+			try {
+				return (int) MISMATCH.invokeExact(a, aFrom, aFrom + length, b, bFrom, bFrom + length);
+			} catch (Throwable t) {
+				throw new IllegalStateException(t);
+			}
+		}
+		for (int i = 0; i < length; i++) {
+			if (a[aFrom + i] != b[bFrom + i])
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Private helper method to look up Arrays.mismatch on runtimes that have it
+	 */
+	private static MethodHandle findMismatch() {
+		try {
+			return MethodHandles.publicLookup().findStatic(Arrays.class, "mismatch", MethodType.methodType(int.class,
+					byte[].class, int.class, int.class, byte[].class, int.class, int.class));
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,51 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+/**
+ * Junit test class to test class @see AdjacencyKernel
+ */
+public class AdjacencyKernelTest {
+
+	@Test
+	public final void isAdjacentMatchesWordProcessor() throws IOException {
+		List<String> words = WordProcessor.getWordStream("word_list.txt").distinct().collect(Collectors.toList());
+		words.addAll(Arrays.asList("ABCDEFGHIJKLMNOPQ", "ABCDEFGHIJKLMNOPQR", "ABCDEFGHIJKLMNOPR", "XBCDEFGHIJKLMNOPQ",
+				"ABCDEFGHJKLMNOPQ"));
+		for (String word1 : words) {
+			byte[] encoded1 = AdjacencyKernel.encode(word1);
+			for (String word2 : words) {
+				if (!word1.equals(word2))
+					assertEquals(word1 + " " + word2, WordProcessor.isAdjacent(word1, word2),
+							AdjacencyKernel.isAdjacent(encoded1, AdjacencyKernel.encode(word2)));
+			}
+		}
+	}
+
+	@Test
+	public final void equalWordsAreNotAdjacent() {
+		assertEquals(false, AdjacencyKernel.isAdjacent(AdjacencyKernel.encode("CAT"), AdjacencyKernel.encode("CAT")));
+	}
+
+	@Test
+	public final void findAdjacentChecksEveryCandidate() {
+		byte[][] candidates = { AdjacencyKernel.encode("HAT"), null, AdjacencyKernel.encode("DOG"),
+				AdjacencyKernel.encode("CART"), AdjacencyKernel.encode("AT"), AdjacencyKernel.encode("CAT") };
+		int[] matches = new int[candidates.length];
+		int found = AdjacencyKernel.findAdjacent(AdjacencyKernel.encode("CAT"), candidates, candidates.length, matches);
+		assertArrayEquals(new int[] { 0, 3, 4 }, Arrays.copyOf(matches, found));
+	}
+
+	@Test
+	public final void encodeRejectsCharactersOutsideLatin1() {
+		assertArrayEquals(new byte[] { 'C', (byte) 0xC9 }, AdjacencyKernel.encode("C\u00c9"));
+		assertNull(AdjacencyKernel.encode("C\u0100"));
+	}
+}
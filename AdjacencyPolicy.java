@@ -0,0 +1,182 @@
+/**
+ * Rule deciding which words of a dictionary graph are joined by an edge: two
+ * distinct words are adjacent when at most a given number of edits turn one
+ * into the other. An edit is the substitution, insertion or deletion of one
+ * letter and, with transpositions, the swap of two neighboring letters
+ * (optimal string alignment distance, where no letter is edited twice).
+ *
+ * {@link #ONE_EDIT} is the rule of
+ * {@link WordProcessor#isAdjacent(String, String)} and the default of
+ * {@link GraphProcessor}. Other policies find the edges of a new word by
+ * walking a {@link WordTrie} of the dictionary with the same distance bound,
+ * so a graph of two-edit neighbors is still built without comparing every
+ * pair of words.
+ */
+public final class AdjacencyPolicy {
+
+	/**
+	 * One substitution, insertion or deletion
+	 */
+	public static final AdjacencyPolicy ONE_EDIT = new AdjacencyPolicy(1, false);
+
+	/**
+	 * One substitution, insertion, deletion or transposition of neighboring
+	 * letters
+	 */
+	public static final AdjacencyPolicy DAMERAU = new AdjacencyPolicy(1, true);
+
+	/**
+	 * Largest number of edits between adjacent words
+	 */
+	private final int maxEdits;
+
+	/**
+	 * Whether swapping two neighboring letters counts as one edit
+	 */
+	private final boolean transpositions;
+
+	/**
+	 * Private constructor, policies are created by the factory methods
+	 */
+	private AdjacencyPolicy(int maxEdits, boolean transpositions) {
+		this.maxEdits = maxEdits;
+		this.transpositions = transpositions;
+	}
+
+	/**
+	 * Gets the policy joining words at most maxEdits substitutions, insertions or
+	 * deletions apart (Levenshtein distance)
+	 *
+	 * @param maxEdits
+	 *            the largest number of edits, at least 1
+	 * @return AdjacencyPolicy the policy
+	 * @throws IllegalArgumentException
+	 *             if maxEdits is less than 1
+	 */
+	public static AdjacencyPolicy editDistance(int maxEdits) {
+		return of(maxEdits, false);
+	}
+
+	/**
+	 * Gets the policy joining words at most maxEdits substitutions, insertions,
+	 * deletions or transpositions apart
+	 *
+	 * @param maxEdits
+	 *            the largest number of edits, at least 1
+	 * @return AdjacencyPolicy the policy
+	 * @throws IllegalArgumentException
+	 *             if maxEdits is less than 1
+	 */
+	public static AdjacencyPolicy damerau(int maxEdits) {
+		return of(maxEdits, true);
+	}
+
+	/**
+	 * Private helper method to get a policy, reusing the constants
+	 */
+	private static AdjacencyPolicy of(int maxEdits, boolean transpositions) {
+		if (maxEdits < 1)
+			throw new IllegalArgumentException("maxEdits must be at least 1");
+		if (maxEdits == 1)
+			return transpositions ? DAMERAU : ONE_EDIT;
+		return new AdjacencyPolicy(maxEdits, transpositions);
+	}
+
+	/**
+	 * @return int the largest number of edits between adjacent words
+	 */
+	public int getMaxEdits() {
+		return maxEdits;
+	}
+
+	/**
+	 * @return boolean true if swapping two neighboring letters counts as one edit
+	 */
+	public boolean allowsTranspositions() {
+		return transpositions;
+	}
+
+	/**
+	 * Checks if two words are adjacent under this policy
+	 *
+	 * @param word1
+	 *            first word
+	 * @param word2
+	 *            second word
+	 * @return true if word1 and word2 are distinct and at most
+	 *         {@link #getMaxEdits()} edits apart
+	 */
+	public boolean isAdjacent(String word1, String word2) {
+		if (this == ONE_EDIT)
+			return WordProcessor.isAdjacent(word1, word2) && !word1.equals(word2);
+		int distance = distance(word1, word2, maxEdits, transpositions);
+		return distance > 0 && distance <= maxEdits;
+	}
+
+	/**
+	 * Computes the edit distance of two words, giving up once it exceeds a bound
+	 *
+	 * @param word1
+	 *            first word
+	 * @param word2
+	 *            second word
+	 * @param bound
+	 *            the largest distance of interest
+	 * @param transpositions
+	 *            whether swapping two neighboring letters counts as one edit
+	 * @return int the edit distance of word1 and word2, or bound + 1 if it is
+	 *         larger than bound
+	 */
+	public static int distance(String word1, String word2, int bound, boolean transpositions) {
+		int n = word2.length();
+		if (Math.abs(word1.length() - n) > bound)
+			return bound + 1;
+		int[] previous2 = new int[n + 1];
+		int[] previous = new int[n + 1];
+		int[] row = new int[n + 1];
+		for (int j = 0; j <= n; j++)
+			previous[j] = j;
+		for (int i = 1; i <= word1.length(); i++) {
+			char c = word1.charAt(i - 1);
+			row[0] = i;
+			int best = i;
+			for (int j = 1; j <= n; j++) {
+				int cost = c == word2.charAt(j - 1) ? 0 : 1;
+				int d = Math.min(Math.min(previous[j] + 1, row[j - 1] + 1), previous[j - 1] + cost);
+				if (transpositions && i > 1 && j > 1 && c == word2.charAt(j - 2) && word1.charAt(i - 2) == word2.charAt(j - 1))
+					d = Math.min(d, previous2[j - 2] + 1);
+				row[j] = d;
+				best = Math.min(best, d);
+			}
+			if (best > bound)
+				return bound + 1;
+			int[] swap = previous2;
+			previous2 = previous;
+			previous = row;
+			row = swap;
+		}
+		return Math.min(previous[n], bound + 1);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof AdjacencyPolicy))
+			return false;
+		AdjacencyPolicy other = (AdjacencyPolicy) o;
+		return maxEdits == other.maxEdits && transpositions == other.transpositions;
+	}
+
+	@Override
+	public int hashCode() {
+		return 2 * maxEdits + (transpositions ? 1 : 0);
+	}
+
+	@Override
+	public String toString() {
+		if (this == ONE_EDIT)
+			return "ONE_EDIT";
+		if (this == DAMERAU)
+			return "DAMERAU";
+		return (transpositions ? "DAMERAU(" : "EDIT_DISTANCE(") + maxEdits + ")";
+	}
+}
@@ -0,0 +1,36 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Junit test class to test class @see AdjacencyPolicy
+ */
+public class AdjacencyPolicyTest {
+
+	@Test
+	public final void oneEditMatchesWordProcessor() {
+		String[] words = { "CAT", "CART", "ACT", "CUT", "AT", "CAT", "DOG", "" };
+		for (String word1 : words) {
+			for (String word2 : words)
+				assertEquals(WordProcessor.isAdjacent(word1, word2) && !word1.equals(word2),
+						AdjacencyPolicy.ONE_EDIT.isAdjacent(word1, word2));
+		}
+		assertEquals(AdjacencyPolicy.ONE_EDIT, AdjacencyPolicy.editDistance(1));
+	}
+
+	@Test
+	public final void transpositionsAreOneEdit() {
+		assertEquals(false, AdjacencyPolicy.ONE_EDIT.isAdjacent("CAT", "ACT"));
+		assertEquals(true, AdjacencyPolicy.DAMERAU.isAdjacent("CAT", "ACT"));
+		assertEquals(true, AdjacencyPolicy.editDistance(2).isAdjacent("CAT", "ACT"));
+		assertEquals(false, AdjacencyPolicy.DAMERAU.isAdjacent("CAT", "CAT"));
+	}
+
+	@Test
+	public final void distanceIsBounded() {
+		assertEquals(3, AdjacencyPolicy.distance("KITTEN", "SITTING", 5, false));
+		assertEquals(3, AdjacencyPolicy.distance("KITTEN", "SITTING", 2, false));
+		assertEquals(2, AdjacencyPolicy.distance("ABCD", "BADC", 5, true));
+		assertEquals(3, AdjacencyPolicy.distance("A", "ABCDEF", 2, false));
+	}
+}
@@ -0,0 +1,125 @@
+import java.util.Arrays;
+
+/**
+ * Breadth-first search over a {@link CsrGraph} using only primitive arrays.
+ *
+ * Each thread gets its own {@link Workspace} holding an int queue and the
+ * dist/parent arrays of the last search, which are reused by its next search.
+ * Only the entries touched by the previous search are reset, so a search costs
+ * time proportional to the part of the graph it reaches.
+ */
+public class BfsEngine {
+
+	/**
+	 * Distance and parent of a vertex that has not been reached
+	 */
+	public static final int UNREACHED = -1;
+
+	/**
+	 * Graph the searches run on
+	 */
+	private final CsrGraph<?> graph;
+
+	/**
+	 * Workspace of each thread
+	 */
+	private final ThreadLocal<Workspace> workspaces;
+
+	/**
+	 * Result arrays of a search, owned by a single thread
+	 */
+	public static final class Workspace {
+		/**
+		 * Number of edges from the source to each vertex, or UNREACHED
+		 */
+		public final int[] dist;
+
+		/**
+		 * Previous vertex on the shortest path from the source to each vertex, or
+		 * UNREACHED for the source and unreached vertices
+		 */
+		public final int[] parent;
+
+		/**
+		 * Reached vertices in the order they were dequeued; the first
+		 * {@link #reached} entries are valid
+		 */
+		public final int[] queue;
+
+		/**
+		 * Number of vertices reached by the last search
+		 */
+		public int reached;
+
+		private Workspace(int size) {
+			dist = new int[size];
+			parent = new int[size];
+			queue = new int[size];
+			Arrays.fill(dist, UNREACHED);
+			Arrays.fill(parent, UNREACHED);
+		}
+	}
+
+	/**
+	 * Constructor for an engine on a graph
+	 *
+	 * @param graph
+	 *            the graph to search
+	 */
+	public BfsEngine(CsrGraph<?> graph) {
+		this.graph = graph;
+		this.workspaces = ThreadLocal.withInitial(() -> new Workspace(graph.size()));
+	}
+
+	/**
+	 * @return CsrGraph<?> the graph searched by this engine
+	 */
+	public CsrGraph<?> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Runs a breadth-first search from source. The returned workspace belongs to
+	 * the calling thread and is overwritten by its next search.
+	 *
+	 * Neighbors are visited in increasing ID order, and the parent of a vertex is
+	 * the first vertex it was reached from.
+	 *
+	 * @param source
+	 *            the ID of the source vertex
+	 * @return Workspace the distances, parents and visit order of the search
+	 */
+	public Workspace search(int source) {
+		Workspace ws = workspaces.get();
+		int[] dist = ws.dist;
+		int[] parent = ws.parent;
+		int[] queue = ws.queue;
+
+		// Reset only what the previous search touched
+		for (int i = 0; i < ws.reached; i++) {
+			dist[queue[i]] = UNREACHED;
+			parent[queue[i]] = UNREACHED;
+		}
+
+		int[] offsets = graph.offsets;
+		int[] targets = graph.targets;
+		int head = 0;
+		int tail = 0;
+		dist[source] = 0;
+		queue[tail++] = source;
+		while (head < tail) {
+			int v = queue[head++];
+			int next = dist[v] + 1;
+			for (int i = offsets[v], end = offsets[v + 1]; i < end; i++) {
+				int w = targets[i];
+				if (dist[w] == UNREACHED) {
+					dist[w] = next;
+					parent[w] = v;
+					queue[tail++] = w;
+				}
+			}
+		}
+		ws.reached = tail;
+		return ws;
+	}
+}
@@ -0,0 +1,97 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Junit test class to test class @see BfsEngine
+ */
+public class BfsEngineTest {
+
+	private Graph<String> words;
+	private Graph<Integer> random;
+
+	@Before
+	public void setUp() throws Exception {
+		// The words of word_list.txt joined by comparing every pair
+		words = new Graph<>();
+		List<String> list = new ArrayList<>();
+		WordProcessor.getWordStream("word_list.txt").distinct().forEach(list::add);
+		for (int i = 0; i < list.size(); i++) {
+			words.addVertex(list.get(i));
+			for (int j = 0; j < i; j++) {
+				if (WordProcessor.isAdjacent(list.get(i), list.get(j)))
+					words.addEdge(list.get(i), list.get(j));
+			}
+		}
+
+		// A sparse random graph with many components and cycles
+		random = new Graph<>();
+		Random rnd = new Random(7);
+		for (int v = 0; v < 300; v++)
+			random.addVertex(v);
+		for (int e = 0; e < 330; e++)
+			random.addEdge(rnd.nextInt(300), rnd.nextInt(300));
+	}
+
+	@Test
+	public final void searchMatchesPlainBfsOnWords() {
+		assertSearchesMatch(words, 3);
+	}
+
+	@Test
+	public final void searchMatchesPlainBfsOnRandomGraph() {
+		assertSearchesMatch(random, 1);
+	}
+
+	/**
+	 * Searches from every step-th vertex and compares the distances with a plain
+	 * breadth-first search over the graph, and checks that every parent is a
+	 * neighbor one edge closer to the source
+	 */
+	private static <E> void assertSearchesMatch(Graph<E> graph, int step) {
+		CsrGraph<E> frozen = graph.freeze();
+		BfsEngine engine = new BfsEngine(frozen);
+		for (int source = 0; source < frozen.size(); source += step) {
+			Map<E, Integer> expected = distances(graph, frozen.getVertex(source));
+			BfsEngine.Workspace ws = engine.search(source);
+			assertEquals(expected.size(), ws.reached);
+			for (int v = 0; v < frozen.size(); v++) {
+				Integer distance = expected.get(frozen.getVertex(v));
+				assertEquals(distance == null ? BfsEngine.UNREACHED : (int) distance, ws.dist[v]);
+				if (distance != null && distance > 0) {
+					assertEquals(true, frozen.isAdjacent(ws.parent[v], v));
+					assertEquals(distance - 1, ws.dist[ws.parent[v]]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Distances from a source by a breadth-first search over the graph's own
+	 * neighbor lists
+	 */
+	private static <E> Map<E, Integer> distances(Graph<E> graph, E source) {
+		Map<E, Integer> dist = new HashMap<>();
+		ArrayDeque<E> queue = new ArrayDeque<>();
+		dist.put(source, 0);
+		queue.add(source);
+		while (!queue.isEmpty()) {
+			E v = queue.poll();
+			for (E w : graph.getNeighbors(v)) {
+				if (!dist.containsKey(w)) {
+					dist.put(w, dist.get(v) + 1);
+					queue.add(w);
+				}
+			}
+		}
+		return dist;
+	}
+}
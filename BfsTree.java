@@ -0,0 +1,103 @@
+import java.util.Arrays;
+
+/**
+ * Shortest path tree of one source vertex, as found by a {@link BfsEngine}
+ * search.
+ *
+ * Only the vertices reached from the source are stored, sorted by ID, with the
+ * parent and distance of each, so a tree of a small component stays small.
+ */
+public class BfsTree {
+
+	/**
+	 * Fixed cost of a tree object and its three arrays, in bytes
+	 */
+	private static final long OVERHEAD = 16 + 3 * 16;
+
+	/**
+	 * ID of the source vertex
+	 */
+	private final int source;
+
+	/**
+	 * IDs of the reached vertices, in increasing order
+	 */
+	private final int[] vertices;
+
+	/**
+	 * Parent of each reached vertex, in the order of vertices
+	 */
+	private final int[] parents;
+
+	/**
+	 * Distance of each reached vertex from the source, in the order of vertices
+	 */
+	private final int[] dists;
+
+	/**
+	 * Constructor for a tree copied out of the workspace of a search
+	 *
+	 * @param ws
+	 *            the workspace of the search
+	 * @param source
+	 *            the ID the search started from
+	 */
+	public BfsTree(BfsEngine.Workspace ws, int source) {
+		this.source = source;
+		this.vertices = Arrays.copyOf(ws.queue, ws.reached);
+		Arrays.sort(vertices);
+		this.parents = new int[vertices.length];
+		this.dists = new int[vertices.length];
+		for (int i = 0; i < vertices.length; i++) {
+			parents[i] = ws.parent[vertices[i]];
+			dists[i] = ws.dist[vertices[i]];
+		}
+	}
+
+	/**
+	 * @return int the ID of the source vertex
+	 */
+	public int getSource() {
+		return source;
+	}
+
+	/**
+	 * @param target
+	 *            the ID of a vertex
+	 * @return int the number of edges from the source to target, or -1 if target
+	 *         is not reachable
+	 */
+	public int distance(int target) {
+		int i = Arrays.binarySearch(vertices, target);
+		return i < 0 ? -1 : dists[i];
+	}
+
+	/**
+	 * Gets the IDs on the shortest path from the source to target
+	 *
+	 * @param target
+	 *            the ID of a vertex
+	 * @return int[] the IDs from the source to target (both included), or null if
+	 *         target is not reachable
+	 */
+	public int[] path(int target) {
+		int i = Arrays.binarySearch(vertices, target);
+		if (i < 0)
+			return null;
+
+		int[] path = new int[dists[i] + 1];
+		for (int k = path.length - 1; k >= 0; k--) {
+			path[k] = vertices[i];
+			if (k > 0)
+				i = Arrays.binarySearch(vertices, parents[i]);
+		}
+		return path;
+	}
+
+	/**
+	 * @return long the estimated heap footprint of the tree, in bytes
+	 */
+	public long sizeInBytes() {
+		return OVERHEAD + 12L * vertices.length;
+	}
+}
@@ -0,0 +1,179 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntFunction;
+
+/**
+ * Least-recently-used cache of {@link BfsTree}s keyed by source ID, bounded by
+ * the total estimated size of the trees it holds.
+ *
+ * Trees are computed outside the cache lock, so two threads missing on the
+ * same source at the same time may both compute it; the first one stored wins.
+ */
+public class BfsTreeCache {
+
+	/**
+	 * Default capacity, in bytes
+	 */
+	public static final long DEFAULT_CAPACITY = 64L << 20;
+
+	/**
+	 * Trees in least- to most-recently-used order
+	 */
+	private final LinkedHashMap<Integer, BfsTree> trees;
+
+	/**
+	 * Maximum total size of the trees, in bytes
+	 */
+	private long capacity;
+
+	/**
+	 * Total size of the trees, in bytes
+	 */
+	private long weight;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * Constructor for an empty cache
+	 *
+	 * @param capacity
+	 *            maximum total size of the cached trees, in bytes
+	 */
+	public BfsTreeCache(long capacity) {
+		this.trees = new LinkedHashMap<>(16, 0.75f, true);
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Gets the tree of a source, computing and caching it on a miss. A tree larger
+	 * than the whole capacity is returned but not cached.
+	 *
+	 * @param source
+	 *            the ID of the source vertex
+	 * @param loader
+	 *            computes the tree of a source ID
+	 * @return BfsTree the tree of source
+	 */
+	public BfsTree get(int source, IntFunction<BfsTree> loader) {
+		return get(source, loader, () -> true);
+	}
+
+	/**
+	 * Gets the tree of a source like {@link #get(int, IntFunction)}, but only
+	 * caches a computed tree if it is still current once computed. The check is
+	 * made under the cache lock, so a tree computed from a graph that changed
+	 * while it was searched is never stored, as long as the change is made
+	 * before the cache is cleared.
+	 *
+	 * @param source
+	 *            the ID of the source vertex
+	 * @param loader
+	 *            computes the tree of a source ID
+	 * @param current
+	 *            whether the graph loader searches is still the current one
+	 * @return BfsTree the tree of source
+	 */
+	public BfsTree get(int source, IntFunction<BfsTree> loader, BooleanSupplier current) {
+		synchronized (this) {
+			BfsTree tree = trees.get(source);
+			if (tree != null) {
+				hits.incrementAndGet();
+				return tree;
+			}
+		}
+
+		misses.incrementAndGet();
+		BfsTree tree = loader.apply(source);
+		synchronized (this) {
+			if (!current.getAsBoolean())
+				return tree;
+			BfsTree existing = trees.get(source);
+			if (existing != null)
+				return existing;
+			if (tree.sizeInBytes() <= capacity) {
+				trees.put(source, tree);
+				weight += tree.sizeInBytes();
+				evict();
+			}
+		}
+		return tree;
+	}
+
+	/**
+	 * Removes every tree. The hit and miss counters are kept.
+	 */
+	public synchronized void clear() {
+		trees.clear();
+		weight = 0;
+	}
+
+	/**
+	 * Changes the capacity, evicting trees if the cache is now over it
+	 *
+	 * @param capacity
+	 *            maximum total size of the cached trees, in bytes
+	 */
+	public synchronized void setCapacity(long capacity) {
+		this.capacity = capacity;
+		evict();
+	}
+
+	/**
+	 * @return long maximum total size of the cached trees, in bytes
+	 */
+	public synchronized long getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return long total size of the cached trees, in bytes
+	 */
+	public synchronized long getWeight() {
+		return weight;
+	}
+
+	/**
+	 * @return int number of cached trees
+	 */
+	public synchronized int size() {
+		return trees.size();
+	}
+
+	/**
+	 * @return long number of lookups answered from the cache
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * @return long number of lookups that had to compute a tree
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * @return long number of trees evicted to stay under capacity
+	 */
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+	/**
+	 * Drops least-recently-used trees until the cache is within capacity
+	 */
+	private void evict() {
+		Iterator<Map.Entry<Integer, BfsTree>> it = trees.entrySet().iterator();
+		while (weight > capacity && it.hasNext()) {
+			weight -= it.next().getValue().sizeInBytes();
+			it.remove();
+			evictions.incrementAndGet();
+		}
+	}
+}
@@ -0,0 +1,201 @@
+import java.util.Arrays;
+
+/**
+ * Point-to-point shortest path queries on a {@link CsrGraph} by breadth-first
+ * search from both ends at once.
+ *
+ * Each step expands one whole level of the side with the smaller frontier,
+ * and the search stops at the end of the first level that touches the other
+ * side. Word graphs have a small diameter, so both searches stay small and no
+ * precomputed data is needed.
+ *
+ * Each thread gets its own workspace. Vertices are marked visited by stamping
+ * them with the number of the current query, so a query never clears arrays
+ * sized to the whole graph.
+ */
+public class BidirectionalBfs {
+
+	/**
+	 * Graph the queries run on
+	 */
+	private final CsrGraph<?> graph;
+
+	/**
+	 * Workspace of each thread
+	 */
+	private final ThreadLocal<Workspace> workspaces;
+
+	/**
+	 * Search state of one side
+	 */
+	private static final class Side {
+		final int[] stamp;
+		final int[] dist;
+		final int[] parent;
+		final int[] queue;
+		int head;
+		int tail;
+
+		Side(int size) {
+			stamp = new int[size];
+			dist = new int[size];
+			parent = new int[size];
+			queue = new int[size];
+		}
+	}
+
+	/**
+	 * Search state of both sides, owned by a single thread
+	 */
+	private static final class Workspace {
+		final Side forward;
+		final Side backward;
+		int query;
+		int expanded;
+
+		Workspace(int size) {
+			forward = new Side(size);
+			backward = new Side(size);
+		}
+	}
+
+	/**
+	 * Constructor for queries on a graph
+	 *
+	 * @param graph
+	 *            the graph to search
+	 */
+	public BidirectionalBfs(CsrGraph<?> graph) {
+		this.graph = graph;
+		this.workspaces = ThreadLocal.withInitial(() -> new Workspace(graph.size()));
+	}
+
+	/**
+	 * Finds a shortest path between two vertices
+	 *
+	 * @param source
+	 *            the ID of the first vertex
+	 * @param target
+	 *            the ID of the second vertex
+	 * @return int[] the IDs from source to target (both included), or null if
+	 *         target is not reachable from source
+	 */
+	public int[] path(int source, int target) {
+		Workspace ws = workspaces.get();
+		if (++ws.query == Integer.MAX_VALUE) {
+			Arrays.fill(ws.forward.stamp, 0);
+			Arrays.fill(ws.backward.stamp, 0);
+			ws.query = 1;
+		}
+		int query = ws.query;
+		ws.expanded = 0;
+		Side forward = ws.forward;
+		Side backward = ws.backward;
+		start(forward, source, query);
+		start(backward, target, query);
+		if (source == target)
+			return new int[] { source };
+
+		int[] offsets = graph.offsets;
+		int[] targets = graph.targets;
+		while (forward.head < forward.tail && backward.head < backward.tail) {
+			boolean expandForward = forward.tail - forward.head <= backward.tail - backward.head;
+			Side near = expandForward ? forward : backward;
+			Side far = expandForward ? backward : forward;
+
+			// Expand one whole level, keeping the shortest meeting found in it
+			int best = Integer.MAX_VALUE;
+			int meetNear = -1;
+			int meetFar = -1;
+			int levelEnd = near.tail;
+			ws.expanded += levelEnd - near.head;
+			while (near.head < levelEnd) {
+				int v = near.queue[near.head++];
+				for (int i = offsets[v], end = offsets[v + 1]; i < end; i++) {
+					int w = targets[i];
+					if (far.stamp[w] == query) {
+						int length = near.dist[v] + 1 + far.dist[w];
+						if (length < best) {
+							best = length;
+							meetNear = v;
+							meetFar = w;
+						}
+					}
+					if (near.stamp[w] != query) {
+						near.stamp[w] = query;
+						near.dist[w] = near.dist[v] + 1;
+						near.parent[w] = v;
+						near.queue[near.tail++] = w;
+					}
+				}
+			}
+
+			if (meetNear >= 0) {
+				if (expandForward)
+					return join(forward, meetNear, backward, meetFar, best);
+				return join(forward, meetFar, backward, meetNear, best);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Finds the shortest distance between two vertices
+	 *
+	 * @param source
+	 *            the ID of the first vertex
+	 * @param target
+	 *            the ID of the second vertex
+	 * @return int the number of edges on a shortest path, or -1 if target is not
+	 *         reachable from source
+	 */
+	public int distance(int source, int target) {
+		int[] path = path(source, target);
+		return path == null ? -1 : path.length - 1;
+	}
+
+	/**
+	 * @return int the number of vertices expanded by the last query of the
+	 *         calling thread, from both sides
+	 */
+	public int getExpanded() {
+		return workspaces.get().expanded;
+	}
+
+	/**
+	 * Private helper method to start one side of a query at a vertex
+	 */
+	private static void start(Side side, int vertex, int query) {
+		side.head = 0;
+		side.tail = 0;
+		side.stamp[vertex] = query;
+		side.dist[vertex] = 0;
+		side.parent[vertex] = -1;
+		side.queue[side.tail++] = vertex;
+	}
+
+	/**
+	 * Private helper method to build the path through an edge joining the two
+	 * sides
+	 *
+	 * @param forward
+	 *            - the side searched from the source
+	 * @param v
+	 *            - the end of the edge reached from the source
+	 * @param backward
+	 *            - the side searched from the target
+	 * @param w
+	 *            - the end of the edge reached from the target
+	 * @param length
+	 *            - the number of edges on the path
+	 * @return int[] the IDs from the source to the target
+	 */
+	private static int[] join(Side forward, int v, Side backward, int w, int length) {
+		int[] path = new int[length + 1];
+		for (int k = forward.dist[v], x = v; k >= 0; k--, x = forward.parent[x])
+			path[k] = x;
+		for (int k = forward.dist[v] + 1, x = w; k <= length; k++, x = backward.parent[x])
+			path[k] = x;
+		return path;
+	}
+}
@@ -0,0 +1,401 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/**
+ * Undirected and unweighted graph of words stored compactly.
+ *
+ * Words are kept in a {@link WordTrie}, which shares their common prefixes and
+ * gives each word a dense int ID, and the neighbors of each word are an array
+ * of IDs. There is no String, map entry or node object per vertex or edge, so
+ * a dictionary graph takes several times less memory than in {@link Graph},
+ * where every word is a key of the vertex map and of each neighbor's map.
+ * Words are rebuilt from the trie when they are read, so getNeighbors and
+ * getAllVertices return copies, and the int methods avoid rebuilding them.
+ *
+ * Can be used by a {@link GraphProcessor}:
+ *
+ * new GraphProcessor(CompactGraph::new)
+ */
+public class CompactGraph implements GraphADT<String> {
+
+	private static final int[] NO_NEIGHBORS = new int[0];
+
+	/**
+	 * The words of the graph and their IDs
+	 */
+	private final WordTrie words;
+
+	/**
+	 * Neighbor IDs of each ID, unordered, filled up to its degree; null for
+	 * unused IDs
+	 */
+	private int[][] neighbors;
+
+	/**
+	 * Number of neighbors of each ID
+	 */
+	private int[] degrees;
+
+	/**
+	 * Number of edges
+	 */
+	private long edgeCount;
+
+	public CompactGraph() {
+		words = new WordTrie();
+		neighbors = new int[16][];
+		degrees = new int[16];
+	}
+
+	/**
+	 * Add new vertex to the graph
+	 *
+	 * Valid argument conditions: 1. vertex should be non-null 2. vertex should not
+	 * already exist in the graph
+	 *
+	 * @param vertex
+	 *            the vertex to be added
+	 * @return vertex if vertex added, else return null if vertex can not be added
+	 *         (also if valid conditions are violated)
+	 */
+	@Override
+	public String addVertex(String vertex) {
+		if (!words.add(vertex))
+			return null;
+		int id = words.getId(vertex);
+		if (id >= neighbors.length) {
+			neighbors = Arrays.copyOf(neighbors, Math.max(id + 1, neighbors.length * 2));
+			degrees = Arrays.copyOf(degrees, neighbors.length);
+		}
+		neighbors[id] = NO_NEIGHBORS;
+		degrees[id] = 0;
+		return vertex;
+	}
+
+	/**
+	 * Remove the vertex and associated edge associations from the graph
+	 *
+	 * Valid argument conditions: 1. vertex should be non-null 2. vertex should
+	 * exist in the graph
+	 *
+	 * @param vertex
+	 *            the vertex to be removed
+	 * @return vertex if vertex removed, else return null if vertex and associated
+	 *         edges can not be removed (also if valid conditions are violated)
+	 */
+	@Override
+	public String removeVertex(String vertex) {
+		int id = words.getId(vertex);
+		if (id < 0)
+			return null;
+		for (int i = 0; i < degrees[id]; i++)
+			unlink(neighbors[id][i], id);
+		edgeCount -= degrees[id];
+		neighbors[id] = null;
+		degrees[id] = 0;
+		words.remove(vertex);
+		return vertex;
+	}
+
+	/**
+	 * Add an edge between two vertices (edge is undirected and unweighted)
+	 *
+	 * Valid argument conditions: 1. both the vertices should exist in the graph 2.
+	 * vertex1 should not equal vertex2
+	 *
+	 * @param vertex1
+	 *            the first vertex
+	 * @param vertex2
+	 *            the second vertex
+	 * @return true if edge added, else return false if edge can not be added
+	 *         (also if valid conditions are violated)
+	 */
+	@Override
+	public boolean addEdge(String vertex1, String vertex2) {
+		int id1 = words.getId(vertex1);
+		int id2 = words.getId(vertex2);
+		if (id1 < 0 || id2 < 0 || id1 == id2 || isAdjacent(id1, id2))
+			return false;
+		link(id1, id2);
+		link(id2, id1);
+		edgeCount++;
+		return true;
+	}
+
+	/**
+	 * Remove the edge between two vertices (edge is undirected and unweighted)
+	 *
+	 * Valid argument conditions: 1. both the vertices should exist in the graph 2.
+	 * vertex1 should not equal vertex2
+	 *
+	 * @param vertex1
+	 *            the first vertex
+	 * @param vertex2
+	 *            the second vertex
+	 * @return true if edge removed, else return false if edge can not be removed
+	 *         (also if valid conditions are violated)
+	 */
+	@Override
+	public boolean removeEdge(String vertex1, String vertex2) {
+		int id1 = words.getId(vertex1);
+		int id2 = words.getId(vertex2);
+		if (id1 < 0 || id2 < 0 || id1 == id2 || !isAdjacent(id1, id2))
+			return false;
+		unlink(id1, id2);
+		unlink(id2, id1);
+		edgeCount--;
+		return true;
+	}
+
+	/**
+	 * Check whether the two vertices are adjacent
+	 *
+	 * Valid argument conditions: 1. both the vertices should exist in the graph 2.
+	 * vertex1 should not equal vertex2
+	 *
+	 * @param vertex1
+	 *            the first vertex
+	 * @param vertex2
+	 *            the second vertex
+	 * @return true if both the vertices have an edge with each other, else return
+	 *         false if vertex1 and vertex2 are not connected (also if valid
+	 *         conditions are violated)
+	 */
+	@Override
+	public boolean isAdjacent(String vertex1, String vertex2) {
+		int id1 = words.getId(vertex1);
+		int id2 = words.getId(vertex2);
+		return id1 >= 0 && id2 >= 0 && id1 != id2 && isAdjacent(id1, id2);
+	}
+
+	/**
+	 * Get all the neighbor vertices of a vertex
+	 *
+	 * Valid argument conditions: 1. vertex is not null 2. vertex exists
+	 *
+	 * @param vertex
+	 *            the vertex
+	 * @return an iterable for all the immediate connected neighbor vertices, a
+	 *         copy made when called; null if the vertex does not exist
+	 */
+	@Override
+	public Iterable<String> getNeighbors(String vertex) {
+		int id = words.getId(vertex);
+		if (id < 0)
+			return null;
+		final int[] ids = Arrays.copyOf(neighbors[id], degrees[id]);
+		return new AbstractList<String>() {
+			@Override
+			public String get(int index) {
+				return words.getWord(ids[index]);
+			}
+
+			@Override
+			public int size() {
+				return ids.length;
+			}
+		};
+	}
+
+	/**
+	 * Get all the vertices in the graph
+	 *
+	 * @return an iterable for all the vertices, in ID order; must not be used
+	 *         while the graph changes
+	 */
+	@Override
+	public Iterable<String> getAllVertices() {
+		return () -> new Iterator<String>() {
+			private int next = advance(0);
+
+			private int advance(int id) {
+				while (id < words.idBound() && words.getWord(id) == null)
+					id++;
+				return id;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return next < words.idBound();
+			}
+
+			@Override
+			public String next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				String word = words.getWord(next);
+				next = advance(next + 1);
+				return word;
+			}
+		};
+	}
+
+	/**
+	 * @param vertex
+	 *            a vertex
+	 * @return int the ID of vertex, or -1 if it is not in the graph
+	 */
+	public int getId(String vertex) {
+		return words.getId(vertex);
+	}
+
+	/**
+	 * @param id
+	 *            an ID
+	 * @return String the vertex with that ID, or null if the ID is not used
+	 */
+	public String getVertex(int id) {
+		return words.getWord(id);
+	}
+
+	/**
+	 * @return int one more than the largest ID of a vertex
+	 */
+	public int idBound() {
+		return words.idBound();
+	}
+
+	/**
+	 * @return int the number of vertices
+	 */
+	public int vertexCount() {
+		return words.size();
+	}
+
+	/**
+	 * @return long the number of undirected edges
+	 */
+	public long edgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * @param id
+	 *            the ID of a vertex
+	 * @return int the number of neighbors of the vertex, 0 for unused IDs
+	 */
+	public int degree(int id) {
+		return id < 0 || id >= neighbors.length ? 0 : degrees[id];
+	}
+
+	/**
+	 * Calls action with the ID of each neighbor of a vertex, without rebuilding
+	 * any word
+	 *
+	 * @param id
+	 *            the ID of a vertex
+	 * @param action
+	 *            called with each neighbor ID
+	 */
+	public void forEachNeighbor(int id, IntConsumer action) {
+		for (int i = 0; i < degree(id); i++)
+			action.accept(neighbors[id][i]);
+	}
+
+	/**
+	 * Gets the vertices starting with a prefix, through the trie of the words
+	 *
+	 * @param prefix
+	 *            the prefix, the empty string for all vertices
+	 * @return List<String> the vertices starting with prefix, in lexicographic
+	 *         order
+	 */
+	public List<String> getVerticesWithPrefix(String prefix) {
+		return words.withPrefix(prefix);
+	}
+
+	/**
+	 * Gets the words of the graph one substitution, insertion or deletion from a
+	 * word, found by walking the trie of the words rather than from the edges,
+	 * so the word does not need to be in the graph
+	 *
+	 * @param word
+	 *            a word
+	 * @return List<String> the words of the graph adjacent to word by
+	 *         {@link WordProcessor#isAdjacent(String, String)}
+	 */
+	public List<String> getOneEditWords(String word) {
+		return words.search(word, 1, false);
+	}
+
+	/**
+	 * Gets the trie holding the vertices, for callers that search it directly.
+	 * It is owned by this graph and must only be queried.
+	 *
+	 * @return WordTrie the trie of the vertices
+	 */
+	public WordTrie getWords() {
+		return words;
+	}
+
+	/**
+	 * Estimates the memory used by the graph
+	 *
+	 * @return long the size of the trie and neighbor arrays, in bytes
+	 */
+	public long sizeInBytes() {
+		// 16 bytes of array header plus 4 per slot, and one reference per ID
+		long size = words.sizeInBytes() + degrees.length * 4L + neighbors.length * 8L;
+		for (int[] ids : neighbors) {
+			if (ids != null && ids != NO_NEIGHBORS)
+				size += 16 + ids.length * 4L;
+		}
+		return size;
+	}
+
+	/**
+	 * Shrinks the trie and every neighbor array to the memory they need, for a
+	 * graph that is done growing. The graph can still be changed afterwards.
+	 */
+	public void trimToSize() {
+		words.trimToSize();
+		for (int id = 0; id < neighbors.length; id++) {
+			if (neighbors[id] != null && neighbors[id].length > degrees[id])
+				neighbors[id] = degrees[id] == 0 ? NO_NEIGHBORS : Arrays.copyOf(neighbors[id], degrees[id]);
+		}
+		neighbors = Arrays.copyOf(neighbors, Math.max(1, words.idBound()));
+		degrees = Arrays.copyOf(degrees, neighbors.length);
+	}
+
+	/**
+	 * Private helper method to check for an edge between two used IDs, scanning
+	 * the shorter neighbor array
+	 */
+	private boolean isAdjacent(int id1, int id2) {
+		if (degrees[id1] > degrees[id2])
+			return isAdjacent(id2, id1);
+		int[] ids = neighbors[id1];
+		for (int i = 0; i < degrees[id1]; i++) {
+			if (ids[i] == id2)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Private helper method to add id2 to the neighbors of id1
+	 */
+	private void link(int id1, int id2) {
+		if (degrees[id1] == neighbors[id1].length)
+			neighbors[id1] = Arrays.copyOf(neighbors[id1], Math.max(2, degrees[id1] * 2));
+		neighbors[id1][degrees[id1]++] = id2;
+	}
+
+	/**
+	 * Private helper method to remove id2 from the neighbors of id1, moving the
+	 * last neighbor into its place
+	 */
+	private void unlink(int id1, int id2) {
+		int[] ids = neighbors[id1];
+		for (int i = 0; i < degrees[id1]; i++) {
+			if (ids[i] == id2) {
+				ids[i] = ids[--degrees[id1]];
+				return;
+			}
+		}
+	}
+}
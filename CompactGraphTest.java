@@ -0,0 +1,89 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Junit test class to test class @see CompactGraph
+ */
+public class CompactGraphTest {
+
+	private CompactGraph graph;
+
+	@Before
+	public void setUp() throws Exception {
+		graph = new CompactGraph();
+		for (String vertex : new String[] { "AT", "CAT", "HAT", "RAT", "HEAT", "CATS" })
+			graph.addVertex(vertex);
+		graph.addEdge("AT", "CAT");
+		graph.addEdge("AT", "HAT");
+		graph.addEdge("CAT", "HAT");
+		graph.addEdge("HAT", "HEAT");
+	}
+
+	@Test
+	public final void verticesAndEdgesBehaveLikeGraph() {
+		assertNull(graph.addVertex("CAT"));
+		assertNull(graph.addVertex(null));
+		assertEquals(false, graph.addEdge("AT", "CAT"));
+		assertEquals(false, graph.addEdge("AT", "AT"));
+		assertEquals(false, graph.addEdge("AT", "DOG"));
+		assertEquals(true, graph.isAdjacent("CAT", "AT"));
+		assertEquals(false, graph.isAdjacent("CAT", "RAT"));
+		assertEquals(6, graph.vertexCount());
+		assertEquals(4, graph.edgeCount());
+		assertEquals(Arrays.asList("AT", "CAT", "HEAT"), sorted(graph.getNeighbors("HAT")));
+		assertNull(graph.getNeighbors("DOG"));
+
+		assertEquals(true, graph.removeEdge("HAT", "AT"));
+		assertEquals(false, graph.removeEdge("HAT", "AT"));
+		assertEquals(3, graph.edgeCount());
+	}
+
+	@Test
+	public final void removeVertexRemovesItsEdgesAndFreesItsId() {
+		int id = graph.getId("HAT");
+		assertEquals("HAT", graph.removeVertex("HAT"));
+		assertNull(graph.removeVertex("HAT"));
+		assertEquals(false, graph.isAdjacent("AT", "HAT"));
+		assertEquals(1, graph.degree(graph.getId("AT")));
+		assertEquals(0, graph.degree(graph.getId("HEAT")));
+		assertEquals(1, graph.edgeCount());
+
+		graph.addVertex("BAT");
+		assertEquals(id, graph.getId("BAT"));
+		assertEquals("BAT", graph.getVertex(id));
+		assertEquals(0, graph.degree(id));
+		assertEquals(Arrays.asList("AT", "BAT", "CAT", "CATS", "HEAT", "RAT"), sorted(graph.getAllVertices()));
+	}
+
+	@Test
+	public final void wordsAreFoundThroughTheTrie() {
+		assertEquals(Arrays.asList("CAT", "CATS"), graph.getVerticesWithPrefix("CA"));
+		assertEquals(Arrays.asList("AT", "CAT", "CATS", "HAT", "HEAT", "RAT"), graph.getVerticesWithPrefix(""));
+		assertEquals(Collections.emptyList(), graph.getVerticesWithPrefix("Z"));
+		List<String> oneEdit = graph.getOneEditWords("BAT");
+		Collections.sort(oneEdit);
+		assertEquals(Arrays.asList("AT", "CAT", "HAT", "RAT"), oneEdit);
+		graph.trimToSize();
+		assertEquals(Arrays.asList("CAT", "CATS"), graph.getVerticesWithPrefix("CA"));
+		assertEquals(true, graph.isAdjacent("HAT", "HEAT"));
+		assertEquals("BATS", graph.addVertex("BATS"));
+		assertEquals(true, graph.addEdge("BATS", "CATS"));
+		assertEquals(Arrays.asList("BATS"), sorted(graph.getNeighbors("CATS")));
+	}
+
+	private static List<String> sorted(Iterable<String> vertices) {
+		List<String> list = new ArrayList<>();
+		for (String vertex : vertices)
+			list.add(vertex);
+		Collections.sort(list);
+		return list;
+	}
+}
@@ -0,0 +1,171 @@
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Union-find index of the connected components of a graph.
+ *
+ * Each vertex gets an int ID and a parent pointer; the vertices of a component
+ * form a tree whose root stands for the component. Unions attach the root of
+ * the smaller tree to the root of the larger one, and lookups halve the path
+ * they walk, so both take nearly constant time.
+ *
+ * The index only grows: it is kept up to date by its owner with
+ * {@link #add(Object)} and {@link #union(Object, Object)} as vertices and edges
+ * are added, and must be rebuilt with {@link #of(GraphADT)} when anything is
+ * removed. Lookups only ever replace a parent by one of its ancestors, so they
+ * can run on several threads at once while nothing is added.
+ */
+public class ComponentIndex<E> {
+
+	/**
+	 * ID of each vertex
+	 */
+	private HashMap<E, Integer> ids;
+
+	/**
+	 * Parent of each ID; roots are their own parent
+	 */
+	private int[] parent;
+
+	/**
+	 * Number of vertices in the component of each root
+	 */
+	private int[] size;
+
+	/**
+	 * Number of components
+	 */
+	private int componentCount;
+
+	/**
+	 * Constructor for an empty index
+	 */
+	public ComponentIndex() {
+		ids = new HashMap<>();
+		parent = new int[16];
+		size = new int[16];
+	}
+
+	/**
+	 * Indexes the components of a graph
+	 *
+	 * @param graph
+	 *            the graph to index
+	 * @return ComponentIndex<E> an index of the vertices and edges of graph
+	 */
+	public static <E> ComponentIndex<E> of(GraphADT<E> graph) {
+		ComponentIndex<E> index = new ComponentIndex<>();
+		for (E vertex : graph.getAllVertices())
+			index.add(vertex);
+		for (E vertex : graph.getAllVertices()) {
+			for (E neighbor : graph.getNeighbors(vertex))
+				index.union(vertex, neighbor);
+		}
+		return index;
+	}
+
+	/**
+	 * Adds a vertex in a component of its own
+	 *
+	 * @param vertex
+	 *            the vertex to add
+	 * @return true if the vertex was added, false if it is null or already indexed
+	 */
+	public boolean add(E vertex) {
+		if (vertex == null || ids.containsKey(vertex))
+			return false;
+		int id = ids.size();
+		if (id == parent.length) {
+			parent = Arrays.copyOf(parent, id * 2);
+			size = Arrays.copyOf(size, id * 2);
+		}
+		ids.put(vertex, id);
+		parent[id] = id;
+		size[id] = 1;
+		componentCount++;
+		return true;
+	}
+
+	/**
+	 * Merges the components of two vertices, after an edge was added between them
+	 *
+	 * @param vertex1
+	 *            the first vertex
+	 * @param vertex2
+	 *            the second vertex
+	 * @return true if two components were merged, false if the vertices were
+	 *         already connected or either is not indexed
+	 */
+	public boolean union(E vertex1, E vertex2) {
+		int root1 = root(vertex1);
+		int root2 = root(vertex2);
+		if (root1 < 0 || root2 < 0 || root1 == root2)
+			return false;
+		if (size[root1] < size[root2]) {
+			int swap = root1;
+			root1 = root2;
+			root2 = swap;
+		}
+		parent[root2] = root1;
+		size[root1] += size[root2];
+		componentCount--;
+		return true;
+	}
+
+	/**
+	 * @param vertex1
+	 *            the first vertex
+	 * @param vertex2
+	 *            the second vertex
+	 * @return true if both vertices are indexed and in the same component
+	 */
+	public boolean connected(E vertex1, E vertex2) {
+		int root1 = root(vertex1);
+		return root1 >= 0 && root1 == root(vertex2);
+	}
+
+	/**
+	 * @param vertex
+	 *            a vertex
+	 * @return int the number of vertices in its component, or 0 if it is not
+	 *         indexed
+	 */
+	public int componentSize(E vertex) {
+		int root = root(vertex);
+		return root < 0 ? 0 : size[root];
+	}
+
+	/**
+	 * @return int the number of components
+	 */
+	public int componentCount() {
+		return componentCount;
+	}
+
+	/**
+	 * @return int the number of vertices
+	 */
+	public int size() {
+		return ids.size();
+	}
+
+	/**
+	 * Private helper method to find the root of the component of a vertex,
+	 * halving the path to it
+	 *
+	 * @param vertex
+	 *            - a vertex
+	 * @return int the ID of the root, or -1 if vertex is not indexed
+	 */
+	private int root(E vertex) {
+		Integer id = vertex == null ? null : ids.get(vertex);
+		if (id == null)
+			return -1;
+		int x = id;
+		while (parent[x] != x) {
+			parent[x] = parent[parent[x]];
+			x = parent[x];
+		}
+		return x;
+	}
+}
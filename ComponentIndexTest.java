@@ -0,0 +1,51 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Junit test class to test class @see ComponentIndex
+ */
+public class ComponentIndexTest {
+
+	private ComponentIndex<String> index;
+
+	@Before
+	public void setUp() throws Exception {
+		index = new ComponentIndex<>();
+		for (String word : new String[] { "CAT", "HAT", "HOT", "DOG", "DOT", "ZEBRA" })
+			index.add(word);
+	}
+
+	@Test
+	public final void newVerticesAreAloneInTheirComponents() {
+		assertEquals(6, index.componentCount());
+		assertEquals(false, index.connected("CAT", "HAT"));
+		assertEquals(true, index.connected("CAT", "CAT"));
+		assertEquals(1, index.componentSize("ZEBRA"));
+	}
+
+	@Test
+	public final void unionMergesComponents() {
+		assertEquals(true, index.union("CAT", "HAT"));
+		assertEquals(true, index.union("HAT", "HOT"));
+		assertEquals(true, index.union("DOG", "DOT"));
+		assertEquals(false, index.union("CAT", "HOT"));
+		assertEquals(true, index.connected("CAT", "HOT"));
+		assertEquals(false, index.connected("CAT", "DOT"));
+		assertEquals(3, index.componentCount());
+
+		assertEquals(true, index.union("HOT", "DOT"));
+		assertEquals(true, index.connected("CAT", "DOG"));
+		assertEquals(5, index.componentSize("DOG"));
+		assertEquals(2, index.componentCount());
+	}
+
+	@Test
+	public final void verticesNotInIndexAreNotConnected() {
+		assertEquals(false, index.connected("CAT", "COT"));
+		assertEquals(false, index.connected(null, "CAT"));
+		assertEquals(false, index.union("CAT", "COT"));
+		assertEquals(0, index.componentSize("COT"));
+	}
+}
@@ -0,0 +1,249 @@
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe undirected and unweighted graph implementation.
+ *
+ * Vertices live in a {@link ConcurrentHashMap}, each with a concurrent set of
+ * neighbors, so reads never block and neighbor iteration is weakly consistent:
+ * it never throws {@link java.util.ConcurrentModificationException} and sees
+ * every edge that existed when it started, but may or may not see edges
+ * changed while it runs.
+ *
+ * Changes to an edge must update the neighbor sets of both ends together, so
+ * writers lock the stripes of both vertices (always in stripe order, so two
+ * writers can not deadlock). Writers touching unrelated vertices usually take
+ * different stripes and run in parallel.
+ *
+ * @param <E>
+ *            type of a vertex
+ */
+public class ConcurrentGraph<E> implements GraphADT<E> {
+
+	/**
+	 * Number of lock stripes, a power of two
+	 */
+	private static final int STRIPES = 64;
+
+	/**
+	 * Neighbor set of each vertex
+	 */
+	private final ConcurrentHashMap<E, Set<E>> nodes;
+
+	/**
+	 * Locks guarding writes, chosen by vertex hash
+	 */
+	private final Object[] locks;
+
+	public ConcurrentGraph() {
+		nodes = new ConcurrentHashMap<>();
+		locks = new Object[STRIPES];
+		for (int i = 0; i < STRIPES; i++)
+			locks[i] = new Object();
+	}
+
+	/**
+	 * Add new vertex to the graph
+	 *
+	 * Valid argument conditions: 1. vertex should be non-null 2. vertex should not
+	 * already exist in the graph
+	 *
+	 * @param vertex
+	 *            the vertex to be added
+	 * @return vertex if vertex added, else return null if vertex can not be added
+	 *         (also if valid conditions are violated)
+	 */
+	@Override
+	public E addVertex(E vertex) {
+		if (vertex == null)
+			return null;
+		Set<E> neighbors = ConcurrentHashMap.newKeySet();
+		return nodes.putIfAbsent(vertex, neighbors) == null ? vertex : null;
+	}
+
+	/**
+	 * Remove the vertex and associated edge associations from the graph
+	 *
+	 * Valid argument conditions: 1. vertex should be non-null 2. vertex should
+	 * exist in the graph
+	 *
+	 * @param vertex
+	 *            the vertex to be removed
+	 * @return vertex if vertex removed, else return null if vertex and associated
+	 *         edges can not be removed (also if valid conditions are violated)
+	 */
+	@Override
+	public E removeVertex(E vertex) {
+		if (vertex == null)
+			return null;
+
+		// No edge to vertex can be added once it is out of the map
+		Set<E> neighbors;
+		synchronized (lockFor(vertex)) {
+			neighbors = nodes.remove(vertex);
+		}
+		if (neighbors == null)
+			return null;
+
+		for (E neighbor : neighbors) {
+			Object first = firstLock(vertex, neighbor);
+			Object second = secondLock(vertex, neighbor);
+			synchronized (first) {
+				synchronized (second) {
+					Set<E> reverse = nodes.get(neighbor);
+					Set<E> readded = nodes.get(vertex);
+					// Keep the edge if vertex was added again and connected since
+					if (reverse != null && (readded == null || !readded.contains(neighbor)))
+						reverse.remove(vertex);
+				}
+			}
+		}
+		return vertex;
+	}
+
+	/**
+	 * Add an edge between two vertices (edge is undirected and unweighted)
+	 *
+	 * Valid argument conditions: 1. both the vertices should exist in the graph 2.
+	 * vertex1 should not equal vertex2
+	 *
+	 * @param vertex1
+	 *            the first vertex
+	 * @param vertex2
+	 *            the second vertex
+	 * @return true if edge added, else return false if edge can not be added (also
+	 *         if valid conditions are violated)
+	 */
+	@Override
+	public boolean addEdge(E vertex1, E vertex2) {
+		if (vertex1 == null || vertex2 == null || vertex1.equals(vertex2))
+			return false;
+
+		synchronized (firstLock(vertex1, vertex2)) {
+			synchronized (secondLock(vertex1, vertex2)) {
+				Set<E> neighbors1 = nodes.get(vertex1);
+				Set<E> neighbors2 = nodes.get(vertex2);
+				if (neighbors1 == null || neighbors2 == null || !neighbors1.add(vertex2))
+					return false;
+				neighbors2.add(vertex1);
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Remove the edge between two vertices (edge is undirected and unweighted)
+	 *
+	 * Valid argument conditions: 1. both the vertices should exist in the graph 2.
+	 * vertex1 should not equal vertex2
+	 *
+	 * @param vertex1
+	 *            the first vertex
+	 * @param vertex2
+	 *            the second vertex
+	 * @return true if edge removed, else return false if edge can not be removed
+	 *         (also if valid conditions are violated)
+	 */
+	@Override
+	public boolean removeEdge(E vertex1, E vertex2) {
+		if (vertex1 == null || vertex2 == null || vertex1.equals(vertex2))
+			return false;
+
+		synchronized (firstLock(vertex1, vertex2)) {
+			synchronized (secondLock(vertex1, vertex2)) {
+				Set<E> neighbors1 = nodes.get(vertex1);
+				Set<E> neighbors2 = nodes.get(vertex2);
+				if (neighbors1 == null || neighbors2 == null || !neighbors1.remove(vertex2))
+					return false;
+				neighbors2.remove(vertex1);
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Check whether the two vertices are adjacent
+	 *
+	 * Valid argument conditions: 1. both the vertices should exist in the graph 2.
+	 * vertex1 should not equal vertex2
+	 *
+	 * @param vertex1
+	 *            the first vertex
+	 * @param vertex2
+	 *            the second vertex
+	 * @return true if both the vertices have an edge with each other, else return
+	 *         false if vertex1 and vertex2 are not connected (also if valid
+	 *         conditions are violated)
+	 */
+	@Override
+	public boolean isAdjacent(E vertex1, E vertex2) {
+		if (vertex1 == null || vertex2 == null || vertex1.equals(vertex2))
+			return false;
+		Set<E> neighbors1 = nodes.get(vertex1);
+		return neighbors1 != null && neighbors1.contains(vertex2) && nodes.containsKey(vertex2);
+	}
+
+	/**
+	 * Get all the neighbor vertices of a vertex
+	 *
+	 * Valid argument conditions: 1. vertex is not null 2. vertex exists
+	 *
+	 * @param vertex
+	 *            the vertex
+	 * @return a weakly consistent, read-only view of the immediate connected
+	 *         neighbor vertices, or null if vertex is not in the graph
+	 */
+	@Override
+	public Iterable<E> getNeighbors(E vertex) {
+		Set<E> neighbors = vertex == null ? null : nodes.get(vertex);
+		if (neighbors == null)
+			return null;
+		return Collections.unmodifiableSet(neighbors);
+	}
+
+	/**
+	 * Get all the vertices in the graph
+	 *
+	 * @return a weakly consistent, read-only view of all the vertices
+	 */
+	@Override
+	public Iterable<E> getAllVertices() {
+		return Collections.unmodifiableSet(nodes.keySet());
+	}
+
+	/**
+	 * @param vertex
+	 *            a vertex
+	 * @return Object the lock of the stripe of vertex
+	 */
+	private Object lockFor(E vertex) {
+		return locks[stripe(vertex)];
+	}
+
+	/**
+	 * @return Object the lock to take first when locking the stripes of both
+	 *         vertices
+	 */
+	private Object firstLock(E vertex1, E vertex2) {
+		return locks[Math.min(stripe(vertex1), stripe(vertex2))];
+	}
+
+	/**
+	 * @return Object the lock to take second when locking the stripes of both
+	 *         vertices (the same as the first if they share a stripe)
+	 */
+	private Object secondLock(E vertex1, E vertex2) {
+		return locks[Math.max(stripe(vertex1), stripe(vertex2))];
+	}
+
+	/**
+	 * @param vertex
+	 *            a vertex
+	 * @return int the stripe of vertex
+	 */
+	private static int stripe(Object vertex) {
+		int h = vertex.hashCode();
+		return (h ^ (h >>> 16)) & (STRIPES - 1);
+	}
+}
@@ -0,0 +1,87 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Junit test class to test class @see ConcurrentGraph
+ */
+public class ConcurrentGraphTest {
+
+	private ConcurrentGraph<Integer> graph;
+
+	@Before
+	public void setUp() throws Exception {
+		graph = new ConcurrentGraph<>();
+	}
+
+	@Test
+	public final void removeVertexRemovesItsEdges() {
+		for (int i = 0; i < 4; i++)
+			graph.addVertex(i);
+		graph.addEdge(0, 1);
+		graph.addEdge(0, 2);
+		graph.addEdge(0, 3);
+
+		assertEquals(Integer.valueOf(0), graph.removeVertex(0));
+		assertEquals(null, graph.removeVertex(0));
+		for (int i = 1; i < 4; i++)
+			assertEquals(false, graph.getNeighbors(i).iterator().hasNext());
+	}
+
+	@Test
+	public final void neighborsCanBeIteratedWhileEdgesChange() {
+		for (int i = 0; i < 100; i++) {
+			graph.addVertex(i);
+			graph.addEdge(0, i);
+		}
+		int count = 0;
+		for (Integer neighbor : graph.getNeighbors(0)) {
+			graph.removeEdge(0, neighbor);
+			count++;
+		}
+		assertEquals(99, count);
+	}
+
+	@Test
+	public final void concurrentWritersKeepEdgesSymmetric() throws InterruptedException {
+		final int vertices = 200;
+		for (int i = 0; i < vertices; i++)
+			graph.addVertex(i);
+
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			final int seed = t;
+			threads.add(new Thread(() -> {
+				java.util.Random random = new java.util.Random(seed);
+				for (int i = 0; i < 20000; i++) {
+					int v1 = random.nextInt(vertices);
+					int v2 = random.nextInt(vertices);
+					switch (random.nextInt(4)) {
+					case 0:
+						graph.removeEdge(v1, v2);
+						break;
+					case 1:
+						if (graph.removeVertex(v1) != null)
+							graph.addVertex(v1);
+						break;
+					default:
+						graph.addEdge(v1, v2);
+					}
+				}
+			}));
+		}
+		for (Thread thread : threads)
+			thread.start();
+		for (Thread thread : threads)
+			thread.join();
+
+		for (Integer vertex : graph.getAllVertices()) {
+			for (Integer neighbor : graph.getNeighbors(vertex))
+				assertEquals(vertex + " " + neighbor, true, graph.isAdjacent(neighbor, vertex));
+		}
+	}
+}
@@ -0,0 +1,419 @@
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable undirected and unweighted graph in compressed-sparse-row form.
+ *
+ * Every vertex is interned to an int ID in [0, {@link #size()}). The
+ * neighbors of vertex v are the IDs targets[offsets[v]] up to (but not
+ * including) targets[offsets[v + 1]], sorted in increasing order, so a
+ * traversal walks one flat int array instead of a map per vertex.
+ *
+ * Built from any {@link GraphADT} with {@link #of(GraphADT)} or
+ * {@link Graph#freeze()}. The mutating methods of {@link GraphADT} leave the
+ * graph unchanged and report failure.
+ *
+ * {@link #of(GraphADT, CsrGraph)} freezes a graph again after it changed while
+ * keeping the IDs of an earlier copy, so data indexed by ID stays valid for the
+ * vertices that are still there. The IDs of removed vertices are left unused:
+ * {@link #getVertex(int)} returns null for them and they have no neighbors.
+ *
+ * @param <E>
+ *            type of a vertex
+ */
+public class CsrGraph<E> implements GraphADT<E> {
+
+	/**
+	 * Vertex of each ID
+	 */
+	private final E[] vertices;
+
+	/**
+	 * ID of each vertex
+	 */
+	private final HashMap<E, Integer> ids;
+
+	/**
+	 * Start of the neighbors of each ID in targets, with offsets[size()] equal to
+	 * targets.length
+	 */
+	final int[] offsets;
+
+	/**
+	 * Neighbor IDs of all vertices, grouped by vertex
+	 */
+	final int[] targets;
+
+	/**
+	 * Constructor for a graph over already interned vertices and adjacency arrays
+	 */
+	private CsrGraph(E[] vertices, HashMap<E, Integer> ids, int[] offsets, int[] targets) {
+		this.vertices = vertices;
+		this.ids = ids;
+		this.offsets = offsets;
+		this.targets = targets;
+	}
+
+	/**
+	 * Freezes a graph. Vertices get IDs in the iteration order of
+	 * {@link GraphADT#getAllVertices()}.
+	 *
+	 * @param graph
+	 *            the graph to copy
+	 * @return CsrGraph<E> an immutable copy of graph
+	 */
+	public static <E> CsrGraph<E> of(GraphADT<E> graph) {
+		HashMap<E, Integer> ids = new HashMap<>();
+		ArrayList<E> order = new ArrayList<>();
+		for (E vertex : graph.getAllVertices()) {
+			ids.put(vertex, order.size());
+			order.add(vertex);
+		}
+		return of(graph, order, ids);
+	}
+
+	/**
+	 * Freezes a graph, keeping the IDs an earlier frozen copy gave to the vertices
+	 * that are still in the graph. Vertices that were removed leave their ID
+	 * unused, and new vertices get IDs after the earlier ones, in the iteration
+	 * order of {@link GraphADT#getAllVertices()}.
+	 *
+	 * @param graph
+	 *            the graph to copy
+	 * @param previous
+	 *            an earlier frozen copy of graph
+	 * @return CsrGraph<E> an immutable copy of graph
+	 */
+	public static <E> CsrGraph<E> of(GraphADT<E> graph, CsrGraph<E> previous) {
+		HashMap<E, Integer> ids = new HashMap<>();
+		ArrayList<E> order = new ArrayList<>();
+		for (E vertex : previous.vertices) {
+			if (vertex != null && graph.getNeighbors(vertex) != null) {
+				ids.put(vertex, order.size());
+				order.add(vertex);
+			} else {
+				order.add(null);
+			}
+		}
+		for (E vertex : graph.getAllVertices()) {
+			if (!ids.containsKey(vertex)) {
+				ids.put(vertex, order.size());
+				order.add(vertex);
+			}
+		}
+		return of(graph, order, ids);
+	}
+
+	/**
+	 * Private helper method to copy the adjacency of a graph once its vertices
+	 * have IDs
+	 *
+	 * @param graph
+	 *            - the graph to copy
+	 * @param order
+	 *            - the vertex of each ID, null for unused IDs
+	 * @param ids
+	 *            - the ID of each vertex
+	 * @return CsrGraph<E> an immutable copy of graph
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E> CsrGraph<E> of(GraphADT<E> graph, ArrayList<E> order, HashMap<E, Integer> ids) {
+		E[] vertices = (E[]) order.toArray();
+		int[] offsets = new int[vertices.length + 1];
+		int[][] adjacency = new int[vertices.length][];
+		int[] buffer = new int[16];
+		for (int v = 0; v < vertices.length; v++) {
+			int degree = 0;
+			if (vertices[v] != null) {
+				for (E neighbor : graph.getNeighbors(vertices[v])) {
+					Integer id = ids.get(neighbor);
+					// A vertex added concurrently has no ID in this copy
+					if (id == null)
+						continue;
+					if (degree == buffer.length)
+						buffer = Arrays.copyOf(buffer, degree * 2);
+					buffer[degree++] = id;
+				}
+			}
+			adjacency[v] = Arrays.copyOf(buffer, degree);
+			Arrays.sort(adjacency[v]);
+			offsets[v + 1] = offsets[v] + degree;
+		}
+
+		int[] targets = new int[offsets[vertices.length]];
+		for (int v = 0; v < vertices.length; v++)
+			System.arraycopy(adjacency[v], 0, targets, offsets[v], adjacency[v].length);
+		return new CsrGraph<>(vertices, ids, offsets, targets);
+	}
+
+	/**
+	 * Writes a graph of words in the binary layout read by
+	 * {@link #read(ByteBuffer)}: the vertex and target counts, each word as its
+	 * UTF-8 length and bytes in ID order (length -1 for an unused ID), then
+	 * offsets and targets (all ints big-endian)
+	 *
+	 * @param graph
+	 *            the graph to write
+	 * @param out
+	 *            the stream to write to
+	 * @throws IOException
+	 *             exception resulting from writing to out
+	 */
+	public static void write(CsrGraph<String> graph, DataOutputStream out) throws IOException {
+		out.writeInt(graph.size());
+		out.writeInt(graph.targets.length);
+		for (int v = 0; v < graph.size(); v++) {
+			if (graph.getVertex(v) == null) {
+				out.writeInt(-1);
+				continue;
+			}
+			byte[] word = graph.getVertex(v).getBytes(StandardCharsets.UTF_8);
+			out.writeInt(word.length);
+			out.write(word);
+		}
+		for (int offset : graph.offsets)
+			out.writeInt(offset);
+		for (int target : graph.targets)
+			out.writeInt(target);
+	}
+
+	/**
+	 * Reads a graph of words written by {@link #write(CsrGraph, DataOutputStream)}
+	 * starting at the position of in, and leaves in positioned after it
+	 *
+	 * @param in
+	 *            the buffer to read from
+	 * @return CsrGraph<String> the graph
+	 * @throws IOException
+	 *             if the data is truncated or inconsistent
+	 */
+	public static CsrGraph<String> read(ByteBuffer in) throws IOException {
+		try {
+			int vertexCount = in.getInt();
+			int targetCount = in.getInt();
+			String[] vertices = new String[vertexCount];
+			HashMap<String, Integer> ids = new HashMap<>(vertexCount * 4 / 3 + 1);
+			int unused = 0;
+			for (int v = 0; v < vertexCount; v++) {
+				int length = in.getInt();
+				if (length < 0) {
+					unused++;
+					continue;
+				}
+				byte[] word = new byte[length];
+				in.get(word);
+				vertices[v] = new String(word, StandardCharsets.UTF_8);
+				ids.put(vertices[v], v);
+			}
+			int[] offsets = new int[vertexCount + 1];
+			in.asIntBuffer().get(offsets);
+			in.position(in.position() + 4 * offsets.length);
+			int[] targets = new int[targetCount];
+			in.asIntBuffer().get(targets);
+			in.position(in.position() + 4 * targets.length);
+
+			if (ids.size() + unused != vertexCount || offsets[0] != 0 || offsets[vertexCount] != targetCount)
+				throw new IOException("inconsistent graph data");
+			for (int v = 0; v < vertexCount; v++) {
+				if (offsets[v] > offsets[v + 1])
+					throw new IOException("inconsistent graph data");
+			}
+			for (int target : targets) {
+				if (target < 0 || target >= vertexCount)
+					throw new IOException("inconsistent graph data");
+			}
+			return new CsrGraph<>(vertices, ids, offsets, targets);
+		} catch (RuntimeException e) {
+			throw new IOException("truncated or corrupt graph data", e);
+		}
+	}
+
+	/**
+	 * @return int the number of IDs, used or not (one more than the largest ID)
+	 */
+	public int size() {
+		return vertices.length;
+	}
+
+	/**
+	 * @return int the number of vertices
+	 */
+	public int vertexCount() {
+		return ids.size();
+	}
+
+	/**
+	 * @return int the number of undirected edges
+	 */
+	public int edgeCount() {
+		return targets.length / 2;
+	}
+
+	/**
+	 * @param vertex
+	 *            the vertex
+	 * @return int the ID of vertex, or -1 if it is not in the graph
+	 */
+	public int getId(E vertex) {
+		Integer id = vertex == null ? null : ids.get(vertex);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * @param id
+	 *            the ID of a vertex
+	 * @return E the vertex with that ID, or null if the ID is unused
+	 */
+	public E getVertex(int id) {
+		return vertices[id];
+	}
+
+	/**
+	 * @param id
+	 *            the ID of a vertex
+	 * @return int the number of neighbors of the vertex
+	 */
+	public int degree(int id) {
+		return offsets[id + 1] - offsets[id];
+	}
+
+	/**
+	 * Passes the ID of every neighbor of a vertex to action, in increasing order
+	 *
+	 * @param id
+	 *            the ID of a vertex
+	 * @param action
+	 *            the action to run on each neighbor ID
+	 */
+	public void forEachNeighbor(int id, IntConsumer action) {
+		for (int i = offsets[id], end = offsets[id + 1]; i < end; i++)
+			action.accept(targets[i]);
+	}
+
+	/**
+	 * @param id1
+	 *            the ID of the first vertex
+	 * @param id2
+	 *            the ID of the second vertex
+	 * @return true if the vertices have an edge with each other
+	 */
+	public boolean isAdjacent(int id1, int id2) {
+		return Arrays.binarySearch(targets, offsets[id1], offsets[id1 + 1], id2) >= 0;
+	}
+
+	/**
+	 * Not supported, the graph is immutable
+	 *
+	 * @return null
+	 */
+	@Override
+	public E addVertex(E vertex) {
+		return null;
+	}
+
+	/**
+	 * Not supported, the graph is immutable
+	 *
+	 * @return null
+	 */
+	@Override
+	public E removeVertex(E vertex) {
+		return null;
+	}
+
+	/**
+	 * Not supported, the graph is immutable
+	 *
+	 * @return false
+	 */
+	@Override
+	public boolean addEdge(E vertex1, E vertex2) {
+		return false;
+	}
+
+	/**
+	 * Not supported, the graph is immutable
+	 *
+	 * @return false
+	 */
+	@Override
+	public boolean removeEdge(E vertex1, E vertex2) {
+		return false;
+	}
+
+	/**
+	 * Check whether the two vertices are adjacent
+	 *
+	 * @param vertex1
+	 *            the first vertex
+	 * @param vertex2
+	 *            the second vertex
+	 * @return true if both the vertices have an edge with each other, else return
+	 *         false (also if either vertex is not in the graph)
+	 */
+	@Override
+	public boolean isAdjacent(E vertex1, E vertex2) {
+		int id1 = getId(vertex1);
+		int id2 = getId(vertex2);
+		if (id1 < 0 || id2 < 0)
+			return false;
+		return isAdjacent(id1, id2);
+	}
+
+	/**
+	 * Get all the neighbor vertices of a vertex
+	 *
+	 * @param vertex
+	 *            the vertex
+	 * @return an iterable for all the immediate connected neighbor vertices, or
+	 *         null if vertex is not in the graph
+	 */
+	@Override
+	public Iterable<E> getNeighbors(E vertex) {
+		int id = getId(vertex);
+		if (id < 0)
+			return null;
+
+		final int start = offsets[id];
+		final int degree = degree(id);
+		return new AbstractList<E>() {
+			@Override
+			public E get(int index) {
+				return vertices[targets[start + index]];
+			}
+
+			@Override
+			public int size() {
+				return degree;
+			}
+		};
+	}
+
+	/**
+	 * Get all the vertices in the graph, in ID order
+	 *
+	 * @return an iterable for all the vertices
+	 */
+	@Override
+	public Iterable<E> getAllVertices() {
+		List<E> all = Arrays.asList(vertices);
+		if (ids.size() == vertices.length)
+			return Collections.unmodifiableList(all);
+
+		List<E> used = new ArrayList<>(ids.size());
+		for (E vertex : all) {
+			if (vertex != null)
+				used.add(vertex);
+		}
+		return Collections.unmodifiableList(used);
+	}
+}
@@ -0,0 +1,65 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Junit test class to test class @see CsrGraph
+ */
+public class CsrGraphTest {
+
+	private Graph<String> graph;
+
+	@Before
+	public void setUp() throws Exception {
+		graph = new Graph<>();
+		for (String vertex : new String[] { "at", "cat", "hat", "rat", "heat", "major" })
+			graph.addVertex(vertex);
+		graph.addEdge("at", "cat");
+		graph.addEdge("at", "hat");
+		graph.addEdge("at", "rat");
+		graph.addEdge("cat", "hat");
+		graph.addEdge("hat", "heat");
+	}
+
+	@Test
+	public final void freezeKeepsVerticesAndEdges() {
+		CsrGraph<String> frozen = graph.freeze();
+		assertEquals(6, frozen.size());
+		assertEquals(5, frozen.edgeCount());
+		for (String vertex : graph.getAllVertices()) {
+			int id = frozen.getId(vertex);
+			assertEquals(vertex, frozen.getVertex(id));
+			for (String other : graph.getAllVertices())
+				assertEquals(vertex + " " + other, graph.isAdjacent(vertex, other), frozen.isAdjacent(vertex, other));
+		}
+	}
+
+	@Test
+	public final void forEachNeighborVisitsSortedIds() {
+		CsrGraph<String> frozen = graph.freeze();
+		List<Integer> ids = new ArrayList<>();
+		frozen.forEachNeighbor(frozen.getId("at"), ids::add);
+		assertEquals(3, ids.size());
+		assertEquals(3, frozen.degree(frozen.getId("at")));
+		for (int i = 1; i < ids.size(); i++)
+			assertEquals(true, ids.get(i - 1) < ids.get(i));
+		assertEquals(0, frozen.degree(frozen.getId("major")));
+	}
+
+	@Test
+	public final void frozenGraphIsImmutable() {
+		CsrGraph<String> frozen = graph.freeze();
+		assertEquals(null, frozen.addVertex("bat"));
+		assertEquals(null, frozen.removeVertex("at"));
+		assertEquals(false, frozen.addEdge("cat", "rat"));
+		assertEquals(false, frozen.removeEdge("at", "cat"));
+		assertEquals(-1, frozen.getId("bat"));
+		assertEquals(null, frozen.getNeighbors("bat"));
+		graph.addEdge("cat", "rat");
+		assertEquals(false, frozen.isAdjacent("cat", "rat"));
+	}
+}
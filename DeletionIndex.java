@@ -0,0 +1,154 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Deletion-neighborhood index of a dictionary.
+ *
+ * Every word is filed under each of its single-letter deletions (CART is filed
+ * under ART, CRT, CAT and CAR). A word one insertion away from a query is filed
+ * under the query itself, and a word one deletion away from a query is one of
+ * the query's own deletions, so both kinds of neighbor come from hash lookups
+ * instead of a scan of the dictionary.
+ *
+ * The index is kept up to date by its owner with {@link #add(String)} and
+ * {@link #remove(String)} and can be queried by any caller that needs the
+ * insertion/deletion neighbors of a word, whether or not the word is indexed.
+ */
+public class DeletionIndex {
+
+	/**
+	 * Deletion key to the words that give that key when one letter is deleted
+	 */
+	private HashMap<String, List<String>> byDeletion;
+
+	/**
+	 * Words in the index
+	 */
+	private HashSet<String> words;
+
+	/**
+	 * Constructor for an empty index
+	 */
+	public DeletionIndex() {
+		byDeletion = new HashMap<>();
+		words = new HashSet<>();
+	}
+
+	/**
+	 * Files a word under all of its deletion keys
+	 *
+	 * @param word
+	 *            the word to add
+	 * @return true if the word was added, false if it is null or already indexed
+	 */
+	public boolean add(String word) {
+		if (word == null || !words.add(word))
+			return false;
+		for (String key : deletions(word)) {
+			List<String> bucket = byDeletion.computeIfAbsent(key, k -> new ArrayList<>(2));
+			bucket.add(word);
+		}
+		return true;
+	}
+
+	/**
+	 * Removes a word from all of its deletion keys
+	 *
+	 * @param word
+	 *            the word to remove
+	 * @return true if the word was removed, false if it was not indexed
+	 */
+	public boolean remove(String word) {
+		if (word == null || !words.remove(word))
+			return false;
+		for (String key : deletions(word)) {
+			List<String> bucket = byDeletion.get(key);
+			bucket.remove(word);
+			if (bucket.isEmpty())
+				byDeletion.remove(key);
+		}
+		return true;
+	}
+
+	/**
+	 * @param word
+	 *            the word
+	 * @return true if word is indexed
+	 */
+	public boolean contains(String word) {
+		return words.contains(word);
+	}
+
+	/**
+	 * @return int the number of indexed words
+	 */
+	public int size() {
+		return words.size();
+	}
+
+	/**
+	 * Gets the indexed words that are one letter longer than word and become word
+	 * when that letter is deleted
+	 *
+	 * @param word
+	 *            the word (does not need to be indexed)
+	 * @return List<String> the indexed words one insertion away from word
+	 */
+	public List<String> getInsertions(String word) {
+		List<String> bucket = byDeletion.get(word);
+		if (bucket == null)
+			return Collections.emptyList();
+		return Collections.unmodifiableList(bucket);
+	}
+
+	/**
+	 * Gets the indexed words that word becomes when one of its letters is deleted
+	 *
+	 * @param word
+	 *            the word (does not need to be indexed)
+	 * @return Set<String> the indexed words one deletion away from word
+	 */
+	public Set<String> getDeletions(String word) {
+		Set<String> found = new HashSet<>();
+		for (String key : deletions(word)) {
+			if (words.contains(key))
+				found.add(key);
+		}
+		return found;
+	}
+
+	/**
+	 * Gets every indexed word one insertion or one deletion away from word
+	 *
+	 * @param word
+	 *            the word (does not need to be indexed)
+	 * @return Set<String> the insertion and deletion neighbors of word
+	 */
+	public Set<String> getNeighbors(String word) {
+		Set<String> neighbors = getDeletions(word);
+		neighbors.addAll(getInsertions(word));
+		return neighbors;
+	}
+
+	/**
+	 * Gets the distinct single-letter deletions of a word. Deleting any letter of a
+	 * run of repeated letters gives the same key, which is only returned once.
+	 *
+	 * @param word
+	 *            the word
+	 * @return List<String> the deletion keys of word
+	 */
+	static List<String> deletions(String word) {
+		List<String> keys = new ArrayList<>(word.length());
+		for (int i = 0; i < word.length(); i++) {
+			if (i > 0 && word.charAt(i) == word.charAt(i - 1))
+				continue;
+			keys.add(word.substring(0, i) + word.substring(i + 1));
+		}
+		return keys;
+	}
+}
@@ -0,0 +1,49 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Junit test class to test class @see DeletionIndex
+ */
+public class DeletionIndexTest {
+
+	private DeletionIndex index;
+
+	@Before
+	public void setUp() throws Exception {
+		index = new DeletionIndex();
+		for (String word : Arrays.asList("AT", "CAT", "CART", "CHAT", "COAT", "HAT", "CATS"))
+			index.add(word);
+	}
+
+	@Test
+	public final void getNeighborsFindsInsertionsAndDeletions() {
+		assertEquals(new HashSet<>(Arrays.asList("AT", "CART", "CHAT", "COAT", "CATS")), index.getNeighbors("CAT"));
+	}
+
+	@Test
+	public final void getNeighborsOfWordNotInIndex() {
+		assertEquals(new HashSet<>(Arrays.asList("CAT", "HAT")), index.getNeighbors("HCAT"));
+	}
+
+	@Test
+	public final void removeDropsWordFromNeighborhoods() {
+		assertEquals(true, index.remove("CART"));
+		assertEquals(false, index.remove("CART"));
+		assertEquals(new HashSet<>(Arrays.asList("AT", "CHAT", "COAT", "CATS")), index.getNeighbors("CAT"));
+	}
+
+	@Test
+	public final void repeatedLettersAreFiledOnce() {
+		index.add("CATT");
+		int count = 0;
+		for (String word : index.getInsertions("CAT"))
+			if (word.equals("CATT"))
+				count++;
+		assertEquals(1, count);
+	}
+}
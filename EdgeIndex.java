@@ -0,0 +1,222 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Edge-discovery index for the words of a dictionary graph.
+ *
+ * Substitutions: every word is filed into buckets keyed by its masked
+ * patterns, where one letter is replaced by {@link #WILDCARD} (CAT is filed
+ * under _AT, C_T and CA_). Two words of the same length one substitution
+ * apart always share a bucket.
+ *
+ * Insertions and deletions: looked up in a {@link DeletionIndex} kept over the
+ * same words.
+ *
+ * Together these give a complete candidate set for the edges of a new word.
+ * Candidates still have to be confirmed with
+ * {@link WordProcessor#isAdjacent(String, String)}, since a word that itself
+ * contains the wildcard character can share a bucket with a non-neighbor. The
+ * index keeps every word encoded for {@link AdjacencyKernel}, so confirming a
+ * candidate does not encode it again.
+ *
+ * Other adjacency policies than {@link AdjacencyPolicy#ONE_EDIT} take their
+ * candidates from a {@link WordTrie} of the same words instead of the buckets,
+ * searched with the distance bound of the policy. Those candidates are exactly
+ * the neighbors of the word and need no confirmation.
+ */
+public class EdgeIndex {
+
+	/**
+	 * Character that stands in for the masked letter of a pattern
+	 */
+	public static final char WILDCARD = '_';
+
+	/**
+	 * Masked pattern to the words filed under it
+	 */
+	private HashMap<String, List<String>> buckets;
+
+	/**
+	 * Insertion/deletion neighborhoods of the same words
+	 */
+	private DeletionIndex deletions;
+
+	/**
+	 * Each word encoded by {@link AdjacencyKernel#encode(String)}
+	 */
+	private HashMap<String, byte[]> encoded;
+
+	/**
+	 * Rule the candidates are found for
+	 */
+	private AdjacencyPolicy policy;
+
+	/**
+	 * Trie of the same words, searched for the candidates of policies other than
+	 * {@link AdjacencyPolicy#ONE_EDIT}; null with that policy
+	 */
+	private WordTrie trie;
+
+	/**
+	 * Constructor for an empty index finding the candidates of
+	 * {@link AdjacencyPolicy#ONE_EDIT}
+	 */
+	public EdgeIndex() {
+		this(AdjacencyPolicy.ONE_EDIT);
+	}
+
+	/**
+	 * Constructor for an empty index finding the candidates of a policy
+	 *
+	 * @param policy
+	 *            the adjacency policy
+	 */
+	public EdgeIndex(AdjacencyPolicy policy) {
+		this.policy = policy;
+		buckets = new HashMap<>();
+		deletions = new DeletionIndex();
+		encoded = new HashMap<>();
+		if (!AdjacencyPolicy.ONE_EDIT.equals(policy))
+			trie = new WordTrie();
+	}
+
+	/**
+	 * @return AdjacencyPolicy the rule the candidates are found for
+	 */
+	public AdjacencyPolicy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * @return boolean true if the candidates are exactly the neighbors of a word
+	 *         and need no confirmation
+	 */
+	public boolean isExact() {
+		return trie != null;
+	}
+
+	/**
+	 * Files a word into all of its buckets
+	 *
+	 * @param word
+	 *            the word to add
+	 * @return true if the word was added, false if it is null or already indexed
+	 */
+	public boolean add(String word) {
+		if (!deletions.add(word))
+			return false;
+		if (trie != null) {
+			trie.add(word);
+			return true;
+		}
+		for (String key : patterns(word))
+			buckets.computeIfAbsent(key, k -> new ArrayList<>(2)).add(word);
+		encoded.put(word, AdjacencyKernel.encode(word));
+		return true;
+	}
+
+	/**
+	 * @param word
+	 *            a word
+	 * @return true if the word is indexed
+	 */
+	public boolean contains(String word) {
+		return deletions.contains(word);
+	}
+
+	/**
+	 * @param word
+	 *            an indexed word
+	 * @return byte[] the word encoded by {@link AdjacencyKernel#encode(String)},
+	 *         or null if it is not indexed or has characters outside Latin-1
+	 */
+	public byte[] getEncoded(String word) {
+		return encoded.get(word);
+	}
+
+	/**
+	 * Removes a word from all of its buckets
+	 *
+	 * @param word
+	 *            the word to remove
+	 * @return true if the word was removed, false if it was not indexed
+	 */
+	public boolean remove(String word) {
+		if (!deletions.remove(word))
+			return false;
+		if (trie != null) {
+			trie.remove(word);
+			return true;
+		}
+		encoded.remove(word);
+		for (String key : patterns(word)) {
+			List<String> bucket = buckets.get(key);
+			bucket.remove(word);
+			if (bucket.isEmpty())
+				buckets.remove(key);
+		}
+		return true;
+	}
+
+	/**
+	 * Gets every indexed word sharing a bucket with word, or with a policy other
+	 * than {@link AdjacencyPolicy#ONE_EDIT} every indexed word within its edit
+	 * distance. The word itself is never a candidate.
+	 *
+	 * @param word
+	 *            the word to find candidates for (does not need to be indexed)
+	 * @return Set<String> the candidate neighbors of word
+	 */
+	public Set<String> getCandidates(String word) {
+		if (trie != null)
+			return new HashSet<>(trie.search(word, policy.getMaxEdits(), policy.allowsTranspositions()));
+		Set<String> candidates = deletions.getNeighbors(word);
+		for (String key : patterns(word)) {
+			List<String> bucket = buckets.get(key);
+			if (bucket != null)
+				candidates.addAll(bucket);
+		}
+		candidates.remove(word);
+		return candidates;
+	}
+
+	/**
+	 * @return int the number of indexed words
+	 */
+	public int size() {
+		return deletions.size();
+	}
+
+	/**
+	 * Gets the deletion-neighborhood index kept over the same words. It is shared
+	 * with callers that only need insertion/deletion neighbors and must not be
+	 * modified by them.
+	 *
+	 * @return DeletionIndex the deletion index
+	 */
+	public DeletionIndex getDeletionIndex() {
+		return deletions;
+	}
+
+	/**
+	 * Gets the masked patterns of a word
+	 *
+	 * @param word
+	 *            the word
+	 * @return List<String> the patterns of word
+	 */
+	private static List<String> patterns(String word) {
+		List<String> keys = new ArrayList<>(word.length());
+		char[] letters = word.toCharArray();
+		for (int i = 0; i < letters.length; i++) {
+			char letter = letters[i];
+			letters[i] = WILDCARD;
+			keys.add(new String(letters));
+			letters[i] = letter;
+		}
+		return keys;
+	}
+}
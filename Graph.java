@@ -16,6 +16,8 @@ public class Graph<E> implements GraphADT<E> {
     
     private HashMap<E, GraphNode<E>> nodes; // All entries in the graph
     
+    private GraphMetrics metrics; // Receives the counts of vertices, edges and isAdjacent calls
+    
     /**
     * Node class for each entry
     */
@@ -33,6 +35,16 @@ public class Graph<E> implements GraphADT<E> {
     
     public Graph() {
         nodes = new HashMap<E, GraphNode<E>>();
+        metrics = GraphMetrics.NONE;
+    }
+    
+    /**
+     * Set what receives the counts of vertices and edges added and removed and of isAdjacent calls
+     * 
+     * @param metrics the receiver of the counts, GraphMetrics.NONE (the default) to count nothing
+     */
+    public void setMetrics(GraphMetrics metrics) {
+        this.metrics = metrics == null ? GraphMetrics.NONE : metrics;
     }
 
     
@@ -51,6 +63,7 @@ public class Graph<E> implements GraphADT<E> {
         if(vertex == null || nodes.containsKey(vertex)) return null;
         GraphNode<E> node = new GraphNode<E>();
         nodes.put(vertex, node);
+        metrics.verticesChanged(1);
         return vertex;
     }
 
@@ -69,11 +82,13 @@ public class Graph<E> implements GraphADT<E> {
         GraphNode<E> node = nodes.get(vertex);
         if(node == null) return null;
         
-        //Removes node's edges
-        for(E key : node.neighbors.keySet()) {
-            removeEdge(key, vertex);
+        //Removes node's edges from its neighbors, without changing node.neighbors while iterating over it
+        for(GraphNode<E> neighbor : node.neighbors.values()) {
+            neighbor.neighbors.remove(vertex);
         }
         nodes.remove(vertex);
+        metrics.verticesChanged(-1);
+        metrics.edgesChanged(-node.neighbors.size());
         return vertex;
         
     }
@@ -101,6 +116,7 @@ public class Graph<E> implements GraphADT<E> {
         
         node2.neighbors.put(vertex1, node1);
         node1.neighbors.put(vertex2, node2);
+        metrics.edgesChanged(1);
         return true;
     }    
 
@@ -127,6 +143,7 @@ public class Graph<E> implements GraphADT<E> {
         
         node2.neighbors.remove(vertex1);
         node1.neighbors.remove(vertex2);
+        metrics.edgesChanged(-1);
         return true;
     }
 
@@ -143,6 +160,7 @@ public class Graph<E> implements GraphADT<E> {
      */
     @Override
     public boolean isAdjacent(E vertex1, E vertex2) {
+        metrics.isAdjacentCalled(1);
         if(vertex1 == null || vertex2 == null) return false;
         if(vertex1.equals(vertex2)) return false;
         
@@ -181,4 +199,16 @@ public class Graph<E> implements GraphADT<E> {
         return nodes.keySet(); // Returns iterable set of all the keys
     }
 
+    /**
+     * Get an immutable compressed-sparse-row copy of the graph, with vertices
+     * interned to int IDs for fast traversal
+     * 
+     * Later changes to this graph are not reflected in the copy
+     * 
+     * @return a frozen copy of the graph
+     */
+    public CsrGraph<E> freeze() {
+        return CsrGraph.of(this);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+/**
+ * Receiver of the measurements of a {@link GraphProcessor} and of a
+ * {@link Graph}: counts of vertices, edges and adjacency tests, the time of each
+ * phase of building and precomputing the graph, the latency of each query, the
+ * vertices expanded by searches and the size of the precomputed paths.
+ *
+ * Every method does nothing by default, so an implementation only overrides
+ * what it records. {@link #NONE}, the default of both classes, records
+ * nothing: its methods are empty and inlined by the JIT, and callers skip
+ * reading the clock when {@link #isEnabled()} is false, so instrumentation
+ * costs close to nothing until a receiver is set. {@link MetricsRecorder}
+ * keeps the measurements in memory and {@link JfrMetrics} also emits them as
+ * JDK Flight Recorder events.
+ *
+ * Methods can be called from several threads at once.
+ */
+public interface GraphMetrics {
+
+	/**
+	 * Receiver that records nothing
+	 */
+	GraphMetrics NONE = new GraphMetrics() {
+		@Override
+		public boolean isEnabled() {
+			return false;
+		}
+	};
+
+	/**
+	 * Timed phases of building and persisting a graph
+	 */
+	enum Phase {
+		/** Reading and normalizing the words of dictionary files */
+		READ,
+		/** Adding words to the graph and finding their edges */
+		EDGE_DISCOVERY,
+		/** Removing words from the graph */
+		REMOVAL,
+		/** Copying the graph into a {@link CsrGraph} */
+		FREEZE,
+		/** Computing or updating the {@link RoutingTable} */
+		PRECOMPUTATION,
+		/** Writing precomputed paths or a graph snapshot */
+		SAVE,
+		/** Reading precomputed paths or a graph snapshot */
+		LOAD
+	}
+
+	/**
+	 * Timed queries
+	 */
+	enum Query {
+		/** {@link GraphProcessor#getShortestPath(String, String)} */
+		PATH,
+		/** {@link GraphProcessor#getShortestDistance(String, String)} */
+		DISTANCE,
+		/** {@link GraphProcessor#areConnected(String, String)} */
+		CONNECTED,
+		/** {@link GraphProcessor#getShortestPaths(java.util.Collection)} */
+		BATCH_PATHS,
+		/** {@link GraphProcessor#getShortestDistances(java.util.Collection)} */
+		BATCH_DISTANCES
+	}
+
+	/**
+	 * @return true if this receiver records anything, so that callers need to
+	 *         time what they report
+	 */
+	default boolean isEnabled() {
+		return true;
+	}
+
+	/**
+	 * Called when vertices are added to or removed from a graph
+	 *
+	 * @param delta
+	 *            the change in the number of vertices
+	 */
+	default void verticesChanged(long delta) {
+	}
+
+	/**
+	 * Called when edges are added to or removed from a graph
+	 *
+	 * @param delta
+	 *            the change in the number of edges
+	 */
+	default void edgesChanged(long delta) {
+	}
+
+	/**
+	 * Called after words or vertices were tested for adjacency, by
+	 * {@link Graph#isAdjacent(Object, Object)} or while finding the edges of new
+	 * words
+	 *
+	 * @param count
+	 *            the number of tests
+	 */
+	default void isAdjacentCalled(long count) {
+	}
+
+	/**
+	 * Called after a phase of building or persisting a graph
+	 *
+	 * @param phase
+	 *            the phase
+	 * @param nanos
+	 *            the time it took, in nanoseconds
+	 */
+	default void phaseCompleted(Phase phase, long nanos) {
+	}
+
+	/**
+	 * Called after a query was answered
+	 *
+	 * @param query
+	 *            the kind of query
+	 * @param word1
+	 *            the first word, or null for batch queries
+	 * @param word2
+	 *            the second word, or null for batch queries
+	 * @param nanos
+	 *            the time it took, in nanoseconds
+	 */
+	default void queryCompleted(Query query, String word1, String word2, long nanos) {
+	}
+
+	/**
+	 * Called after a query was answered by searching the graph from its words,
+	 * with {@link PathStrategy#BIDIRECTIONAL} or {@link PathStrategy#ASTAR}
+	 *
+	 * @param count
+	 *            the number of vertices the search expanded
+	 */
+	default void verticesExpanded(long count) {
+	}
+
+	/**
+	 * Called when the precomputed paths change
+	 *
+	 * @param bytes
+	 *            the estimated size of the precomputed paths, 0 if there are none
+	 */
+	default void precomputedSizeChanged(long bytes) {
+	}
+}
@@ -35,8 +35,12 @@
 /////////////////////////////// 80 COLUMNS WIDE ///////////////////////////////
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -74,28 +78,334 @@ import java.util.stream.StreamSupport;
  * @author sapan (sapan@cs.wisc.edu)
  * 
  */
-public class GraphProcessor {
+public class GraphProcessor implements AutoCloseable {
 
 	/**
-	 * Graph which stores the dictionary words and their associated connections
+	 * Graph which stores the dictionary words and their associated connections.
+	 * Null after {@link #loadPrecomputation(Path)} until the graph is next
+	 * modified, while the loaded frozen copy is all that is needed
 	 */
 	private GraphADT<String> graph;
 
 	/**
-	 * HashMap which stores the following path information between any two vertices
-	 * Key: A word in graph (origin) Value: A HashMap containing path information
-	 * from the key to all other words in the graph with: Key: a word in graph other
-	 * than origin (destination) Value: A PathNode containing information of paths
-	 * from origin to destination
+	 * Table which stores the path information between any two vertices of the
+	 * frozen graph: for every origin, the distance to every destination modulo 3,
+	 * from which the shortest path and its length are walked back (see
+	 * {@link RoutingTable}). Null until {@link #shortestPathPrecomputation()} is
+	 * called with {@link PathStrategy#PRECOMPUTED}
 	 */
-	private HashMap<String, HashMap<String, PathNode>> pathMaps;
+	private volatile RoutingTable routingTable;
+
+	/**
+	 * Index of the words in graph used to find the candidate edges of a new word.
+	 * Null after {@link #loadPrecomputation(Path)} until graph is rebuilt
+	 */
+	private EdgeIndex edgeIndex;
+
+	/**
+	 * Connected components of graph, kept up to date as words are added so that
+	 * words in different components are answered without a search
+	 */
+	private ComponentIndex<String> components;
+
+	/**
+	 * How shortest path queries are answered
+	 */
+	private PathStrategy strategy;
+
+	/**
+	 * Which words are joined by an edge
+	 */
+	private AdjacencyPolicy policy;
+
+	/**
+	 * BFS engine over a frozen copy of graph, or null if graph changed since it
+	 * was last frozen
+	 */
+	private volatile BfsEngine engine;
+
+	/**
+	 * Shortest path trees of recently queried source words, used by
+	 * {@link PathStrategy#LAZY}
+	 */
+	private BfsTreeCache treeCache;
+
+	/**
+	 * Point-to-point searches over the same frozen copy as engine, used by
+	 * {@link PathStrategy#BIDIRECTIONAL}, or null if not created yet
+	 */
+	private BidirectionalBfs bidirectional;
+
+	/**
+	 * A* searches over the same frozen copy as engine, used by
+	 * {@link PathStrategy#ASTAR}, or null if not created yet
+	 */
+	private AStarSearch astar;
+
+	/**
+	 * Number of landmarks to compute distances to, 0 for none
+	 */
+	private int landmarkCount;
+
+	/**
+	 * How the landmarks are chosen
+	 */
+	private LandmarkIndex.Selection landmarkSelection;
+
+	/**
+	 * Distances to the landmarks in the same frozen copy as engine, or null if
+	 * not computed yet or landmarkCount is 0
+	 */
+	private LandmarkIndex landmarks;
+
+	/**
+	 * 2-hop labels of a frozen copy of graph, used by {@link PathStrategy#PLL},
+	 * or null until {@link #shortestPathPrecomputation()} is called with that
+	 * strategy
+	 */
+	private PrunedLandmarkLabeling labeling;
+
+	/**
+	 * Whether precomputed routing tables keep their rows outside the heap
+	 */
+	private boolean offHeap;
+
+	/**
+	 * Arena holding the rows of routingTable, or null if they are on the heap or
+	 * memory mapped
+	 */
+	private OffHeapArena tableArena;
+
+	/**
+	 * Creates the empty graphs this processor stores its words in
+	 */
+	private Supplier<GraphADT<String>> graphFactory;
+
+	/**
+	 * Receives the counters, phase times and query latencies of this processor,
+	 * {@link GraphMetrics#NONE} unless set
+	 */
+	private GraphMetrics metrics;
+
+	/**
+	 * Start time of an operation that is not timed because metrics are disabled
+	 */
+	private static final long NOT_TIMED = Long.MIN_VALUE;
 
 	/**
 	 * Constructor for this class. Initializes instances variables to set the
 	 * starting state of the object
 	 */
 	public GraphProcessor() {
-		this.graph = new Graph<>();
+		this(Graph::new);
+	}
+
+	/**
+	 * Constructor for a processor storing its words in another GraphADT
+	 * implementation, such as a {@link ConcurrentGraph} that can be read while it
+	 * grows
+	 *
+	 * @param graphFactory
+	 *            creates an empty graph
+	 */
+	public GraphProcessor(Supplier<GraphADT<String>> graphFactory) {
+		this.graphFactory = graphFactory;
+		this.graph = graphFactory.get();
+		this.policy = AdjacencyPolicy.ONE_EDIT;
+		this.edgeIndex = new EdgeIndex(policy);
+		this.components = new ComponentIndex<>();
+		this.strategy = PathStrategy.PRECOMPUTED;
+		this.treeCache = new BfsTreeCache(BfsTreeCache.DEFAULT_CAPACITY);
+		this.landmarkSelection = LandmarkIndex.Selection.FARTHEST;
+		this.metrics = GraphMetrics.NONE;
+	}
+
+	/**
+	 * Sets how shortest path queries are answered. Takes effect at the next call
+	 * to {@link #shortestPathPrecomputation()}, which populateGraph makes itself.
+	 *
+	 * @param strategy
+	 *            the path strategy
+	 */
+	public void setPathStrategy(PathStrategy strategy) {
+		this.strategy = strategy;
+	}
+
+	/**
+	 * @return PathStrategy how shortest path queries are answered
+	 */
+	public PathStrategy getPathStrategy() {
+		return strategy;
+	}
+
+	/**
+	 * Sets the landmarks whose distances to every word bound the distance
+	 * between any two words (see {@link LandmarkIndex}). The bounds are given by
+	 * {@link #getDistanceLowerBound(String, String)} and
+	 * {@link #getDistanceUpperBound(String, String)}, and also guide the searches
+	 * of {@link PathStrategy#ASTAR}. Each landmark costs one breadth-first search
+	 * and one byte per word, computed in {@link #shortestPathPrecomputation()} or
+	 * at the first query that needs them.
+	 *
+	 * Log any issues encountered (print the issue details)
+	 *
+	 * @param count
+	 *            the number of landmarks, 0 for none (the default)
+	 * @param selection
+	 *            how the landmarks are chosen
+	 * @return boolean true if set; false if count is negative or selection is
+	 *         null
+	 */
+	public synchronized boolean setLandmarks(int count, LandmarkIndex.Selection selection) {
+		if (count < 0 || selection == null) {
+			System.out.print("Error in GraphProcessor.setLandmarks: "
+					+ "count must not be negative and selection must not be null");
+			return false;
+		}
+		landmarkCount = count;
+		landmarkSelection = selection;
+		landmarks = null;
+		astar = null;
+		return true;
+	}
+
+	/**
+	 * @return int the number of landmarks asked for, 0 for none
+	 */
+	public int getLandmarkCount() {
+		return landmarkCount;
+	}
+
+	/**
+	 * @return LandmarkIndex.Selection how the landmarks are chosen
+	 */
+	public LandmarkIndex.Selection getLandmarkSelection() {
+		return landmarkSelection;
+	}
+
+	/**
+	 * Sets whether the paths precomputed with {@link PathStrategy#PRECOMPUTED}
+	 * are kept outside the Java heap, in an {@link OffHeapArena}, so that a large
+	 * table neither grows the heap nor slows down garbage collection. Takes
+	 * effect at the next call to {@link #shortestPathPrecomputation()}.
+	 *
+	 * The memory is released when the table is replaced or dropped, or by
+	 * {@link #close()}, as soon as the queries already reading it are done.
+	 *
+	 * @param offHeap
+	 *            true to keep the precomputed paths off the heap
+	 */
+	public synchronized void setOffHeap(boolean offHeap) {
+		this.offHeap = offHeap;
+	}
+
+	/**
+	 * @return boolean true if precomputed paths are kept off the heap
+	 */
+	public boolean isOffHeap() {
+		return offHeap;
+	}
+
+	/**
+	 * Releases the off-heap memory of the precomputed paths, if they are off the
+	 * heap. They must be computed again by {@link #shortestPathPrecomputation()}
+	 * before the next query with {@link PathStrategy#PRECOMPUTED}. Queries
+	 * already reading them are not affected: the memory is released when the
+	 * last of them is done. Does nothing if the paths are on the heap or memory
+	 * mapped.
+	 */
+	@Override
+	public synchronized void close() {
+		if (tableArena == null)
+			return;
+		setRoutingTable(null, null);
+		metrics.precomputedSizeChanged(0);
+	}
+
+	/**
+	 * Sets which words are joined by an edge. The policy can only be changed
+	 * while the graph is empty, since the edges already found follow the
+	 * previous one.
+	 *
+	 * Log any issues encountered (print the issue details)
+	 *
+	 * @param policy
+	 *            the adjacency policy
+	 * @return boolean true if the policy is set; false if it is null or the
+	 *         graph already has words found with another policy
+	 */
+	public boolean setAdjacencyPolicy(AdjacencyPolicy policy) {
+		if (policy == null) {
+			System.out.print("Error in GraphProcessor.setAdjacencyPolicy: policy is null");
+			return false;
+		}
+		if (policy.equals(this.policy))
+			return true;
+		synchronized (this) {
+			if (!isEmpty()) {
+				System.out.print("Error in GraphProcessor.setAdjacencyPolicy: "
+						+ "the graph already has words joined by " + this.policy);
+				return false;
+			}
+			thawGraph();
+			this.policy = policy;
+			edgeIndex = new EdgeIndex(policy);
+		}
+		return true;
+	}
+
+	/**
+	 * @return AdjacencyPolicy which words are joined by an edge
+	 */
+	public AdjacencyPolicy getAdjacencyPolicy() {
+		return policy;
+	}
+
+	/**
+	 * Gets how many source words the last computation of the precomputed paths
+	 * searched, as opposed to copied from the paths before words were added or
+	 * removed (see {@link RoutingTable#update(RoutingTable, BfsEngine)})
+	 *
+	 * @return int the number of sources searched; 0 if the paths are not
+	 *         precomputed
+	 */
+	public int getSearchedSourceCount() {
+		RoutingTable table = routingTable;
+		return table == null ? 0 : table.getSearchedSourceCount();
+	}
+
+	/**
+	 * Gets the cache of shortest path trees used by {@link PathStrategy#LAZY},
+	 * for its hit/miss counters and to change its capacity
+	 *
+	 * @return BfsTreeCache the tree cache
+	 */
+	public BfsTreeCache getTreeCache() {
+		return treeCache;
+	}
+
+	/**
+	 * Sets what receives the measurements of this processor: the words and edges
+	 * it adds and removes, the adjacency tests made to find edges, the time of
+	 * each phase, the latency of each query and the size of the precomputed
+	 * paths. With {@link GraphMetrics#NONE}, the default, nothing is measured.
+	 *
+	 * The graph itself is not given the metrics, so that its operations are not
+	 * counted twice; see {@link Graph#setMetrics(GraphMetrics)} for graphs used
+	 * directly.
+	 *
+	 * @param metrics
+	 *            the receiver of the measurements, or GraphMetrics.NONE
+	 */
+	public void setMetrics(GraphMetrics metrics) {
+		this.metrics = metrics == null ? GraphMetrics.NONE : metrics;
+	}
+
+	/**
+	 * @return GraphMetrics what receives the measurements of this processor
+	 */
+	public GraphMetrics getMetrics() {
+		return metrics;
 	}
 
 	/**
@@ -109,6 +419,9 @@ public class GraphProcessor {
 	 * For all possible pairs of vertices, finds if the pair of vertices is adjacent
 	 * {@link WordProcessor#isAdjacent(String, String)} If a pair is adjacent, adds
 	 * an undirected and unweighted edge between the pair of vertices in the graph.
+	 * Only the pairs that share a bucket of {@link EdgeIndex} are compared, which
+	 * finds the same edges as comparing every pair. Words already in the graph are
+	 * counted but not added again.
 	 *
 	 * Log any issues encountered (print the issue details)
 	 * 
@@ -119,31 +432,174 @@ public class GraphProcessor {
 	 */
 	public Integer populateGraph(String filepath) {
 		Stream<String> wordStream;
+		long start = startTimer();
 		try {
 			wordStream = WordProcessor.getWordStream(filepath);
 		} catch (IOException ioe) {
 			return -1;
 		}
+		phaseCompleted(GraphMetrics.Phase.READ, start);
+		return populateGraph(wordStream);
+	}
 
-		final AtomicInteger count = new AtomicInteger();
+	/**
+	 * Builds a graph from the words in a file like
+	 * {@link #populateGraph(String)}, joining the words adjacent under a policy
+	 * (see {@link #setAdjacencyPolicy(AdjacencyPolicy)})
+	 *
+	 * @param filepath
+	 *            file path to the dictionary
+	 * @param policy
+	 *            which words are joined by an edge
+	 * @return Integer the number of vertices (words) added; return -1 if file not
+	 *         found, if the graph already has words joined by another policy or
+	 *         if encountering other exceptions
+	 */
+	public Integer populateGraph(String filepath, AdjacencyPolicy policy) {
+		if (!setAdjacencyPolicy(policy))
+			return -1;
+		return populateGraph(filepath);
+	}
+
+	/**
+	 * Builds a graph from the words in several dictionary files, plain or
+	 * gzip-compressed, like {@link #populateGraph(String)}
+	 *
+	 * @param files
+	 *            the dictionary files
+	 * @return Integer the number of vertices (words) added; return -1 if a file is
+	 *         not found or if encountering other exceptions
+	 */
+	public Integer populateGraph(Collection<Path> files) {
+		Stream<String> wordStream;
+		long start = startTimer();
 		try {
-			wordStream.forEach(word -> {
-				addWordToGraph(graph, word);
+			wordStream = WordProcessor.getWordStream(files);
+		} catch (IOException ioe) {
+			return -1;
+		}
+		phaseCompleted(GraphMetrics.Phase.READ, start);
+		return populateGraph(wordStream);
+	}
+
+	/**
+	 * Private helper method to add the words of a stream to the graph, then
+	 * update the shortest paths. The stream is read as the words are added and
+	 * closed at the end
+	 *
+	 * @param wordStream
+	 *            - the words to add
+	 * @return Integer the number of words in the stream, including those already
+	 *         in the graph; -1 if encountering exceptions
+	 */
+	private Integer populateGraph(Stream<String> wordStream) {
+		thawGraph();
+		final AtomicInteger count = new AtomicInteger();
+		long start = startTimer();
+		boolean read = true;
+		try (Stream<String> words = wordStream) {
+			words.forEach(word -> {
+				if (!edgeIndex.contains(word))
+					addWordToGraph(graph, word);
 				count.incrementAndGet();
 			});
 		} catch (NullPointerException npe) {
 			return -1;
+		} catch (UncheckedIOException uioe) {
+			// The words read before the error are in the graph already
+			System.out.print("Error in GraphProcessor.populateGraph: " + uioe.getCause().getMessage());
+			read = false;
 		}
+		phaseCompleted(GraphMetrics.Phase.EDGE_DISCOVERY, start);
 
+		graphChanged();
 		shortestPathPrecomputation();
 
-		return count.intValue();
+		return read ? count.intValue() : -1;
+	}
+
+	/**
+	 * Builds a graph from the words in a file like {@link #populateGraph(String)},
+	 * but skips parsing the dictionary and discovering its edges when a snapshot
+	 * of the graph built from the same dictionary content exists.
+	 *
+	 * The snapshot is only used while this graph is still empty, since it holds
+	 * the graph of that one dictionary. When it is missing, unreadable or was
+	 * built from a different dictionary, the graph is populated from the file and
+	 * a new snapshot is written (see {@link GraphSnapshot}).
+	 *
+	 * Log any issues encountered (print the issue details)
+	 *
+	 * @param filepath
+	 *            file path to the dictionary
+	 * @param snapshot
+	 *            file path to the snapshot of the graph of that dictionary
+	 * @return Integer the number of vertices (words) added; return -1 if file not
+	 *         found or if encountering other exceptions
+	 */
+	public Integer populateGraph(String filepath, Path snapshot) {
+		// The snapshot can not be used, so the dictionary need not be hashed
+		if (!isEmpty())
+			return populateGraph(filepath);
+		byte[] dictionaryHash;
+		try {
+			dictionaryHash = GraphSnapshot.hash(filepath, policy);
+		} catch (IOException ioe) {
+			return -1;
+		}
+
+		if (Files.isRegularFile(snapshot)) {
+			try {
+				long start = startTimer();
+				GraphSnapshot saved = GraphSnapshot.read(snapshot);
+				if (saved.matches(dictionaryHash)) {
+					phaseCompleted(GraphMetrics.Phase.LOAD, start);
+					synchronized (this) {
+						graphLoaded(saved.getGraph());
+						graphChanged();
+						graph = null;
+						engine = new BfsEngine(saved.getGraph());
+						components = ComponentIndex.of(saved.getGraph());
+					}
+					shortestPathPrecomputation();
+					return saved.getWordCount();
+				}
+			} catch (IOException ioe) {
+				System.out.print("Error in GraphProcessor.populateGraph: " + ioe.getMessage());
+			}
+		}
+
+		Integer count = populateGraph(filepath);
+		if (count >= 0) {
+			try {
+				CsrGraph<String> frozen = frozenGraph(getEngine().getGraph());
+				long start = startTimer();
+				new GraphSnapshot(dictionaryHash, count, frozen).write(snapshot);
+				phaseCompleted(GraphMetrics.Phase.SAVE, start);
+			} catch (IOException ioe) {
+				System.out.print("Error in GraphProcessor.populateGraph: " + ioe.getMessage());
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @return true if the graph has no vertices
+	 */
+	private synchronized boolean isEmpty() {
+		if (graph == null)
+			return engine.getGraph().vertexCount() == 0;
+		return !graph.getAllVertices().iterator().hasNext();
 	}
 
 	/**
 	 * Private helper method to add word to the graph
 	 *
-	 * If word is adjacent to any other nodes in
+	 * If word is adjacent to any of its candidates in {@link #edgeIndex}, an edge
+	 * is added between them and their components are merged. Candidates are
+	 * checked in one batch by {@link AdjacencyKernel} unless word or the
+	 * candidate has characters outside Latin-1, or not at all when the index
+	 * finds exactly the neighbors of the policy
 	 *
 	 * @param graph
 	 *            - a GraphADT
@@ -152,10 +608,140 @@ public class GraphProcessor {
 	 */
 	private void addWordToGraph(GraphADT<String> graph, String word) {
 		graph.addVertex(word);
-		for (String s : graph.getAllVertices()) {
-			if (WordProcessor.isAdjacent(s, word))
-				graph.addEdge(s, word);
+		components.add(word);
+		metrics.verticesChanged(1);
+		Set<String> candidates = edgeIndex.getCandidates(word);
+		byte[] encoded = edgeIndex.isExact() ? null : AdjacencyKernel.encode(word);
+		if (edgeIndex.isExact()) {
+			for (String s : candidates)
+				addEdge(graph, s, word);
+		} else if (encoded == null) {
+			metrics.isAdjacentCalled(candidates.size());
+			for (String s : candidates) {
+				if (WordProcessor.isAdjacent(s, word))
+					addEdge(graph, s, word);
+			}
+		} else {
+			String[] words = candidates.toArray(new String[candidates.size()]);
+			// Each candidate is tested once, by isAdjacent or by the kernel
+			metrics.isAdjacentCalled(words.length);
+			byte[][] encodedWords = new byte[words.length][];
+			for (int i = 0; i < words.length; i++) {
+				encodedWords[i] = edgeIndex.getEncoded(words[i]);
+				// A one character edit can join a Latin-1 word to one that is not
+				if (encodedWords[i] == null && WordProcessor.isAdjacent(words[i], word))
+					addEdge(graph, words[i], word);
+			}
+			int[] matches = new int[words.length];
+			int found = AdjacencyKernel.findAdjacent(encoded, encodedWords, words.length, matches);
+			for (int i = 0; i < found; i++)
+				addEdge(graph, words[matches[i]], word);
 		}
+		edgeIndex.add(word);
+	}
+
+	/**
+	 * Private helper method to add an edge to the graph and merge the components
+	 * of its words
+	 *
+	 * @param graph
+	 *            - a GraphADT
+	 * @param word1
+	 *            - first word
+	 * @param word2
+	 *            - second word
+	 */
+	private void addEdge(GraphADT<String> graph, String word1, String word2) {
+		if (graph.addEdge(word1, word2))
+			metrics.edgesChanged(1);
+		components.union(word1, word2);
+	}
+
+	/**
+	 * Removes a word and its edges from the graph, then updates the shortest
+	 * paths that went through it
+	 *
+	 * @param word
+	 *            the word to remove
+	 * @return boolean true if the word was in the graph and was removed
+	 */
+	public boolean removeWord(String word) {
+		return removeWords(Collections.singleton(word)) == 1;
+	}
+
+	/**
+	 * Removes words and their edges from the graph. The precomputed paths are
+	 * updated once for the whole batch, and only the sources whose shortest
+	 * paths went through a removed word are searched again.
+	 *
+	 * Words that are not in the graph are ignored.
+	 *
+	 * @param words
+	 *            the words to remove
+	 * @return Integer the number of words that were removed, -1 if words is null
+	 */
+	public Integer removeWords(Collection<String> words) {
+		if (words == null) {
+			System.out.print("Error in GraphProcessor.removeWords: words is null");
+			return -1;
+		}
+
+		thawGraph();
+		long start = startTimer();
+		int count = 0;
+		long edges = 0;
+		for (String word : words) {
+			// Edges between two removed words are only counted with the first
+			int degree = start == NOT_TIMED || word == null ? 0 : degree(graph, word);
+			if (word != null && graph.removeVertex(word) != null) {
+				edgeIndex.remove(word);
+				count++;
+				edges += degree;
+			}
+		}
+
+		if (count > 0) {
+			// Removing a word can split its component, which a union-find can not do
+			components = ComponentIndex.of(graph);
+			metrics.verticesChanged(-count);
+			metrics.edgesChanged(-edges);
+			phaseCompleted(GraphMetrics.Phase.REMOVAL, start);
+			graphChanged();
+			shortestPathPrecomputation();
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the index of the insertion/deletion neighborhoods of the words in the
+	 * graph, for callers that look up the neighbors of words that may not be in
+	 * the graph themselves. The index is owned by this GraphProcessor and must
+	 * only be queried. After {@link #loadPrecomputation(Path)} it is built from
+	 * the loaded words on the first call.
+	 *
+	 * @return DeletionIndex the deletion index of the graph's words
+	 */
+	public DeletionIndex getDeletionIndex() {
+		thawGraph();
+		return edgeIndex.getDeletionIndex();
+	}
+
+	/**
+	 * Checks whether there is a path between two words, in nearly constant time
+	 * and without any precomputation
+	 *
+	 * @param word1
+	 *            first word
+	 * @param word2
+	 *            second word
+	 * @return boolean true if both words are in the graph and in the same
+	 *         connected component
+	 */
+	public boolean areConnected(String word1, String word2) {
+		long start = startTimer();
+		boolean connected = components.connected(word1, word2);
+		queryCompleted(GraphMetrics.Query.CONNECTED, word1, word2, start);
+		return connected;
 	}
 
 	/**
@@ -174,30 +760,47 @@ public class GraphProcessor {
 	 * @return List<String> list of the words
 	 */
 	public List<String> getShortestPath(String word1, String word2) {
+		long start = startTimer();
+		List<String> path = shortestPath(word1, word2);
+		queryCompleted(GraphMetrics.Query.PATH, word1, word2, start);
+		return path;
+	}
+
+	/**
+	 * Private helper method to find the shortest path of
+	 * {@link #getShortestPath(String, String)}
+	 */
+	private List<String> shortestPath(String word1, String word2) {
+		if (strategy != PathStrategy.PRECOMPUTED)
+			return getQueriedPath(word1, word2);
+
 		List<String> list = new ArrayList<>();
 
-		if (pathMaps == null) {
+		RoutingTable table = acquireRoutingTable();
+		if (table == null) {
 			System.out.print("Error in GraphProcessor.getShortestPath: "
 					+ "shorestPathPrecomputation() must be called before any calls to getShortestPath()");
 			return list;
 		}
 
-		HashMap<String, PathNode> pathMap = pathMaps.get(word1);
-		if (word1.equals(word2) || pathMap == null || !pathMap.containsKey(word2))
-			return list;
+		try {
+			if (!components.connected(word1, word2))
+				return list;
+			CsrGraph<String> frozen = frozenGraph(table.getGraph());
+			int origin = frozen.getId(word1);
+			int destination = frozen.getId(word2);
+			if (origin < 0 || destination < 0 || origin == destination)
+				return list;
 
-		// Backtrace the path using parents of pathNodes
-		Stack<String> pathStack = new Stack<>();
-		PathNode backtraceNode = pathMap.get(word2);
-		while (backtraceNode != null) {
-			pathStack.push(backtraceNode.word);
-			backtraceNode = pathMap.get(backtraceNode.parent);
+			int[] path = table.path(origin, destination);
+			if (path != null) {
+				for (int id : path)
+					list.add(frozen.getVertex(id));
+			}
+			return list;
+		} finally {
+			table.release();
 		}
-		pathStack.push(word1);
-
-		while (!pathStack.isEmpty())
-			list.add(pathStack.pop());
-		return list;
 	}
 
 	/**
@@ -217,16 +820,387 @@ public class GraphProcessor {
 	 * @return Integer distance
 	 */
 	public Integer getShortestDistance(String word1, String word2) {
-		if (pathMaps == null) {
+		long start = startTimer();
+		Integer distance = shortestDistance(word1, word2);
+		queryCompleted(GraphMetrics.Query.DISTANCE, word1, word2, start);
+		return distance;
+	}
+
+	/**
+	 * Private helper method to find the shortest distance of
+	 * {@link #getShortestDistance(String, String)}
+	 */
+	private Integer shortestDistance(String word1, String word2) {
+		if (strategy != PathStrategy.PRECOMPUTED)
+			return getQueriedDistance(word1, word2);
+
+		RoutingTable table = acquireRoutingTable();
+		if (table == null) {
 			System.out.print("Error in GraphProcessor.getShortestPath: "
 					+ "shorestPathPrecomputation() must be called before any calls to getShortestDistance()");
 			return -1;
 		}
 
-		HashMap<String, PathNode> pathMap = pathMaps.get(word1);
-		if (word1.equals(word2) || pathMap == null || !pathMap.containsKey(word2))
+		try {
+			if (!components.connected(word1, word2))
+				return -1;
+			CsrGraph<String> frozen = frozenGraph(table.getGraph());
+			int origin = frozen.getId(word1);
+			int destination = frozen.getId(word2);
+			if (origin < 0 || destination < 0 || origin == destination)
+				return -1;
+			return table.distance(origin, destination);
+		} finally {
+			table.release();
+		}
+	}
+
+	/**
+	 * Gets a lower bound on the distance between word1 and word2 from their
+	 * distances to the landmarks, without searching the graph
+	 *
+	 * Log any issues encountered (print the issue details)
+	 *
+	 * @param word1
+	 *            first word
+	 * @param word2
+	 *            second word
+	 * @return Integer a number no larger than the distance of word1 and word2;
+	 *         return -1 if there is no path between them or no landmarks are set
+	 */
+	public Integer getDistanceLowerBound(String word1, String word2) {
+		return distanceBound(word1, word2, false);
+	}
+
+	/**
+	 * Gets an upper bound on the distance between word1 and word2 from their
+	 * distances to the landmarks, without searching the graph
+	 *
+	 * Log any issues encountered (print the issue details)
+	 *
+	 * @param word1
+	 *            first word
+	 * @param word2
+	 *            second word
+	 * @return Integer a number no smaller than the distance of word1 and word2;
+	 *         return -1 if there is no path between them, no landmarks are set
+	 *         or no landmark reaches them
+	 */
+	public Integer getDistanceUpperBound(String word1, String word2) {
+		return distanceBound(word1, word2, true);
+	}
+
+	/**
+	 * Private helper method to find the bounds of
+	 * {@link #getDistanceLowerBound(String, String)} and
+	 * {@link #getDistanceUpperBound(String, String)}
+	 */
+	private Integer distanceBound(String word1, String word2, boolean upper) {
+		if (landmarkCount == 0) {
+			String method = upper ? "getDistanceUpperBound" : "getDistanceLowerBound";
+			System.out.print("Error in GraphProcessor." + method + ": "
+					+ "setLandmarks() must be called before any calls to " + method + "()");
+			return -1;
+		}
+		if (!components.connected(word1, word2))
 			return -1;
-		return pathMaps.get(word1).get(word2).length;
+		BfsEngine engine = getEngine();
+		CsrGraph<String> frozen = frozenGraph(engine.getGraph());
+		int source = frozen.getId(word1);
+		int target = frozen.getId(word2);
+		if (source < 0 || target < 0)
+			return -1;
+		LandmarkIndex index = getLandmarks(engine);
+		return upper ? index.upperBound(source, target) : index.lowerBound(source, target);
+	}
+
+	/**
+	 * Gets every shortest path between word1 and word2, each found when the
+	 * stream reaches it, so that taking the first few does not list them all
+	 * (see {@link ShortestPathDag})
+	 *
+	 * The paths are in the graph as it is when this is called, in an order that
+	 * depends only on that graph, whatever the path strategy.
+	 *
+	 * @param word1
+	 *            first word
+	 * @param word2
+	 *            second word
+	 * @return Stream<List<String>> the shortest paths, each a list of words like
+	 *         {@link #getShortestPath(String, String)}; empty if word1 = word2 or
+	 *         there is no path
+	 */
+	public Stream<List<String>> getAllShortestPaths(String word1, String word2) {
+		if (!components.connected(word1, word2))
+			return Stream.empty();
+		BfsEngine engine = getEngine();
+		CsrGraph<String> frozen = frozenGraph(engine.getGraph());
+		int source = frozen.getId(word1);
+		int target = frozen.getId(word2);
+		if (source < 0 || target < 0 || source == target)
+			return Stream.empty();
+		return pathStream(frozen, ShortestPathDag.build(engine, source, target).iterator());
+	}
+
+	/**
+	 * Gets the k shortest loopless paths between word1 and word2 in increasing
+	 * order of length, each searched when the stream reaches it (see
+	 * {@link LooplessPaths})
+	 *
+	 * Log any issues encountered (print the issue details)
+	 *
+	 * @param word1
+	 *            first word
+	 * @param word2
+	 *            second word
+	 * @param k
+	 *            the largest number of paths, at least 1
+	 * @return Stream<List<String>> up to k paths, each a list of words like
+	 *         {@link #getShortestPath(String, String)}; empty if word1 = word2,
+	 *         there is no path or k is less than 1
+	 */
+	public Stream<List<String>> getKShortestPaths(String word1, String word2, int k) {
+		if (k < 1) {
+			System.out.print("Error in GraphProcessor.getKShortestPaths: k must be at least 1");
+			return Stream.empty();
+		}
+		if (!components.connected(word1, word2))
+			return Stream.empty();
+		CsrGraph<String> frozen = frozenGraph(getEngine().getGraph());
+		int source = frozen.getId(word1);
+		int target = frozen.getId(word2);
+		if (source < 0 || target < 0 || source == target)
+			return Stream.empty();
+		return pathStream(frozen, new LooplessPaths(frozen, source, target)).limit(k);
+	}
+
+	/**
+	 * Private helper method to turn an iterator of paths of IDs into a lazy
+	 * stream of paths of words
+	 *
+	 * @param frozen
+	 *            - the graph of the IDs
+	 * @param paths
+	 *            - the paths, searched as they are iterated
+	 * @return Stream<List<String>> the words of each path
+	 */
+	private static Stream<List<String>> pathStream(CsrGraph<String> frozen, Iterator<int[]> paths) {
+		Spliterator<int[]> spliterator = Spliterators.spliteratorUnknownSize(paths,
+				Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false).map(path -> {
+			List<String> list = new ArrayList<>(path.length);
+			for (int id : path)
+				list.add(frozen.getVertex(id));
+			return list;
+		});
+	}
+
+	/**
+	 * Gets the shortest paths of a batch of queries, like calling
+	 * {@link #getShortestPath(String, String)} on each pair but sharing work
+	 * between pairs with a common word
+	 *
+	 * With precomputed paths every pair is looked up in the routing table, and
+	 * with {@link PathStrategy#PLL} in the labels. With {@link PathStrategy#LAZY}
+	 * the pairs are grouped by their first word, or by their second word when
+	 * that gives fewer groups, and each group is answered from a single cached
+	 * shortest path tree of its word (see {@link BfsTree}). With the other
+	 * strategies every pair is searched like a single query. The pairs or groups
+	 * are spread over the common ForkJoin pool.
+	 *
+	 * @param pairs
+	 *            the queries
+	 * @return List<List<String>> the path of each pair, in the order of pairs;
+	 *         empty for pairs with no path
+	 */
+	public List<List<String>> getShortestPaths(Collection<Pair> pairs) {
+		long start = startTimer();
+		List<List<String>> paths = shortestPaths(pairs);
+		queryCompleted(GraphMetrics.Query.BATCH_PATHS, null, null, start);
+		return paths;
+	}
+
+	/**
+	 * Private helper method to find the shortest paths of
+	 * {@link #getShortestPaths(Collection)}
+	 */
+	private List<List<String>> shortestPaths(Collection<Pair> pairs) {
+		List<List<String>> paths = new ArrayList<>();
+		if (pairs == null) {
+			System.out.print("Error in GraphProcessor.getShortestPaths: pairs is null");
+			return paths;
+		}
+		if (strategy == PathStrategy.PRECOMPUTED && routingTable == null) {
+			System.out.print("Error in GraphProcessor.getShortestPaths: "
+					+ "shorestPathPrecomputation() must be called before any calls to getShortestPaths()");
+			return paths;
+		}
+
+		int[][] ids = new int[pairs.size()][];
+		CsrGraph<String> frozen = queryBatch(new ArrayList<>(pairs), ids, true);
+		for (int[] path : ids) {
+			List<String> list = new ArrayList<>();
+			if (path != null) {
+				for (int id : path)
+					list.add(frozen.getVertex(id));
+			}
+			paths.add(list);
+		}
+		return paths;
+	}
+
+	/**
+	 * Gets the shortest distances of a batch of queries, like calling
+	 * {@link #getShortestDistance(String, String)} on each pair but sharing work
+	 * between pairs with a common word, as in
+	 * {@link #getShortestPaths(Collection)}
+	 *
+	 * @param pairs
+	 *            the queries
+	 * @return List<Integer> the distance of each pair, in the order of pairs; -1
+	 *         for pairs with no path
+	 */
+	public List<Integer> getShortestDistances(Collection<Pair> pairs) {
+		long start = startTimer();
+		List<Integer> distances = shortestDistances(pairs);
+		queryCompleted(GraphMetrics.Query.BATCH_DISTANCES, null, null, start);
+		return distances;
+	}
+
+	/**
+	 * Private helper method to find the shortest distances of
+	 * {@link #getShortestDistances(Collection)}
+	 */
+	private List<Integer> shortestDistances(Collection<Pair> pairs) {
+		List<Integer> distances = new ArrayList<>();
+		if (pairs == null) {
+			System.out.print("Error in GraphProcessor.getShortestDistances: pairs is null");
+			return distances;
+		}
+		if (strategy == PathStrategy.PRECOMPUTED && routingTable == null) {
+			System.out.print("Error in GraphProcessor.getShortestDistances: "
+					+ "shorestPathPrecomputation() must be called before any calls to getShortestDistances()");
+			return distances;
+		}
+
+		int[][] results = new int[pairs.size()][];
+		queryBatch(new ArrayList<>(pairs), results, false);
+		for (int[] result : results)
+			distances.add(result == null ? -1 : result[0]);
+		return distances;
+	}
+
+	/**
+	 * Private helper method to answer a batch of queries
+	 *
+	 * @param pairs
+	 *            - the queries
+	 * @param results
+	 *            - filled with the IDs on the path of each pair, or with its
+	 *            distance alone if paths is false; left null for pairs with no
+	 *            path
+	 * @param paths
+	 *            - whether to find the paths or only their lengths
+	 * @return CsrGraph<String> the frozen graph the IDs belong to
+	 */
+	private CsrGraph<String> queryBatch(List<Pair> pairs, int[][] results, boolean paths) {
+		RoutingTable table = strategy == PathStrategy.PRECOMPUTED ? acquireRoutingTable() : null;
+		try {
+			return queryBatch(pairs, results, paths, table);
+		} finally {
+			if (table != null)
+				table.release();
+		}
+	}
+
+	/**
+	 * Private helper method to answer a batch of queries from a routing table
+	 * registered as read, or with the current strategy if it is null
+	 */
+	private CsrGraph<String> queryBatch(List<Pair> pairs, int[][] results, boolean paths, RoutingTable table) {
+		BfsEngine engine = table == null ? getEngine() : null;
+		PrunedLandmarkLabeling labels = strategy == PathStrategy.PLL ? getLabeling(engine) : null;
+		CsrGraph<String> frozen = frozenGraph(table == null ? engine.getGraph() : table.getGraph());
+
+		// IDs of the words of each pair that can have a path, -1 otherwise
+		int n = pairs.size();
+		int[] sources = new int[n];
+		int[] targets = new int[n];
+		Set<Integer> distinctSources = new HashSet<>();
+		Set<Integer> distinctTargets = new HashSet<>();
+		for (int i = 0; i < n; i++) {
+			Pair pair = pairs.get(i);
+			sources[i] = -1;
+			if (pair == null || !components.connected(pair.getWord1(), pair.getWord2()))
+				continue;
+			int source = frozen.getId(pair.getWord1());
+			int target = frozen.getId(pair.getWord2());
+			if (source < 0 || target < 0 || source == target)
+				continue;
+			sources[i] = source;
+			targets[i] = target;
+			distinctSources.add(source);
+			distinctTargets.add(target);
+		}
+
+		if (table != null) {
+			IntStream.range(0, n).parallel().forEach(i -> {
+				if (sources[i] >= 0)
+					results[i] = paths ? table.path(sources[i], targets[i])
+							: new int[] { table.distance(sources[i], targets[i]) };
+			});
+			return frozen;
+		}
+		if (labels != null) {
+			IntStream.range(0, n).parallel().forEach(i -> {
+				if (sources[i] >= 0)
+					results[i] = paths ? labels.path(sources[i], targets[i])
+							: new int[] { labels.distance(sources[i], targets[i]) };
+			});
+			return frozen;
+		}
+
+		if (strategy != PathStrategy.LAZY) {
+			// Each pair is searched like a single query, so nothing is cached and
+			// the expanded vertices are reported
+			IntStream.range(0, n).parallel().forEach(i -> {
+				if (sources[i] < 0)
+					return;
+				int[] path = queryPath(engine, sources[i], targets[i]);
+				results[i] = paths || path == null ? path : new int[] { path.length - 1 };
+			});
+			return frozen;
+		}
+
+		// The graph is undirected, so a tree of the second word answers a pair
+		// as well as a tree of the first
+		boolean bySource = distinctSources.size() <= distinctTargets.size();
+		int[] roots = bySource ? sources : targets;
+		int[] leaves = bySource ? targets : sources;
+		Map<Integer, List<Integer>> groups = new HashMap<>();
+		for (int i = 0; i < n; i++) {
+			if (sources[i] >= 0)
+				groups.computeIfAbsent(roots[i], root -> new ArrayList<>()).add(i);
+		}
+		groups.entrySet().parallelStream().forEach(group -> {
+			BfsTree tree = getTree(engine, group.getKey());
+			for (int i : group.getValue()) {
+				if (!paths) {
+					results[i] = new int[] { tree.distance(leaves[i]) };
+					continue;
+				}
+				int[] path = tree.path(leaves[i]);
+				if (path != null && !bySource) {
+					for (int k = 0, j = path.length - 1; k < j; k++, j--) {
+						int swap = path[k];
+						path[k] = path[j];
+						path[j] = swap;
+					}
+				}
+				results[i] = path;
+			}
+		});
+		return frozen;
 	}
 
 	/**
@@ -235,76 +1209,493 @@ public class GraphProcessor {
 	 * the path information. Any shortest path algorithm can be used (Djikstra's or
 	 * Floyd-Warshall recommended).
 	 *
-	 * Implemented using Uniform-cost Search (Djikstra's Algorithm)
+	 * The graph is unweighted, so this runs one breadth-first search per source
+	 * over a frozen copy of the graph (see {@link BfsEngine}), in parallel, and
+	 * keeps the results in a compact {@link RoutingTable}. The table is split by
+	 * connected component, so words without neighbors are never searched and
+	 * every row only covers the component of its source
+	 *
+	 * When the paths were already precomputed and words have been added since,
+	 * only the sources whose distances can shrink through the new words are
+	 * searched again (see {@link RoutingTable#update(RoutingTable, BfsEngine)})
+	 *
+	 * The distances to the landmarks, if any are set, are computed with every
+	 * strategy (see {@link #setLandmarks(int, LandmarkIndex.Selection)})
+	 *
+	 * With {@link PathStrategy#PLL} the labels of
+	 * {@link PrunedLandmarkLabeling} are computed instead of the routing table.
+	 * With {@link PathStrategy#LAZY}, {@link PathStrategy#BIDIRECTIONAL} and
+	 * {@link PathStrategy#ASTAR} nothing is precomputed: the frozen copy is
+	 * refreshed and cached trees are dropped, and the paths are searched when
+	 * they are queried
 	 */
 	public void shortestPathPrecomputation() {
-		pathMaps = new HashMap<>();
-		Iterable<String> vertices = graph.getAllVertices();
-		StreamSupport.stream(vertices.spliterator(), true).forEach(this::ucs_all_paths);
-
-		// for (Map.Entry<String, PathNode> dest: pathMaps.get("JOLLIES").entrySet()) {
-		// System.out.println(dest.getValue());
-		// }
-	}
-
-	private void ucs_all_paths(String s) {
-		HashMap<String, PathNode> pathNodes = new HashMap<>(); // All paths from the current word
-		pathMaps.put(s, pathNodes);
-
-		// UCS shortest path algorithm
-		PriorityQueue<PathNode> frontier = new PriorityQueue<>((p1, p2) -> -Integer.compare(p1.length, p2.length)); // pQ
-																													// search
-																													// frontier
-		ArrayList<String> explored = new ArrayList<>(); // explored words
-		frontier.add(new PathNode(s, null, 0));
-
-		while (!frontier.isEmpty()) {
-			PathNode searchNode = frontier.remove(); // remove the pathNode with highest priority (least length)
-			if (!explored.contains(searchNode.word)) {
-				for (String neighbor : graph.getNeighbors(searchNode.word)) {
-					// Throw away current path if existing path has smaller length
-					if (explored.contains(neighbor) || (pathNodes.containsKey(neighbor)
-							&& pathNodes.get(neighbor).length < searchNode.length + 1))
-						continue;
-
-					// Add current path to pathNodes
-					PathNode newPathNode = new PathNode(neighbor, searchNode.word, searchNode.length + 1);
-					pathNodes.put(neighbor, newPathNode);
-					if (!explored.contains(neighbor) && !frontier.contains(newPathNode)) {
-						frontier.add(newPathNode);
-					}
-				}
-				explored.add(searchNode.word);
-			}
+		BfsEngine engine = getEngine();
+		getLandmarks(engine);
+		if (strategy == PathStrategy.PLL) {
+			setRoutingTable(null, null);
+			treeCache.clear();
+			getLabeling(engine);
+			return;
+		}
+		dropLabeling();
+		if (strategy != PathStrategy.PRECOMPUTED) {
+			if (routingTable != null)
+				metrics.precomputedSizeChanged(0);
+			setRoutingTable(null, null);
+			treeCache.clear();
+			return;
+		}
+
+		RoutingTable previous = acquireRoutingTable();
+		try {
+			// Mapped tables are left in place, and other tables are only moved
+			// when they are not where setOffHeap asks for
+			if (previous != null && previous.getGraph() == engine.getGraph()
+					&& (offHeap == (tableArena != null) || tableArena == null && previous.isDirect()))
+				return;
+			long start = startTimer();
+			OffHeapArena arena = offHeap ? new OffHeapArena() : null;
+			RoutingTable table;
+			if (previous == null || previous.getGraph() == engine.getGraph())
+				table = RoutingTable.build(engine, arena);
+			else
+				table = RoutingTable.update(previous, engine, arena);
+			setRoutingTable(table, arena);
+			phaseCompleted(GraphMetrics.Phase.PRECOMPUTATION, start);
+			if (metrics.isEnabled())
+				metrics.precomputedSizeChanged(table.sizeInBytes());
+		} finally {
+			if (previous != null)
+				previous.release();
+		}
+	}
+
+	/**
+	 * Saves the precomputed shortest path data, together with the graph it was
+	 * computed on, to a versioned binary file (see {@link PrecomputationFile})
+	 *
+	 * Log any issues encountered (print the issue details)
+	 *
+	 * @param file
+	 *            the file to create or replace
+	 * @return boolean true if saved; false if there is nothing precomputed or the
+	 *         file can not be written
+	 */
+	public boolean savePrecomputation(Path file) {
+		RoutingTable table = acquireRoutingTable();
+		if (table == null) {
+			System.out.print("Error in GraphProcessor.savePrecomputation: "
+					+ "shorestPathPrecomputation() must be called before any calls to savePrecomputation()");
+			return false;
+		}
+		try {
+			long start = startTimer();
+			PrecomputationFile.write(table, file);
+			phaseCompleted(GraphMetrics.Phase.SAVE, start);
+			return true;
+		} catch (IOException ioe) {
+			System.out.print("Error in GraphProcessor.savePrecomputation: " + ioe.getMessage());
+			return false;
+		} finally {
+			table.release();
 		}
 	}
 
 	/**
-	 * Private class representing nodes on a path
+	 * Loads shortest path data saved by {@link #savePrecomputation(Path)},
+	 * replacing the current graph with the saved one. The path data is memory
+	 * mapped and queried in place, so no call to populateGraph or
+	 * {@link #shortestPathPrecomputation()} is needed afterwards.
+	 * Words added afterwards are joined by the current adjacency policy, which
+	 * should be the one the saved graph was built with.
+	 *
+	 * Log any issues encountered (print the issue details)
+	 *
+	 * @param file
+	 *            the file to load
+	 * @return Integer the number of vertices (words) loaded; return -1 if the file
+	 *         can not be read or is not a precomputation file
 	 */
-	private class PathNode {
-		private String parent; // word in the previous PathNode
-		private String word; // word in the current PathNode
-		private int length; // length so far from origin
+	public Integer loadPrecomputation(Path file) {
+		RoutingTable table;
+		long start = startTimer();
+		try {
+			table = PrecomputationFile.map(file);
+		} catch (IOException ioe) {
+			System.out.print("Error in GraphProcessor.loadPrecomputation: " + ioe.getMessage());
+			return -1;
+		}
+		phaseCompleted(GraphMetrics.Phase.LOAD, start);
 
-		private PathNode(String word, String parent, int length) {
-			this.word = word;
-			this.parent = parent;
-			this.length = length;
+		synchronized (this) {
+			graphLoaded(table.getGraph());
+			graphChanged();
+			graph = null;
+			edgeIndex = null;
+			engine = new BfsEngine(table.getGraph());
+			components = ComponentIndex.of(frozenGraph(table.getGraph()));
+			setRoutingTable(table, null);
 		}
+		if (metrics.isEnabled())
+			metrics.precomputedSizeChanged(table.sizeInBytes());
+		return table.getGraph().vertexCount();
+	}
 
-		@Override
-		public boolean equals(Object o) {
-			try {
-				PathNode p = (PathNode) o;
-				return p.word.equals(word);
-			} catch (Exception e) {
-				return false;
-			}
+	/**
+	 * Private helper method to replace the routing table, releasing the
+	 * off-heap rows of the one it replaces once no query reads them
+	 *
+	 * @param table
+	 *            - the new table, or null
+	 * @param arena
+	 *            - the arena holding its rows, or null if they are not off the
+	 *            heap
+	 */
+	private synchronized void setRoutingTable(RoutingTable table, OffHeapArena arena) {
+		OffHeapArena previous = tableArena;
+		routingTable = table;
+		tableArena = arena;
+		if (previous != null && previous != arena)
+			previous.close();
+	}
+
+	/**
+	 * Private helper method to get the routing table and register a read of its
+	 * rows, so that an arena holding them is not released by
+	 * {@link #setRoutingTable(RoutingTable, OffHeapArena)} or {@link #close()}
+	 * during the read
+	 *
+	 * @return RoutingTable the current table, to be released by the caller; null
+	 *         if there is none
+	 */
+	private RoutingTable acquireRoutingTable() {
+		while (true) {
+			RoutingTable table = routingTable;
+			// A table whose arena is closed was replaced, so read the field again
+			if (table == null || table.acquire())
+				return table;
+		}
+	}
+
+	/**
+	 * Private helper method to rebuild graph and edgeIndex from the frozen copy
+	 * after {@link #loadPrecomputation(Path)}, before graph is modified
+	 */
+	private synchronized void thawGraph() {
+		if (graph != null)
+			return;
+		CsrGraph<String> frozen = frozenGraph(engine.getGraph());
+		graph = graphFactory.get();
+		edgeIndex = new EdgeIndex(policy);
+		for (String word : frozen.getAllVertices()) {
+			graph.addVertex(word);
+			edgeIndex.add(word);
+		}
+		for (int v = 0; v < frozen.size(); v++) {
+			String word = frozen.getVertex(v);
+			frozen.forEachNeighbor(v, w -> graph.addEdge(word, frozen.getVertex(w)));
 		}
+	}
 
-		public String toString() {
-			return String.format("%s %s %d", word, parent, length);
+	/**
+	 * Private helper method to call whenever graph is modified. Drops the frozen
+	 * copy of graph and everything computed from it.
+	 */
+	private synchronized void graphChanged() {
+		engine = null;
+		bidirectional = null;
+		astar = null;
+		landmarks = null;
+		treeCache.clear();
+	}
+
+	/**
+	 * Private helper method to get the BFS engine over the current graph, freezing
+	 * the graph if it changed since it was last frozen
+	 *
+	 * The words keep the IDs of the graph the routing table was computed on, so
+	 * the table can be updated instead of rebuilt, unless most of those IDs
+	 * belong to removed words
+	 *
+	 * @return BfsEngine the BFS engine
+	 */
+	private synchronized BfsEngine getEngine() {
+		if (engine == null) {
+			CsrGraph<?> previous = routingTable == null ? null : routingTable.getGraph();
+			long start = startTimer();
+			if (previous == null || previous.vertexCount() * 2 < previous.size())
+				engine = new BfsEngine(CsrGraph.of(graph));
+			else
+				engine = new BfsEngine(CsrGraph.of(graph, frozenGraph(previous)));
+			phaseCompleted(GraphMetrics.Phase.FREEZE, start);
+		}
+		return engine;
+	}
+
+	/**
+	 * Private helper method to get a frozen copy of graph with its vertex type
+	 *
+	 * @param frozen
+	 *            - a frozen copy of graph, from an engine or table built on it
+	 * @return CsrGraph<String> the same frozen graph
+	 */
+	@SuppressWarnings("unchecked")
+	private static CsrGraph<String> frozenGraph(CsrGraph<?> frozen) {
+		return (CsrGraph<String>) frozen;
+	}
+
+	/**
+	 * Private helper method to get the shortest path tree of a source, from the
+	 * tree cache or by searching the frozen graph. The tree is only cached if
+	 * engine is still the current one when the search is done
+	 *
+	 * @param engine
+	 *            - the BFS engine of the current graph
+	 * @param source
+	 *            - the ID of the source word
+	 * @return BfsTree the tree of source
+	 */
+	private BfsTree getTree(BfsEngine engine, int source) {
+		// A tree searched while the graph changes is stale and must not be cached
+		return treeCache.get(source, s -> new BfsTree(engine.search(s), s), () -> this.engine == engine);
+	}
+
+	/**
+	 * Private helper method to get the bidirectional searches over the current
+	 * graph
+	 *
+	 * @param engine
+	 *            - the BFS engine of the current graph
+	 * @return BidirectionalBfs searches over the frozen graph of engine
+	 */
+	private synchronized BidirectionalBfs getBidirectional(BfsEngine engine) {
+		if (bidirectional == null || this.engine != engine)
+			bidirectional = new BidirectionalBfs(engine.getGraph());
+		return bidirectional;
+	}
+
+	/**
+	 * Private helper method to get the A* searches over the current graph
+	 *
+	 * @param engine
+	 *            - the BFS engine of the current graph
+	 * @return AStarSearch searches over the frozen graph of engine
+	 */
+	private synchronized AStarSearch getAStar(BfsEngine engine) {
+		if (astar == null || this.engine != engine)
+			astar = new AStarSearch(frozenGraph(engine.getGraph()), policy, getLandmarks(engine));
+		return astar;
+	}
+
+	/**
+	 * Private helper method to get the 2-hop labels of the current graph,
+	 * computing them if the graph changed since they were computed
+	 *
+	 * @param engine
+	 *            - the BFS engine of the current graph
+	 * @return PrunedLandmarkLabeling the labels of the frozen graph of engine
+	 */
+	private synchronized PrunedLandmarkLabeling getLabeling(BfsEngine engine) {
+		if (labeling != null && labeling.getGraph() == engine.getGraph())
+			return labeling;
+		long start = startTimer();
+		PrunedLandmarkLabeling labels = PrunedLandmarkLabeling.build(engine.getGraph());
+		phaseCompleted(GraphMetrics.Phase.PRECOMPUTATION, start);
+		if (metrics.isEnabled())
+			metrics.precomputedSizeChanged(labels.sizeInBytes());
+		if (this.engine == engine)
+			labeling = labels;
+		return labels;
+	}
+
+	/**
+	 * Private helper method to drop the 2-hop labels when another strategy
+	 * answers the queries, under the lock {@link #getLabeling(BfsEngine)} sets
+	 * them with
+	 */
+	private synchronized void dropLabeling() {
+		labeling = null;
+	}
+
+	/**
+	 * Private helper method to get the landmark distances of the current graph,
+	 * computing them if needed
+	 *
+	 * @param engine
+	 *            - the BFS engine of the current graph
+	 * @return LandmarkIndex the distances to the landmarks in the frozen graph of
+	 *         engine, or null if no landmarks are set
+	 */
+	private synchronized LandmarkIndex getLandmarks(BfsEngine engine) {
+		if (landmarkCount == 0)
+			return null;
+		if (landmarks != null && landmarks.getGraph() == engine.getGraph())
+			return landmarks;
+		long start = startTimer();
+		LandmarkIndex index = LandmarkIndex.build(engine, landmarkCount, landmarkSelection);
+		phaseCompleted(GraphMetrics.Phase.PRECOMPUTATION, start);
+		if (this.engine == engine)
+			landmarks = index;
+		return index;
+	}
+
+	/**
+	 * Private helper method to find a shortest path with the current strategy
+	 * instead of precomputed paths
+	 *
+	 * @param engine
+	 *            - the BFS engine of the current graph
+	 * @param source
+	 *            - the ID of the first word
+	 * @param target
+	 *            - the ID of the second word
+	 * @return int[] the IDs on the path, or null if there is no path
+	 */
+	private int[] queryPath(BfsEngine engine, int source, int target) {
+		if (strategy == PathStrategy.BIDIRECTIONAL) {
+			BidirectionalBfs search = getBidirectional(engine);
+			int[] path = search.path(source, target);
+			if (metrics.isEnabled())
+				metrics.verticesExpanded(search.getExpanded());
+			return path;
+		}
+		if (strategy == PathStrategy.PLL)
+			return getLabeling(engine).path(source, target);
+		if (strategy == PathStrategy.ASTAR) {
+			AStarSearch search = getAStar(engine);
+			int[] path = search.path(source, target);
+			if (metrics.isEnabled())
+				metrics.verticesExpanded(search.getExpanded());
+			return path;
+		}
+		return getTree(engine, source).path(target);
+	}
+
+	/**
+	 * {@link #getShortestPath(String, String)} for the strategies that search
+	 * paths when they are queried
+	 */
+	private List<String> getQueriedPath(String word1, String word2) {
+		List<String> list = new ArrayList<>();
+		if (!components.connected(word1, word2))
+			return list;
+		BfsEngine engine = getEngine();
+		CsrGraph<String> frozen = frozenGraph(engine.getGraph());
+		int source = frozen.getId(word1);
+		int target = frozen.getId(word2);
+		if (source < 0 || target < 0 || source == target)
+			return list;
+
+		int[] path = queryPath(engine, source, target);
+		if (path != null) {
+			for (int id : path)
+				list.add(frozen.getVertex(id));
+		}
+		return list;
+	}
+
+	/**
+	 * {@link #getShortestDistance(String, String)} for the strategies that search
+	 * paths when they are queried
+	 */
+	private Integer getQueriedDistance(String word1, String word2) {
+		if (!components.connected(word1, word2))
+			return -1;
+		BfsEngine engine = getEngine();
+		CsrGraph<String> frozen = frozenGraph(engine.getGraph());
+		int source = frozen.getId(word1);
+		int target = frozen.getId(word2);
+		if (source < 0 || target < 0 || source == target)
+			return -1;
+
+		if (strategy == PathStrategy.LAZY)
+			return getTree(engine, source).distance(target);
+		if (strategy == PathStrategy.PLL)
+			return getLabeling(engine).distance(source, target);
+		int[] path = queryPath(engine, source, target);
+		return path == null ? -1 : path.length - 1;
+	}
+
+	/**
+	 * Private helper method to read the clock at the start of a phase or query
+	 *
+	 * @return long the current time in nanoseconds, or NOT_TIMED if metrics are
+	 *         disabled
+	 */
+	private long startTimer() {
+		return metrics.isEnabled() ? System.nanoTime() : NOT_TIMED;
+	}
+
+	/**
+	 * Private helper method to report the time of a phase started at start
+	 *
+	 * @param phase
+	 *            - the phase
+	 * @param start
+	 *            - the value of {@link #startTimer()} at its start
+	 */
+	private void phaseCompleted(GraphMetrics.Phase phase, long start) {
+		if (start != NOT_TIMED)
+			metrics.phaseCompleted(phase, System.nanoTime() - start);
+	}
+
+	/**
+	 * Private helper method to report the latency of a query started at start
+	 *
+	 * @param query
+	 *            - the kind of query
+	 * @param word1
+	 *            - the first word, or null for batch queries
+	 * @param word2
+	 *            - the second word, or null for batch queries
+	 * @param start
+	 *            - the value of {@link #startTimer()} at its start
+	 */
+	private void queryCompleted(GraphMetrics.Query query, String word1, String word2, long start) {
+		if (start != NOT_TIMED)
+			metrics.queryCompleted(query, word1, word2, System.nanoTime() - start);
+	}
+
+	/**
+	 * Private helper method to count the neighbors of a word
+	 *
+	 * @return int the number of neighbors of word, 0 if it is not in graph
+	 */
+	private static int degree(GraphADT<String> graph, String word) {
+		Iterable<String> neighbors = graph.getNeighbors(word);
+		int degree = 0;
+		if (neighbors != null) {
+			for (Iterator<String> it = neighbors.iterator(); it.hasNext(); it.next())
+				degree++;
+		}
+		return degree;
+	}
+
+	/**
+	 * Private helper method to report the change in the number of words and
+	 * edges when the graph is replaced by a loaded one. Must be called before
+	 * graph and engine are replaced.
+	 *
+	 * @param loaded
+	 *            - the loaded graph
+	 */
+	private synchronized void graphLoaded(CsrGraph<?> loaded) {
+		if (!metrics.isEnabled())
+			return;
+		long vertices = 0;
+		long edges = 0;
+		if (graph != null) {
+			for (String word : graph.getAllVertices()) {
+				vertices++;
+				edges += degree(graph, word);
+			}
+			edges /= 2;
+		} else {
+			vertices = engine.getGraph().vertexCount();
+			edges = engine.getGraph().edgeCount();
 		}
+		metrics.verticesChanged(loaded.vertexCount() - vertices);
+		metrics.edgesChanged(loaded.edgeCount() - edges);
 	}
 }
@@ -35,8 +35,17 @@
 /////////////////////////////// 80 COLUMNS WIDE ///////////////////////////////
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.stream.Collectors;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -198,4 +207,702 @@ public class GraphProcessorTest {
 		int actual = graphProcessor.getShortestDistance("cat", "dog");
 		assertEquals(-1, actual);
 	}
-}
\ No newline at end of file
+
+	/*
+	 * This test compares the lazy path strategy with the precomputed one
+	 * 
+	 * success if both give the same distances and paths, fail otherwise
+	 */
+	@Test
+	public void test_11_lazy_strategy_matches_precomputed() {
+		GraphProcessor lazy = new GraphProcessor();
+		lazy.setPathStrategy(PathStrategy.LAZY);
+		lazy.populateGraph("word_list.txt");
+		graphProcessor.populateGraph("word_list.txt");
+
+		String[][] pairs = { { "COMEDO", "CHARGE" }, { "CHARGE", "GIMLETS" }, { "BELLIES", "JOLLIES" },
+				{ "BELLIES", "BELLIES" }, { "cat", "dog" } };
+		for (String[] pair : pairs) {
+			assertEquals(graphProcessor.getShortestDistance(pair[0], pair[1]),
+					lazy.getShortestDistance(pair[0], pair[1]));
+			assertEquals(graphProcessor.getShortestPath(pair[0], pair[1]), lazy.getShortestPath(pair[0], pair[1]));
+		}
+	}
+
+	/*
+	 * This test exam the hit and miss counters of the lazy path strategy
+	 * 
+	 * success if a repeated source is answered from the cache, fail otherwise
+	 */
+	@Test
+	public void test_12_lazy_strategy_caches_trees() {
+		graphProcessor.setPathStrategy(PathStrategy.LAZY);
+		graphProcessor.populateGraph("word_list.txt");
+
+		graphProcessor.getShortestDistance("COMEDO", "CHARGE");
+		graphProcessor.getShortestPath("COMEDO", "GIMLETS");
+		assertEquals(1, graphProcessor.getTreeCache().getMissCount());
+		assertEquals(1, graphProcessor.getTreeCache().getHitCount());
+
+		graphProcessor.getTreeCache().setCapacity(0);
+		assertEquals(0, graphProcessor.getTreeCache().size());
+		assertEquals(49, (int) graphProcessor.getShortestDistance("COMEDO", "CHARGE"));
+		assertEquals(2, graphProcessor.getTreeCache().getMissCount());
+	}
+
+	/*
+	 * This test compares the bidirectional path strategy with the precomputed one
+	 * 
+	 * success if both give the same distances between all pairs, fail otherwise
+	 */
+	@Test
+	public void test_13_bidirectional_strategy_matches_precomputed() {
+		GraphProcessor bidirectional = new GraphProcessor();
+		bidirectional.setPathStrategy(PathStrategy.BIDIRECTIONAL);
+		bidirectional.populateGraph("word_list.txt");
+		graphProcessor.populateGraph("word_list.txt");
+
+		String[] sample = { "COMEDO", "CHARGE", "GIMLETS", "BELLIES", "JOLLIES", "RAPINE", "cat" };
+		for (String word1 : sample) {
+			for (String word2 : sample) {
+				int distance = graphProcessor.getShortestDistance(word1, word2);
+				assertEquals(distance, (int) bidirectional.getShortestDistance(word1, word2));
+				List<String> path = bidirectional.getShortestPath(word1, word2);
+				assertEquals(distance == -1 ? 0 : distance + 1, path.size());
+			}
+		}
+		assertEquals(graphProcessor.getShortestPath("BELLIES", "JOLLIES"),
+				bidirectional.getShortestPath("BELLIES", "JOLLIES"));
+	}
+
+	/*
+	 * This test saves the precomputed paths and loads them into a new
+	 * graphProcessor
+	 * 
+	 * success if the loaded paths are the same as the saved ones, fail otherwise
+	 */
+	@Test
+	public void test_14_save_and_load_precomputation() throws IOException {
+		Path file = Files.createTempFile("precomputation", ".bin");
+		try {
+			graphProcessor.populateGraph("word_list.txt");
+			assertEquals(true, graphProcessor.savePrecomputation(file));
+
+			GraphProcessor loaded = new GraphProcessor();
+			assertEquals(427, (int) loaded.loadPrecomputation(file));
+			assertEquals(49, (int) loaded.getShortestDistance("COMEDO", "CHARGE"));
+			assertEquals(78, (int) loaded.getShortestDistance("CHARGE", "GIMLETS"));
+			assertEquals(graphProcessor.getShortestPath("BELLIES", "JOLLIES"),
+					loaded.getShortestPath("BELLIES", "JOLLIES"));
+
+			// the loaded graph can still be extended
+			assertEquals(2, (int) loaded.populateGraph("no_connection.txt"));
+			assertEquals(49, (int) loaded.getShortestDistance("COMEDO", "CHARGE"));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	/*
+	 * This test loads a file that is not a precomputation file
+	 * 
+	 * success if return -1, fail otherwise
+	 */
+	@Test
+	public void test_15_load_precomputation_rejects_other_files() {
+		assertEquals(-1, (int) graphProcessor.loadPrecomputation(new File("word_list.txt").toPath()));
+	}
+
+	/*
+	 * This test populates two graphProcessors through a graph snapshot
+	 * 
+	 * success if the second one loads the snapshot and finds the same paths, fail
+	 * otherwise
+	 */
+	@Test
+	public void test_16_populateGraph_with_snapshot() throws IOException {
+		Path snapshot = Files.createTempFile("graph", ".snapshot");
+		Files.delete(snapshot);
+		try {
+			assertEquals(441, (int) graphProcessor.populateGraph("word_list.txt", snapshot));
+			assertEquals(true, Files.exists(snapshot));
+
+			GraphProcessor loaded = new GraphProcessor();
+			assertEquals(441, (int) loaded.populateGraph("word_list.txt", snapshot));
+			assertEquals(49, (int) loaded.getShortestDistance("COMEDO", "CHARGE"));
+			assertEquals(graphProcessor.getShortestPath("BELLIES", "JOLLIES"),
+					loaded.getShortestPath("BELLIES", "JOLLIES"));
+
+			// a snapshot of another dictionary is replaced
+			GraphProcessor other = new GraphProcessor();
+			assertEquals(2, (int) other.populateGraph("no_connection.txt", snapshot));
+			assertEquals(-1, (int) other.getShortestDistance("COMEDO", "CHARGE"));
+		} finally {
+			Files.deleteIfExists(snapshot);
+		}
+	}
+
+	/*
+	 * This test populates a graphProcessor backed by a ConcurrentGraph
+	 * 
+	 * success if it finds the same distances as the default graph, fail otherwise
+	 */
+	@Test
+	public void test_17_populateGraph_with_concurrent_graph() {
+		GraphProcessor concurrent = new GraphProcessor(ConcurrentGraph::new);
+		assertEquals(441, (int) concurrent.populateGraph("word_list.txt"));
+		assertEquals(49, (int) concurrent.getShortestDistance("COMEDO", "CHARGE"));
+		assertEquals(78, (int) concurrent.getShortestDistance("CHARGE", "GIMLETS"));
+	}
+
+	/*
+	 * This test adds words to a graph whose paths are precomputed
+	 * 
+	 * success if only the sources whose distances can shrink are searched again,
+	 * and the paths are the same as when precomputing from scratch, fail otherwise
+	 */
+	@Test
+	public void test_18_populateGraph_updates_precomputation() throws IOException {
+		Path dictionary = Files.createTempFile("words", ".txt");
+		try {
+			graphProcessor.populateGraph("word_list.txt");
+			assertEquals(107, graphProcessor.getSearchedSourceCount());
+			Files.write(dictionary, Arrays.asList("BELLIED", "HAT", "HOT"));
+			assertEquals(3, (int) graphProcessor.populateGraph(dictionary.toString()));
+			// Only the new words: no path gets shorter through them
+			assertEquals(3, graphProcessor.getSearchedSourceCount());
+
+			GraphProcessor scratch = new GraphProcessor();
+			scratch.populateGraph("word_list.txt");
+			scratch.populateGraph(dictionary.toString());
+			scratch.setPathStrategy(PathStrategy.BIDIRECTIONAL);
+			scratch.shortestPathPrecomputation();
+			for (String word1 : new String[] { "BELLIES", "BELLIED", "HAT", "HOT", "COMEDO", "GIMLETS" }) {
+				for (String word2 : new String[] { "BELLIES", "JOLLIES", "HOT", "CHARGE", "BULLIES" })
+					assertEquals(scratch.getShortestDistance(word1, word2),
+							graphProcessor.getShortestDistance(word1, word2));
+			}
+		} finally {
+			Files.delete(dictionary);
+		}
+	}
+
+	/*
+	 * This test removes a word on the shortest path from COMEDO to CHARGE and
+	 * another word, then a leaf word
+	 * 
+	 * success if the distances are the same as a graph searched from scratch and
+	 * fewer sources than words are searched again, fail otherwise
+	 */
+	@Test
+	public void test_19_removeWords_updates_precomputation() {
+		graphProcessor.populateGraph("word_list.txt");
+		List<String> path = graphProcessor.getShortestPath("COMEDO", "CHARGE");
+		List<String> removed = new ArrayList<>();
+		removed.add(path.get(path.size() / 2));
+		removed.add("BELLIES");
+		removed.add("NOT_A_WORD");
+		assertEquals(2, (int) graphProcessor.removeWords(removed));
+		int searched = graphProcessor.getSearchedSourceCount();
+		assertEquals(true, searched > 0 && searched < 107);
+		assertFalse(graphProcessor.removeWord("BELLIES"));
+
+		GraphProcessor scratch = new GraphProcessor();
+		scratch.populateGraph("word_list.txt");
+		scratch.setPathStrategy(PathStrategy.BIDIRECTIONAL);
+		scratch.removeWords(removed);
+		assertEquals(-1, (int) graphProcessor.getShortestDistance("COMEDO", removed.get(0)));
+		for (String word1 : new String[] { "COMEDO", "CHARGE", "JOLLIES", "GIMLETS" }) {
+			for (String word2 : new String[] { "CHARGE", "BULLIES", "HOMOSEXUAL", "GIMLETS" })
+				assertEquals(scratch.getShortestDistance(word1, word2),
+						graphProcessor.getShortestDistance(word1, word2));
+		}
+
+		// A word at the end of a path lengthens no other path
+		assertEquals(true, graphProcessor.removeWord("MATH"));
+		assertEquals(0, graphProcessor.getSearchedSourceCount());
+	}
+
+	/*
+	 * This test checks whether words are connected, before and after removals
+	 * split a component
+	 * 
+	 * success if words are connected exactly when they have a path, fail
+	 * otherwise
+	 */
+	@Test
+	public void test_20_areConnected() {
+		graphProcessor.populateGraph("word_list.txt");
+		assertEquals(true, graphProcessor.areConnected("COMEDO", "CHARGE"));
+		assertEquals(false, graphProcessor.areConnected("cat", "dog"));
+		for (String word : new String[] { "BELLIES", "JOLLIES", "HOMOSEXUAL", "GIMLETS" })
+			assertEquals(graphProcessor.getShortestDistance("COMEDO", word) >= 0,
+					graphProcessor.areConnected("COMEDO", word));
+
+		List<String> path = graphProcessor.getShortestPath("BELLIES", "JOLLIES");
+		graphProcessor.removeWords(path.subList(1, path.size() - 1));
+		assertEquals(graphProcessor.getShortestDistance("BELLIES", "JOLLIES") >= 0,
+				graphProcessor.areConnected("BELLIES", "JOLLIES"));
+	}
+
+	/*
+	 * This test queries distances and paths in batches, with every strategy
+	 * 
+	 * success if the answers are the same as single queries, in input order, fail
+	 * otherwise
+	 */
+	@Test
+	public void test_21_batch_queries_match_single_queries() {
+		graphProcessor.populateGraph("word_list.txt");
+		List<Pair> pairs = new ArrayList<>();
+		String[] words = { "COMEDO", "CHARGE", "GIMLETS", "BELLIES", "JOLLIES", "HOMOSEXUAL", "cat" };
+		for (String word1 : words) {
+			for (String word2 : new String[] { "CHARGE", "GIMLETS", "JOLLIES", "dog" })
+				pairs.add(new Pair(word1, word2));
+		}
+		pairs.add(new Pair("COMEDO", "CHARGE"));
+
+		for (PathStrategy strategy : PathStrategy.values()) {
+			graphProcessor.setPathStrategy(strategy);
+			graphProcessor.shortestPathPrecomputation();
+			List<Integer> distances = graphProcessor.getShortestDistances(pairs);
+			List<List<String>> paths = graphProcessor.getShortestPaths(pairs);
+			if (strategy == PathStrategy.BIDIRECTIONAL || strategy == PathStrategy.ASTAR)
+				assertEquals(0, graphProcessor.getTreeCache().size());
+			assertEquals(pairs.size(), distances.size());
+			assertEquals(pairs.size(), paths.size());
+			for (int i = 0; i < pairs.size(); i++) {
+				Pair pair = pairs.get(i);
+				int distance = graphProcessor.getShortestDistance(pair.getWord1(), pair.getWord2());
+				assertEquals(distance, (int) distances.get(i));
+				assertEquals(distance < 0 ? 0 : distance + 1, paths.get(i).size());
+				if (distance > 0) {
+					assertEquals(pair.getWord1(), paths.get(i).get(0));
+					assertEquals(pair.getWord2(), paths.get(i).get(distance));
+				}
+			}
+		}
+	}
+
+	/*
+	 * This test populates a graphProcessor reporting to a MetricsRecorder, queries
+	 * it and removes a word
+	 * 
+	 * success if the words, edges, phases and queries are counted and the slow
+	 * queries are logged, fail otherwise
+	 */
+	@Test
+	public void test_22_metrics() {
+		MetricsRecorder recorder = new MetricsRecorder(0);
+		graphProcessor.setMetrics(recorder);
+		graphProcessor.populateGraph("word_list.txt");
+		assertEquals(427, recorder.getVertexCount());
+		assertEquals(countEdges(), recorder.getEdgeCount());
+		assertEquals(1, recorder.getPhaseCount(GraphMetrics.Phase.READ));
+		assertEquals(1, recorder.getPhaseCount(GraphMetrics.Phase.PRECOMPUTATION));
+		assertEquals(true, recorder.getPrecomputedBytes() > 0);
+		assertEquals(true, recorder.getIsAdjacentCount() >= recorder.getEdgeCount());
+
+		assertEquals(49, (int) graphProcessor.getShortestDistance("COMEDO", "CHARGE"));
+		graphProcessor.getShortestPath("cat", "dog");
+		assertEquals(1, recorder.getQueryCount(GraphMetrics.Query.DISTANCE));
+		assertEquals(1, recorder.getQueryCount(GraphMetrics.Query.PATH));
+		assertEquals(2, recorder.getSlowQueries().size());
+
+		long edges = recorder.getEdgeCount();
+		graphProcessor.removeWord("COMEDO");
+		assertEquals(426, recorder.getVertexCount());
+		assertEquals(true, recorder.getEdgeCount() < edges);
+		assertEquals(1, recorder.getPhaseCount(GraphMetrics.Phase.REMOVAL));
+
+		// The trie of an exact policy finds the neighbors without testing them
+		MetricsRecorder exact = new MetricsRecorder(Long.MAX_VALUE);
+		GraphProcessor damerau = new GraphProcessor();
+		damerau.setMetrics(exact);
+		damerau.populateGraph("word_list.txt", AdjacencyPolicy.DAMERAU);
+		assertEquals(true, exact.getEdgeCount() > 0);
+		assertEquals(0, exact.getIsAdjacentCount());
+	}
+
+	/*
+	 * This test populates graphProcessors with other adjacency policies
+	 * 
+	 * success if they join exactly the words within their edit distance and the
+	 * policy can not change once words are added, fail otherwise
+	 */
+	@Test
+	public void test_23_adjacency_policies() throws IOException {
+		List<String> words = new ArrayList<>();
+		WordProcessor.getWordStream("word_list.txt").distinct().forEach(words::add);
+		for (AdjacencyPolicy policy : new AdjacencyPolicy[] { AdjacencyPolicy.DAMERAU,
+				AdjacencyPolicy.editDistance(2) }) {
+			GraphProcessor processor = new GraphProcessor();
+			processor.setPathStrategy(PathStrategy.LAZY);
+			assertEquals(441, (int) processor.populateGraph("word_list.txt", policy));
+			for (String word1 : words.subList(0, 40)) {
+				for (String word2 : words) {
+					int distance = processor.getShortestDistance(word1, word2);
+					assertEquals(policy.isAdjacent(word1, word2), distance == 1);
+				}
+			}
+			assertFalse(processor.setAdjacencyPolicy(AdjacencyPolicy.ONE_EDIT));
+			assertEquals(policy, processor.getAdjacencyPolicy());
+		}
+		assertEquals(true, graphProcessor.setAdjacencyPolicy(AdjacencyPolicy.DAMERAU));
+		assertEquals(true, graphProcessor.setAdjacencyPolicy(AdjacencyPolicy.ONE_EDIT));
+		graphProcessor.populateGraph("word_list.txt");
+		assertEquals(49, (int) graphProcessor.getShortestDistance("COMEDO", "CHARGE"));
+	}
+
+	/*
+	 * This test populates a graphProcessor backed by a CompactGraph
+	 * 
+	 * success if it finds the same distances as the default graph, fail otherwise
+	 */
+	@Test
+	public void test_24_populateGraph_with_compact_graph() {
+		GraphProcessor compact = new GraphProcessor(CompactGraph::new);
+		assertEquals(441, (int) compact.populateGraph("word_list.txt"));
+		assertEquals(49, (int) compact.getShortestDistance("COMEDO", "CHARGE"));
+		assertEquals(78, (int) compact.getShortestDistance("CHARGE", "GIMLETS"));
+		assertEquals(true, compact.removeWord("COMEDO"));
+		assertEquals(-1, (int) compact.getShortestDistance("COMEDO", "CHARGE"));
+	}
+
+	/*
+	 * This test answers queries with A* searches, with every adjacency policy
+	 * 
+	 * success if the paths are as short as the precomputed ones and the searches
+	 * and expanded vertices are counted, fail otherwise
+	 */
+	@Test
+	public void test_25_astar_strategy_matches_precomputed() throws IOException {
+		List<String> words = new ArrayList<>();
+		WordProcessor.getWordStream("word_list.txt").distinct().forEach(words::add);
+		for (AdjacencyPolicy policy : new AdjacencyPolicy[] { AdjacencyPolicy.ONE_EDIT, AdjacencyPolicy.DAMERAU,
+				AdjacencyPolicy.editDistance(2) }) {
+			GraphProcessor precomputed = new GraphProcessor();
+			precomputed.populateGraph("word_list.txt", policy);
+			GraphProcessor astar = new GraphProcessor();
+			MetricsRecorder recorder = new MetricsRecorder(Long.MAX_VALUE);
+			astar.setMetrics(recorder);
+			astar.setPathStrategy(PathStrategy.ASTAR);
+			astar.populateGraph("word_list.txt", policy);
+			long searches = 0;
+			for (int i = 0; i < words.size(); i += 5) {
+				for (int j = 1; j < words.size(); j += 3) {
+					String word1 = words.get(i);
+					String word2 = words.get(j);
+					int distance = precomputed.getShortestDistance(word1, word2);
+					assertEquals(distance, (int) astar.getShortestDistance(word1, word2));
+					List<String> path = astar.getShortestPath(word1, word2);
+					assertEquals(distance < 0 ? 0 : distance + 1, path.size());
+					for (int k = 1; k < path.size(); k++)
+						assertEquals(true, policy.isAdjacent(path.get(k - 1), path.get(k)));
+					if (distance > 0)
+						searches += 2;
+				}
+			}
+			assertEquals(searches, recorder.getSearchCount());
+			assertEquals(true, recorder.getExpandedCount() >= searches);
+		}
+	}
+
+	/*
+	 * This test computes landmark distance bounds and answers A* queries guided by
+	 * landmarks, with every landmark selection
+	 * 
+	 * success if the bounds enclose the precomputed distances and the queries
+	 * find them, fail otherwise
+	 */
+	@Test
+	public void test_26_landmarks() throws IOException {
+		assertEquals(-1, (int) graphProcessor.getDistanceLowerBound("COMEDO", "CHARGE"));
+		assertFalse(graphProcessor.setLandmarks(-1, LandmarkIndex.Selection.DEGREE));
+		assertFalse(graphProcessor.setLandmarks(4, null));
+		graphProcessor.populateGraph("word_list.txt");
+
+		List<String> words = new ArrayList<>();
+		WordProcessor.getWordStream("word_list.txt").distinct().forEach(words::add);
+		for (LandmarkIndex.Selection selection : LandmarkIndex.Selection.values()) {
+			GraphProcessor astar = new GraphProcessor();
+			assertEquals(true, astar.setLandmarks(4, selection));
+			astar.setPathStrategy(PathStrategy.ASTAR);
+			astar.populateGraph("word_list.txt");
+			for (int i = 0; i < words.size(); i += 5) {
+				for (int j = 2; j < words.size(); j += 3) {
+					String word1 = words.get(i);
+					String word2 = words.get(j);
+					int distance = graphProcessor.getShortestDistance(word1, word2);
+					assertEquals(distance, (int) astar.getShortestDistance(word1, word2));
+					if (distance < 0)
+						continue;
+					assertEquals(true, astar.getDistanceLowerBound(word1, word2) <= distance);
+					int upper = astar.getDistanceUpperBound(word1, word2);
+					assertEquals(true, upper == -1 || upper >= distance);
+				}
+			}
+		}
+		assertEquals(-1, (int) graphProcessor.getDistanceUpperBound("cat", "dog"));
+	}
+
+	/*
+	 * This test answers queries from pruned landmark labels
+	 * 
+	 * success if they give the precomputed distances and valid shortest paths,
+	 * also after a word is removed, fail otherwise
+	 */
+	@Test
+	public void test_27_pll_strategy_matches_precomputed() throws IOException {
+		GraphProcessor pll = new GraphProcessor();
+		MetricsRecorder recorder = new MetricsRecorder(Long.MAX_VALUE);
+		pll.setMetrics(recorder);
+		pll.setPathStrategy(PathStrategy.PLL);
+		assertEquals(441, (int) pll.populateGraph("word_list.txt"));
+		assertEquals(true, recorder.getPrecomputedBytes() > 0);
+		graphProcessor.populateGraph("word_list.txt");
+
+		List<String> words = new ArrayList<>();
+		WordProcessor.getWordStream("word_list.txt").distinct().forEach(words::add);
+		for (int i = 0; i < words.size(); i += 3) {
+			for (String word2 : words) {
+				String word1 = words.get(i);
+				int distance = graphProcessor.getShortestDistance(word1, word2);
+				assertEquals(distance, (int) pll.getShortestDistance(word1, word2));
+				List<String> path = pll.getShortestPath(word1, word2);
+				assertEquals(distance < 0 ? 0 : distance + 1, path.size());
+				for (int k = 1; k < path.size(); k++)
+					assertEquals(true, WordProcessor.isAdjacent(path.get(k - 1), path.get(k)));
+			}
+		}
+		assertEquals(49, (int) pll.getShortestDistance("COMEDO", "CHARGE"));
+		assertEquals(true, pll.removeWord("COMEDO"));
+		pll.shortestPathPrecomputation();
+		assertEquals(-1, (int) pll.getShortestDistance("COMEDO", "CHARGE"));
+		assertEquals(78, (int) pll.getShortestDistance("CHARGE", "GIMLETS"));
+	}
+
+	/*
+	 * This test keeps the precomputed paths off the heap while words are added
+	 * and removed, saves them, and releases them
+	 * 
+	 * success if the paths are the same as on the heap and can no longer be
+	 * queried once released, fail otherwise
+	 */
+	@Test
+	public void test_28_off_heap_precomputation() throws IOException {
+		Path file = Files.createTempFile("precomputation", ".bin");
+		GraphProcessor offHeap = new GraphProcessor();
+		try {
+			offHeap.setOffHeap(true);
+			assertEquals(441, (int) offHeap.populateGraph("word_list.txt"));
+			assertEquals(49, (int) offHeap.getShortestDistance("COMEDO", "CHARGE"));
+			assertEquals(2, (int) offHeap.populateGraph("no_connection.txt"));
+			assertEquals(true, offHeap.removeWord("BELLIES"));
+			offHeap.shortestPathPrecomputation();
+			graphProcessor.populateGraph("word_list.txt");
+			graphProcessor.populateGraph("no_connection.txt");
+			graphProcessor.removeWord("BELLIES");
+			graphProcessor.shortestPathPrecomputation();
+			for (String word1 : new String[] { "COMEDO", "CHARGE", "GIMLETS", "JOLLIES", "BELLIES" }) {
+				for (String word2 : new String[] { "CHARGE", "GIMLETS", "JOLLIES", "BULLIES" }) {
+					assertEquals(graphProcessor.getShortestDistance(word1, word2),
+							offHeap.getShortestDistance(word1, word2));
+					assertEquals(graphProcessor.getShortestPath(word1, word2).size(),
+							offHeap.getShortestPath(word1, word2).size());
+				}
+			}
+			assertEquals(true, offHeap.savePrecomputation(file));
+
+			// A mapped table is used in place, on or off the heap
+			GraphProcessor loaded = new GraphProcessor();
+			MetricsRecorder recorder = new MetricsRecorder(Long.MAX_VALUE);
+			loaded.setMetrics(recorder);
+			loaded.loadPrecomputation(file);
+			loaded.shortestPathPrecomputation();
+			loaded.setOffHeap(true);
+			loaded.shortestPathPrecomputation();
+			loaded.close();
+			assertEquals(0, recorder.getPhaseCount(GraphMetrics.Phase.PRECOMPUTATION));
+			assertEquals(49, (int) loaded.getShortestDistance("COMEDO", "CHARGE"));
+			assertEquals(-1, (int) loaded.getShortestDistance("CHARGE", "GIMLETS"));
+
+			offHeap.close();
+			assertEquals(-1, (int) offHeap.getShortestDistance("COMEDO", "CHARGE"));
+			offHeap.shortestPathPrecomputation();
+			assertEquals(49, (int) offHeap.getShortestDistance("COMEDO", "CHARGE"));
+			offHeap.setOffHeap(false);
+			offHeap.shortestPathPrecomputation();
+			assertEquals(49, (int) offHeap.getShortestDistance("COMEDO", "CHARGE"));
+		} finally {
+			offHeap.close();
+			Files.delete(file);
+		}
+	}
+
+	/*
+	 * This test lists every shortest path and the k shortest loopless paths
+	 * between two words, on the graph as it is and after words are removed
+	 * 
+	 * success if each path is a distinct ladder of the expected length, fail
+	 * otherwise
+	 */
+	@Test
+	public void test_29_all_and_k_shortest_paths() throws IOException {
+		Path file = Files.createTempFile("ladders", ".txt");
+		try {
+			Files.write(file, Arrays.asList("CAT", "COT", "CAG", "COG", "DOG", "DOT", "DAG"));
+			assertEquals(7, (int) graphProcessor.populateGraph(file.toString()));
+			List<List<String>> all = graphProcessor.getAllShortestPaths("CAT", "DOG").collect(Collectors.toList());
+			assertEquals(4, all.size());
+			assertEquals(4, new HashSet<>(all).size());
+			for (List<String> path : all) {
+				assertEquals(4, path.size());
+				assertEquals("CAT", path.get(0));
+				assertEquals("DOG", path.get(3));
+			}
+			assertEquals(true, all.contains(graphProcessor.getShortestPath("CAT", "DOG")));
+			assertEquals(all.subList(0, 2),
+					graphProcessor.getAllShortestPaths("CAT", "DOG").limit(2).collect(Collectors.toList()));
+
+			List<List<String>> k = graphProcessor.getKShortestPaths("CAT", "DOG", 5).collect(Collectors.toList());
+			assertEquals(5, k.size());
+			assertEquals(new HashSet<>(all), new HashSet<>(k.subList(0, 4)));
+			assertEquals(6, k.get(4).size());
+			assertEquals(6, new HashSet<>(k.get(4)).size());
+			assertEquals(0, graphProcessor.getKShortestPaths("CAT", "DOG", 0).count());
+			assertEquals(0, graphProcessor.getAllShortestPaths("CAT", "CAT").count());
+
+			graphProcessor.removeWord("COT");
+			assertEquals(2, graphProcessor.getAllShortestPaths("CAT", "DOG").count());
+			graphProcessor.removeWord("CAG");
+			assertEquals(0, graphProcessor.getAllShortestPaths("CAT", "DOG").count());
+			assertEquals(0, graphProcessor.getKShortestPaths("CAT", "DOG", 3).count());
+		} finally {
+			Files.delete(file);
+		}
+
+		graphProcessor.populateGraph("word_list.txt");
+		List<List<String>> k = graphProcessor.getKShortestPaths("CHARGE", "GIMLETS", 3).collect(Collectors.toList());
+		assertEquals(Arrays.asList(graphProcessor.getShortestPath("CHARGE", "GIMLETS")),
+				graphProcessor.getAllShortestPaths("CHARGE", "GIMLETS").collect(Collectors.toList()));
+		assertEquals(2, k.size());
+		assertEquals(79, k.get(0).size());
+		assertEquals(80, k.get(1).size());
+	}
+
+	/*
+	 * This test adds a word with characters outside Latin-1 after a Latin-1
+	 * neighbor, and the other way around
+	 * 
+	 * success if both orders join the two words, fail otherwise
+	 */
+	@Test
+	public void test_30_populateGraph_joins_latin1_and_other_words() throws IOException {
+		Path file = Files.createTempFile("unicode", ".txt");
+		try {
+			Files.write(file, Arrays.asList("CAT", "C\u0100T"), StandardCharsets.UTF_8);
+			assertEquals(2, (int) graphProcessor.populateGraph(file.toString()));
+			assertEquals(1, (int) graphProcessor.getShortestDistance("CAT", "C\u0100T"));
+
+			Files.write(file, Arrays.asList("C\u0100T", "CAT"), StandardCharsets.UTF_8);
+			GraphProcessor reversed = new GraphProcessor();
+			assertEquals(2, (int) reversed.populateGraph(file.toString()));
+			assertEquals(1, (int) reversed.getShortestDistance("CAT", "C\u0100T"));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	/*
+	 * This test loads saved paths into a graphProcessor that had another graph,
+	 * then loads a copy of the file with one byte of its rows changed
+	 * 
+	 * success if the deletion index holds the loaded words and the changed file
+	 * is rejected, fail otherwise
+	 */
+	@Test
+	public void test_31_load_precomputation_replaces_index_and_checks_rows() throws IOException {
+		Path file = Files.createTempFile("precomputation", ".bin");
+		try (GraphProcessor loaded = new GraphProcessor()) {
+			graphProcessor.populateGraph("word_list.txt");
+			assertEquals(true, graphProcessor.savePrecomputation(file));
+
+			loaded.populateGraph("no_connection.txt");
+			assertEquals(427, (int) loaded.loadPrecomputation(file));
+			assertEquals(427, loaded.getDeletionIndex().size());
+			assertEquals(false, loaded.getDeletionIndex().contains("CAT"));
+
+			byte[] bytes = Files.readAllBytes(file);
+			bytes[bytes.length - 1] ^= 1;
+			Files.write(file, bytes);
+			assertEquals(-1, (int) new GraphProcessor().loadPrecomputation(file));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	/*
+	 * This test populates graphProcessors with word_list.txt and with every word
+	 * of one to four letters A, B and C, where most words have many neighbors
+	 * 
+	 * success if two words are joined exactly when isAdjacent holds for them,
+	 * comparing every pair, fail otherwise
+	 */
+	@Test
+	public void test_32_edge_index_matches_comparing_every_pair() throws IOException {
+		List<String> dense = new ArrayList<>();
+		for (int length = 1; length <= 4; length++) {
+			for (int n = 0, count = (int) Math.pow(3, length); n < count; n++) {
+				StringBuilder word = new StringBuilder();
+				for (int i = 0, rest = n; i < length; i++, rest /= 3)
+					word.append((char) ('A' + rest % 3));
+				dense.add(word.toString());
+			}
+		}
+		Path file = Files.createTempFile("words", ".txt");
+		try {
+			Files.write(file, dense);
+			for (Path dictionary : new Path[] { new File("word_list.txt").toPath(), file }) {
+				List<String> words = new ArrayList<>();
+				WordProcessor.getWordStream(dictionary.toString()).distinct().forEach(words::add);
+				GraphProcessor processor = new GraphProcessor();
+				processor.populateGraph(dictionary.toString());
+				for (String word1 : words) {
+					for (String word2 : words) {
+						if (!word1.equals(word2))
+							assertEquals(word1 + " " + word2, WordProcessor.isAdjacent(word1, word2),
+									processor.getShortestDistance(word1, word2) == 1);
+					}
+				}
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	/**
+	 * Counts the edges of the graph of word_list.txt by comparing all pairs of
+	 * words, in a Graph reporting to its own metrics
+	 */
+	private long countEdges() {
+		MetricsRecorder recorder = new MetricsRecorder(Long.MAX_VALUE);
+		Graph<String> graph = new Graph<>();
+		graph.setMetrics(recorder);
+		List<String> words = new ArrayList<>();
+		try {
+			WordProcessor.getWordStream("word_list.txt").distinct().forEach(words::add);
+		} catch (IOException ioe) {
+			return -1;
+		}
+		for (int i = 0; i < words.size(); i++) {
+			graph.addVertex(words.get(i));
+			for (int j = 0; j < i; j++) {
+				if (WordProcessor.isAdjacent(words.get(i), words.get(j)))
+					graph.addEdge(words.get(i), words.get(j));
+			}
+		}
+		assertEquals(words.size(), recorder.getVertexCount());
+		return recorder.getEdgeCount();
+	}
+}
@@ -0,0 +1,223 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of a graph of words built from a dictionary file, so that
+ * the dictionary does not have to be parsed and its edges discovered again
+ * while it is unchanged.
+ *
+ * Layout (big-endian, version 1):
+ *
+ * - magic number {@link #MAGIC} and format {@link #VERSION} (ints)
+ *
+ * - SHA-256 hash of the dictionary file (32 bytes)
+ *
+ * - number of words read from the dictionary, duplicates included (int)
+ *
+ * - CRC-32 of the payload (long) and payload length (int)
+ *
+ * - payload: the graph, as written by
+ * {@link CsrGraph#write(CsrGraph, DataOutputStream)}
+ */
+public class GraphSnapshot {
+
+	/**
+	 * First four bytes of the file, "DGSN"
+	 */
+	public static final int MAGIC = 0x4447534E;
+
+	/**
+	 * Version of the layout written by this class
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Length of the dictionary hash, in bytes
+	 */
+	private static final int HASH_LENGTH = 32;
+
+	/**
+	 * Length of the header before the payload, in bytes
+	 */
+	private static final int HEADER_LENGTH = 4 + 4 + HASH_LENGTH + 4 + 8 + 4;
+
+	/**
+	 * Hash of the dictionary the graph was built from
+	 */
+	private final byte[] dictionaryHash;
+
+	/**
+	 * Number of words read from the dictionary, duplicates included
+	 */
+	private final int wordCount;
+
+	/**
+	 * The graph
+	 */
+	private final CsrGraph<String> graph;
+
+	/**
+	 * Constructor for a snapshot of a graph
+	 *
+	 * @param dictionaryHash
+	 *            the hash of the dictionary, see {@link #hash(String)}
+	 * @param wordCount
+	 *            the number of words read from the dictionary
+	 * @param graph
+	 *            the graph built from the dictionary
+	 */
+	public GraphSnapshot(byte[] dictionaryHash, int wordCount, CsrGraph<String> graph) {
+		this.dictionaryHash = dictionaryHash.clone();
+		this.wordCount = wordCount;
+		this.graph = graph;
+	}
+
+	/**
+	 * @return CsrGraph<String> the graph
+	 */
+	public CsrGraph<String> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return int the number of words read from the dictionary
+	 */
+	public int getWordCount() {
+		return wordCount;
+	}
+
+	/**
+	 * @param dictionaryHash
+	 *            the hash of a dictionary, see {@link #hash(String)}
+	 * @return true if the graph was built from a dictionary with that hash
+	 */
+	public boolean matches(byte[] dictionaryHash) {
+		return Arrays.equals(this.dictionaryHash, dictionaryHash);
+	}
+
+	/**
+	 * Hashes the content of a dictionary file
+	 *
+	 * @param filepath
+	 *            file path to the dictionary
+	 * @return byte[] the SHA-256 hash of the file
+	 * @throws IOException
+	 *             exception resulting from reading the file
+	 */
+	public static byte[] hash(String filepath) throws IOException {
+		return hash(filepath, AdjacencyPolicy.ONE_EDIT);
+	}
+
+	/**
+	 * Hashes the content of a dictionary file together with the adjacency policy
+	 * its graph is built with, so that a snapshot is only used by processors
+	 * joining the same words. The hash under {@link AdjacencyPolicy#ONE_EDIT} is
+	 * the hash of the file alone.
+	 *
+	 * @param filepath
+	 *            file path to the dictionary
+	 * @param policy
+	 *            the adjacency policy of the graph
+	 * @return byte[] the SHA-256 hash of the file and policy
+	 * @throws IOException
+	 *             exception resulting from reading the file
+	 */
+	public static byte[] hash(String filepath, AdjacencyPolicy policy) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+		byte[] buffer = new byte[1 << 16];
+		try (InputStream in = Files.newInputStream(Paths.get(filepath))) {
+			for (int n; (n = in.read(buffer)) > 0;)
+				digest.update(buffer, 0, n);
+		}
+		if (!AdjacencyPolicy.ONE_EDIT.equals(policy))
+			digest.update(policy.toString().getBytes(StandardCharsets.UTF_8));
+		return digest.digest();
+	}
+
+	/**
+	 * Writes the snapshot to a file
+	 *
+	 * @param file
+	 *            the file to create or replace
+	 * @throws IOException
+	 *             exception resulting from writing the file
+	 */
+	public void write(Path file) throws IOException {
+		ByteArrayOutputStream payload = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(payload);
+		CsrGraph.write(graph, out);
+		out.flush();
+		CRC32 crc = new CRC32();
+		crc.update(payload.toByteArray());
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+		header.putInt(MAGIC).putInt(VERSION).put(dictionaryHash).putInt(wordCount);
+		header.putLong(crc.getValue()).putInt(payload.size()).flip();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer[] buffers = { header, ByteBuffer.wrap(payload.toByteArray()) };
+			while (buffers[1].hasRemaining())
+				channel.write(buffers);
+		}
+	}
+
+	/**
+	 * Reads a snapshot written by {@link #write(Path)} in one sequential read and
+	 * checks it against its checksum
+	 *
+	 * @param file
+	 *            the file to read
+	 * @return GraphSnapshot the snapshot
+	 * @throws IOException
+	 *             exception resulting from reading the file, or if it is not a
+	 *             supported, intact snapshot
+	 */
+	public static GraphSnapshot read(Path file) throws IOException {
+		ByteBuffer in;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE)
+				throw new IOException(file + " is too large to be a graph snapshot");
+			in = ByteBuffer.allocate((int) channel.size());
+			while (in.hasRemaining() && channel.read(in) >= 0)
+				;
+			in.flip();
+		}
+
+		if (in.remaining() < HEADER_LENGTH || in.getInt() != MAGIC)
+			throw new IOException(file + " is not a graph snapshot");
+		int version = in.getInt();
+		if (version != VERSION)
+			throw new IOException("unsupported graph snapshot version " + version);
+		byte[] dictionaryHash = new byte[HASH_LENGTH];
+		in.get(dictionaryHash);
+		int wordCount = in.getInt();
+		long checksum = in.getLong();
+		int length = in.getInt();
+		if (length != in.remaining())
+			throw new IOException("truncated graph snapshot");
+
+		CRC32 crc = new CRC32();
+		crc.update(in.array(), in.position(), length);
+		if (crc.getValue() != checksum)
+			throw new IOException("graph snapshot checksum mismatch");
+		return new GraphSnapshot(dictionaryHash, wordCount, CsrGraph.read(in));
+	}
+}
@@ -333,4 +333,17 @@ public class GraphTest {
 		assertEquals("num of vertices in the graph", numOfVertices - 2, verticesCount);
 	}
 
-}
\ No newline at end of file
+	@Test
+	public final void removeVertexWithSeveralNeighbors() {
+		for (String itrVertex : vertices)
+			this.graph.addVertex(itrVertex);
+		for (int i = 1; i < 5; i++)
+			this.graph.addEdge(vertices.get(0), vertices.get(i));
+
+		assertEquals("return value if vertex passed to removeVertex has several neighbors", vertices.get(0),
+				this.graph.removeVertex(vertices.get(0)));
+		for (int i = 1; i < 5; i++)
+			assertEquals(String.format("neighbors of vertex=%s", vertices.get(i)), false,
+					this.graph.getNeighbors(vertices.get(i)).iterator().hasNext());
+	}
+}
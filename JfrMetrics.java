@@ -0,0 +1,149 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * {@link MetricsRecorder} that also emits its measurements as JDK Flight
+ * Recorder events, to be seen next to GC, allocation and lock events in a
+ * recording:
+ *
+ * java -XX:StartFlightRecording=filename=graph.jfr ...
+ *
+ * Phases and queries are emitted as events with their duration, queries at
+ * least as slow as the threshold also as slow query events, and the counters
+ * as a periodic event, every second by default. Events that are not enabled in
+ * the running recording cost one check each.
+ *
+ * Requires a runtime with the jdk.jfr module, Java 11 or 8u272 and later.
+ */
+public class JfrMetrics extends MetricsRecorder {
+
+	@Name("dictionarygraph.Phase")
+	@Label("Graph Phase")
+	@Category("Dictionary Graph")
+	@Description("A phase of building, precomputing or persisting the graph")
+	@StackTrace(false)
+	static class PhaseEvent extends Event {
+		@Label("Phase")
+		String phase;
+
+		@Label("Duration")
+		@Timespan(Timespan.NANOSECONDS)
+		long nanos;
+	}
+
+	@Name("dictionarygraph.Query")
+	@Label("Graph Query")
+	@Category("Dictionary Graph")
+	@Description("A shortest path query")
+	@StackTrace(false)
+	static class QueryEvent extends Event {
+		@Label("Query")
+		String query;
+
+		@Label("First Word")
+		String word1;
+
+		@Label("Second Word")
+		String word2;
+
+		@Label("Latency")
+		@Timespan(Timespan.NANOSECONDS)
+		long nanos;
+	}
+
+	@Name("dictionarygraph.SlowQuery")
+	@Label("Slow Graph Query")
+	@Category("Dictionary Graph")
+	@Description("A shortest path query at least as slow as the slow query threshold")
+	static class SlowQueryEvent extends QueryEvent {
+	}
+
+	@Name("dictionarygraph.Counters")
+	@Label("Graph Counters")
+	@Category("Dictionary Graph")
+	@Description("Counts of vertices, edges, adjacency tests and expanded vertices, and the size of the precomputed paths")
+	@Period("1 s")
+	@StackTrace(false)
+	static class CountersEvent extends Event {
+		@Label("Vertices")
+		long vertices;
+
+		@Label("Edges")
+		long edges;
+
+		@Label("Adjacency Tests")
+		long isAdjacentCalls;
+
+		@Label("Expanded Vertices")
+		long expandedVertices;
+
+		@Label("Precomputed Paths Size")
+		@DataAmount(DataAmount.BYTES)
+		long precomputedBytes;
+	}
+
+	/**
+	 * Emits the counters of this recorder when a recording asks for them
+	 */
+	private final Runnable emitCounters = () -> {
+		CountersEvent event = new CountersEvent();
+		event.vertices = getVertexCount();
+		event.edges = getEdgeCount();
+		event.isAdjacentCalls = getIsAdjacentCount();
+		event.expandedVertices = getExpandedCount();
+		event.precomputedBytes = getPrecomputedBytes();
+		event.commit();
+	};
+
+	/**
+	 * Constructor for a recorder emitting its measurements to Flight Recorder.
+	 * Call {@link #close()} when done to stop emitting the counters.
+	 *
+	 * @param slowQueryNanos
+	 *            the latency from which queries are logged and emitted as slow
+	 *            query events, in nanoseconds
+	 */
+	public JfrMetrics(long slowQueryNanos) {
+		super(slowQueryNanos);
+		FlightRecorder.addPeriodicEvent(CountersEvent.class, emitCounters);
+	}
+
+	@Override
+	public void phaseCompleted(Phase phase, long nanos) {
+		super.phaseCompleted(phase, nanos);
+		PhaseEvent event = new PhaseEvent();
+		if (event.isEnabled()) {
+			event.phase = phase.name();
+			event.nanos = nanos;
+			event.commit();
+		}
+	}
+
+	@Override
+	public void queryCompleted(Query query, String word1, String word2, long nanos) {
+		super.queryCompleted(query, word1, word2, nanos);
+		QueryEvent event = nanos >= getSlowQueryThreshold() ? new SlowQueryEvent() : new QueryEvent();
+		if (event.isEnabled()) {
+			event.query = query.name();
+			event.word1 = word1;
+			event.word2 = word2;
+			event.nanos = nanos;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Stops emitting the periodic counters event
+	 */
+	public void close() {
+		FlightRecorder.removePeriodicEvent(emitCounters);
+	}
+}
@@ -0,0 +1,283 @@
+import java.util.Arrays;
+
+/**
+ * Distance bounds between any two vertices of a {@link CsrGraph} from their
+ * distances to a few landmark vertices (ALT: A*, landmarks and the triangle
+ * inequality).
+ *
+ * One breadth-first search is run from each of k landmarks. For every
+ * landmark L and vertices u and v, |d(L, u) - d(L, v)| <= d(u, v) <= d(L, u) +
+ * d(L, v), so the largest difference and the smallest sum over the landmarks
+ * bound the distance in O(k) without searching. The lower bound is
+ * consistent, and guides {@link AStarSearch} towards the target.
+ *
+ * The distances of each vertex to all landmarks are stored next to each other
+ * in one byte array, k bytes per vertex. Distances of {@link #UNKNOWN} (255)
+ * and more, and vertices a landmark does not reach, are stored as UNKNOWN.
+ * Capping distances keeps the lower bounds valid and consistent: a vertex
+ * whose distance to a landmark is UNKNOWN is at least 255 - d edges from a
+ * vertex at distance d of it, or not connected to it at all.
+ */
+public class LandmarkIndex {
+
+	/**
+	 * Stored distance of a vertex that a landmark does not reach, or reaches
+	 * only through 255 edges or more
+	 */
+	public static final int UNKNOWN = 255;
+
+	/**
+	 * How the landmarks are chosen
+	 */
+	public enum Selection {
+		/**
+		 * The first landmark is the vertex farthest from the vertex with the most
+		 * neighbors, and each next one the vertex farthest from the landmarks
+		 * chosen before it. Landmarks at the edges of the graph give the
+		 * tightest lower bounds. All landmarks are in the component of the vertex
+		 * with the most neighbors, which in a dictionary graph is the giant
+		 * component where searches are long.
+		 */
+		FARTHEST,
+
+		/**
+		 * The vertices with the most neighbors, which lie on many shortest paths
+		 * and give tight upper bounds, chosen without any search
+		 */
+		DEGREE
+	}
+
+	/**
+	 * Graph the distances were computed on
+	 */
+	private final CsrGraph<?> graph;
+
+	/**
+	 * ID of each landmark
+	 */
+	private final int[] landmarks;
+
+	/**
+	 * Distance from landmark i to vertex v at index v * landmarks.length + i,
+	 * read as an unsigned byte
+	 */
+	private final byte[] distances;
+
+	/**
+	 * Private constructor, indexes are built by {@link #build}
+	 */
+	private LandmarkIndex(CsrGraph<?> graph, int[] landmarks, byte[] distances) {
+		this.graph = graph;
+		this.landmarks = landmarks;
+		this.distances = distances;
+	}
+
+	/**
+	 * Chooses landmarks and computes the distances of every vertex to them
+	 *
+	 * @param engine
+	 *            a BFS engine over the graph to index
+	 * @param count
+	 *            the number of landmarks; fewer are chosen if there are not as
+	 *            many candidates
+	 * @param selection
+	 *            how the landmarks are chosen
+	 * @return LandmarkIndex the index
+	 */
+	public static LandmarkIndex build(BfsEngine engine, int count, Selection selection) {
+		CsrGraph<?> graph = engine.getGraph();
+		int n = graph.size();
+		int[] chosen = selection == Selection.DEGREE ? byDegree(graph, count) : null;
+		int k = chosen != null ? chosen.length : count;
+		int[] landmarks = new int[k];
+		byte[] distances = new byte[n * k];
+		Arrays.fill(distances, (byte) UNKNOWN);
+
+		// Distance of each vertex to its nearest landmark, for FARTHEST, starting
+		// with the distances to the vertex with the most neighbors
+		int[] nearest = new int[n];
+		Arrays.fill(nearest, Integer.MAX_VALUE);
+		int[] seed = chosen == null ? byDegree(graph, 1) : null;
+		if (seed != null && seed.length > 0) {
+			BfsEngine.Workspace ws = engine.search(seed[0]);
+			for (int i = 0; i < ws.reached; i++)
+				nearest[ws.queue[i]] = ws.dist[ws.queue[i]];
+		}
+		int found = 0;
+		for (; found < k; found++) {
+			int landmark = chosen != null ? chosen[found] : farthest(graph, nearest);
+			if (landmark < 0)
+				break;
+			landmarks[found] = landmark;
+			BfsEngine.Workspace ws = engine.search(landmark);
+			if (found == 0)
+				Arrays.fill(nearest, Integer.MAX_VALUE);
+			for (int i = 0; i < ws.reached; i++) {
+				int v = ws.queue[i];
+				int d = ws.dist[v];
+				distances[v * k + found] = (byte) Math.min(d, UNKNOWN);
+				nearest[v] = Math.min(nearest[v], d);
+			}
+		}
+		if (found < k) {
+			// Fewer vertices with neighbors than landmarks asked for
+			byte[] packed = new byte[n * found];
+			for (int v = 0; v < n; v++)
+				System.arraycopy(distances, v * k, packed, v * found, found);
+			return new LandmarkIndex(graph, Arrays.copyOf(landmarks, found), packed);
+		}
+		return new LandmarkIndex(graph, landmarks, distances);
+	}
+
+	/**
+	 * @return CsrGraph<?> the graph the distances were computed on
+	 */
+	public CsrGraph<?> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return int[] the IDs of the landmarks, in the order they were chosen
+	 */
+	public int[] getLandmarks() {
+		return landmarks.clone();
+	}
+
+	/**
+	 * Gets a lower bound on the distance between two vertices
+	 *
+	 * @param u
+	 *            the ID of a vertex
+	 * @param v
+	 *            the ID of another vertex
+	 * @return int a number of edges no larger than the distance of u and v, 0 if
+	 *         the landmarks give no bound; {@link #UNKNOWN} when the landmark u
+	 *         or v does not reach the other
+	 */
+	public int lowerBound(int u, int v) {
+		int k = landmarks.length;
+		int bound = 0;
+		for (int i = 0, a = u * k, b = v * k; i < k; i++, a++, b++)
+			bound = Math.max(bound, Math.abs((distances[a] & 0xFF) - (distances[b] & 0xFF)));
+		return bound;
+	}
+
+	/**
+	 * Gets an upper bound on the distance between two vertices
+	 *
+	 * @param u
+	 *            the ID of a vertex
+	 * @param v
+	 *            the ID of another vertex
+	 * @return int a number of edges no smaller than the distance of u and v, or
+	 *         -1 if no landmark reaches both
+	 */
+	public int upperBound(int u, int v) {
+		int k = landmarks.length;
+		int bound = Integer.MAX_VALUE;
+		for (int i = 0, a = u * k, b = v * k; i < k; i++, a++, b++) {
+			int du = distances[a] & 0xFF;
+			int dv = distances[b] & 0xFF;
+			if (du != UNKNOWN && dv != UNKNOWN)
+				bound = Math.min(bound, du + dv);
+		}
+		return bound == Integer.MAX_VALUE ? -1 : bound;
+	}
+
+	/**
+	 * Copies the distances of a vertex to all landmarks, so that the lower bounds
+	 * to it can be computed without reading its row again
+	 *
+	 * @param v
+	 *            the ID of a vertex
+	 * @param row
+	 *            an array of at least {@link #size()} entries to fill
+	 */
+	void copyRow(int v, int[] row) {
+		int k = landmarks.length;
+		for (int i = 0; i < k; i++)
+			row[i] = distances[v * k + i] & 0xFF;
+	}
+
+	/**
+	 * Gets a lower bound on the distance between a vertex and a vertex whose
+	 * row was copied by {@link #copyRow(int, int[])}
+	 *
+	 * @param u
+	 *            the ID of a vertex
+	 * @param row
+	 *            the distances of the other vertex to the landmarks
+	 * @return int a number of edges no larger than the distance of the two
+	 *         vertices
+	 */
+	int lowerBound(int u, int[] row) {
+		int k = landmarks.length;
+		int bound = 0;
+		for (int i = 0, a = u * k; i < k; i++, a++)
+			bound = Math.max(bound, Math.abs((distances[a] & 0xFF) - row[i]));
+		return bound;
+	}
+
+	/**
+	 * @return int the number of landmarks
+	 */
+	public int size() {
+		return landmarks.length;
+	}
+
+	/**
+	 * @return long the size of the distances, in bytes
+	 */
+	public long sizeInBytes() {
+		return distances.length + landmarks.length * 4L;
+	}
+
+	/**
+	 * Private helper method to find the vertices with the most neighbors
+	 *
+	 * @param graph
+	 *            - the graph
+	 * @param count
+	 *            - the number of vertices to find
+	 * @return int[] up to count IDs of vertices with neighbors, by decreasing
+	 *         degree then increasing ID
+	 */
+	private static int[] byDegree(CsrGraph<?> graph, int count) {
+		long[] keys = new long[graph.size()];
+		int size = 0;
+		for (int v = 0; v < graph.size(); v++) {
+			if (graph.degree(v) > 0)
+				keys[size++] = ((long) -graph.degree(v) << 32) | v;
+		}
+		Arrays.sort(keys, 0, size);
+		int[] ids = new int[Math.min(count, size)];
+		for (int i = 0; i < ids.length; i++)
+			ids[i] = (int) keys[i];
+		return ids;
+	}
+
+	/**
+	 * Private helper method to choose the next FARTHEST landmark
+	 *
+	 * @param graph
+	 *            - the graph
+	 * @param nearest
+	 *            - the distance of each vertex to its nearest landmark, or to
+	 *            the starting vertex before the first landmark;
+	 *            Integer.MAX_VALUE for vertices of other components
+	 * @return int the ID of the vertex farthest from the landmarks, with the most
+	 *         neighbors among those, or -1 if every vertex of the component is
+	 *         a landmark
+	 */
+	private static int farthest(CsrGraph<?> graph, int[] nearest) {
+		int best = -1;
+		for (int v = 0; v < graph.size(); v++) {
+			if (nearest[v] == 0 || nearest[v] == Integer.MAX_VALUE)
+				continue;
+			if (best < 0 || nearest[v] > nearest[best]
+					|| (nearest[v] == nearest[best] && graph.degree(v) > graph.degree(best)))
+				best = v;
+		}
+		return best;
+	}
+}
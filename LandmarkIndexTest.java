@@ -0,0 +1,76 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Junit test class to test class @see LandmarkIndex
+ */
+public class LandmarkIndexTest {
+
+	private CsrGraph<String> frozen;
+	private BfsEngine engine;
+
+	@Before
+	public void setUp() throws Exception {
+		// A chain a-b-c-d-e with a branch c-x, and a separate pair y-z
+		Graph<String> graph = new Graph<>();
+		for (String vertex : new String[] { "a", "b", "c", "d", "e", "x", "y", "z", "alone" })
+			graph.addVertex(vertex);
+		graph.addEdge("a", "b");
+		graph.addEdge("b", "c");
+		graph.addEdge("c", "d");
+		graph.addEdge("d", "e");
+		graph.addEdge("c", "x");
+		graph.addEdge("y", "z");
+		frozen = graph.freeze();
+		engine = new BfsEngine(frozen);
+	}
+
+	@Test
+	public final void farthestLandmarksAreAtTheEdgesOfTheLargestComponent() {
+		LandmarkIndex index = LandmarkIndex.build(engine, 4, LandmarkIndex.Selection.FARTHEST);
+		int[] landmarks = index.getLandmarks();
+		assertEquals(4, landmarks.length);
+		String first = frozen.getVertex(landmarks[0]);
+		String second = frozen.getVertex(landmarks[1]);
+		assertEquals(true, first.equals("a") && second.equals("e") || first.equals("e") && second.equals("a"));
+		assertEquals("x", frozen.getVertex(landmarks[2]));
+		assertEquals("c", frozen.getVertex(landmarks[3]));
+		assertEquals(9 * 4 + 16, index.sizeInBytes());
+		assertEquals(0, index.lowerBound(frozen.getId("y"), frozen.getId("z")));
+		assertEquals(-1, index.upperBound(frozen.getId("y"), frozen.getId("z")));
+	}
+
+	@Test
+	public final void boundsHoldForAllPairs() {
+		for (LandmarkIndex.Selection selection : LandmarkIndex.Selection.values()) {
+			LandmarkIndex index = LandmarkIndex.build(engine, 2, selection);
+			for (int u = 0; u < frozen.size(); u++) {
+				int[] dist = engine.search(u).dist.clone();
+				for (int v = 0; v < frozen.size(); v++) {
+					int lower = index.lowerBound(u, v);
+					int upper = index.upperBound(u, v);
+					if (dist[v] == BfsEngine.UNREACHED) {
+						assertEquals(-1, upper);
+						continue;
+					}
+					assertEquals(true, lower <= dist[v]);
+					assertEquals(true, upper == -1 || upper >= dist[v]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public final void onlyVerticesWithNeighborsAreLandmarks() {
+		LandmarkIndex index = LandmarkIndex.build(engine, 20, LandmarkIndex.Selection.DEGREE);
+		assertEquals(8, index.size());
+		assertEquals("c", frozen.getVertex(index.getLandmarks()[0]));
+		int a = frozen.getId("a");
+		int e = frozen.getId("e");
+		assertEquals(4, index.lowerBound(a, e));
+		assertEquals(4, index.upperBound(a, e));
+		assertEquals(LandmarkIndex.UNKNOWN, index.lowerBound(a, frozen.getId("y")));
+	}
+}
@@ -0,0 +1,231 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+
+/**
+ * The loopless paths between two vertices of a {@link CsrGraph} in increasing
+ * order of length, found one at a time (Yen's k shortest paths).
+ *
+ * After a path is produced, every vertex on it but the target is tried as a
+ * spur: the path is kept up to the spur, and a breadth-first search finds the
+ * shortest way on from the spur that avoids the vertices before it and the
+ * edges taken from it by the paths already produced with the same beginning.
+ * These deviations are the candidates, and the shortest one is the next path.
+ * A path can only be the next one if it deviates from some path already
+ * produced, so no path is missed, and the avoided edges keep any from being
+ * produced twice.
+ *
+ * Each path costs one search per vertex of the previous path, so only the
+ * paths that are asked for are searched. Paths of the same length come out in
+ * an order that depends only on the graph, as the searches visit neighbors in
+ * increasing ID order and ties between candidates are broken by their IDs.
+ * All the shortest paths come first; {@link ShortestPathDag} lists those alone
+ * faster.
+ */
+public class LooplessPaths implements Iterator<int[]> {
+
+	/**
+	 * Orders paths by length, then lexicographically by ID
+	 */
+	private static final Comparator<int[]> SHORTER_FIRST = (a, b) -> {
+		if (a.length != b.length)
+			return Integer.compare(a.length, b.length);
+		for (int i = 0; i < a.length; i++) {
+			if (a[i] != b[i])
+				return Integer.compare(a[i], b[i]);
+		}
+		return 0;
+	};
+
+	/**
+	 * Graph the paths are in
+	 */
+	private final CsrGraph<?> graph;
+
+	private final int target;
+
+	/**
+	 * Paths produced so far
+	 */
+	private final List<int[]> produced = new ArrayList<>();
+
+	/**
+	 * Deviations from the paths produced, not produced yet
+	 */
+	private final TreeSet<int[]> candidates = new TreeSet<>(SHORTER_FIRST);
+
+	/**
+	 * Search state: vertices are marked seen or avoided by stamping them with
+	 * the number of the current search
+	 */
+	private final int[] seen;
+	private final int[] avoided;
+	private final int[] parent;
+	private final int[] queue;
+	private int search;
+
+	/**
+	 * Next path, null before it is searched and when there are no more
+	 */
+	private int[] next;
+
+	/**
+	 * True once the deviations from the last produced path were searched
+	 */
+	private boolean searched;
+
+	/**
+	 * Constructor for the loopless paths between two vertices
+	 *
+	 * @param graph
+	 *            the graph
+	 * @param source
+	 *            the ID of the first vertex
+	 * @param target
+	 *            the ID of the second vertex
+	 */
+	public LooplessPaths(CsrGraph<?> graph, int source, int target) {
+		this.graph = graph;
+		this.target = target;
+		seen = new int[graph.size()];
+		avoided = new int[graph.size()];
+		parent = new int[graph.size()];
+		queue = new int[graph.size()];
+		next = spurPath(source, new int[0], 0);
+		searched = true;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (!searched) {
+			deviate(produced.get(produced.size() - 1));
+			next = candidates.pollFirst();
+			searched = true;
+		}
+		return next != null;
+	}
+
+	/**
+	 * @return int[] the IDs on the next shortest loopless path, from source to
+	 *         target
+	 * @throws NoSuchElementException
+	 *             if every path was produced
+	 */
+	@Override
+	public int[] next() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		int[] path = next;
+		produced.add(path);
+		next = null;
+		searched = false;
+		return path.clone();
+	}
+
+	/**
+	 * Private helper method to add the deviations from a path to the candidates
+	 *
+	 * @param path
+	 *            - the path produced last
+	 */
+	private void deviate(int[] path) {
+		int[] blocked = new int[produced.size()];
+		for (int spur = 0; spur < path.length - 1; spur++) {
+			// Edges from the spur taken by the paths produced with the same
+			// beginning
+			int hops = 0;
+			for (int[] other : produced) {
+				if (other.length > spur + 1 && sameStart(other, path, spur + 1))
+					blocked[hops++] = other[spur + 1];
+			}
+			int[] rest = spurPath(path[spur], Arrays.copyOf(blocked, hops), spur);
+			if (rest == null)
+				continue;
+			int[] candidate = Arrays.copyOf(path, spur + rest.length);
+			System.arraycopy(rest, 0, candidate, spur, rest.length);
+			candidates.add(candidate);
+		}
+	}
+
+	/**
+	 * Private helper method to find the shortest way from a spur to the target
+	 * avoiding the vertices before the spur on the last path produced
+	 *
+	 * @param spur
+	 *            - the ID of the vertex to search from
+	 * @param blocked
+	 *            - the IDs of the neighbors of spur not to go to directly
+	 * @param before
+	 *            - the number of vertices of the last path before spur, all
+	 *            avoided
+	 * @return int[] the IDs from spur to target, or null if there is no way
+	 */
+	private int[] spurPath(int spur, int[] blocked, int before) {
+		if (++search == Integer.MAX_VALUE) {
+			Arrays.fill(seen, 0);
+			Arrays.fill(avoided, 0);
+			search = 1;
+		}
+		if (before > 0) {
+			int[] path = produced.get(produced.size() - 1);
+			for (int i = 0; i < before; i++)
+				avoided[path[i]] = search;
+		}
+
+		int[] offsets = graph.offsets;
+		int[] targets = graph.targets;
+		int head = 0;
+		int tail = 0;
+		seen[spur] = search;
+		parent[spur] = -1;
+		queue[tail++] = spur;
+		while (head < tail) {
+			int v = queue[head++];
+			if (v == target) {
+				int length = 0;
+				for (int u = v; u >= 0; u = parent[u])
+					length++;
+				int[] path = new int[length];
+				for (int u = v; u >= 0; u = parent[u])
+					path[--length] = u;
+				return path;
+			}
+			for (int i = offsets[v], end = offsets[v + 1]; i < end; i++) {
+				int w = targets[i];
+				if (seen[w] == search || avoided[w] == search || (v == spur && contains(blocked, w)))
+					continue;
+				seen[w] = search;
+				parent[w] = v;
+				queue[tail++] = w;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Private helper method to check whether two paths start with the same
+	 * vertices
+	 */
+	private static boolean sameStart(int[] a, int[] b, int count) {
+		for (int i = 0; i < count; i++) {
+			if (a[i] != b[i])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Private helper method to check whether an array holds a value
+	 */
+	private static boolean contains(int[] values, int value) {
+		for (int v : values) {
+			if (v == value)
+				return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,82 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Junit test class to test class @see LooplessPaths
+ */
+public class LooplessPathsTest {
+
+	private CsrGraph<String> frozen;
+
+	@Before
+	public void setUp() throws Exception {
+		// Two squares sharing the edge c-d, with a tail from d to t and a chord
+		Graph<String> graph = new Graph<>();
+		for (String vertex : new String[] { "s", "a", "b", "c", "d", "e", "f", "t", "alone" })
+			graph.addVertex(vertex);
+		graph.addEdge("s", "a");
+		graph.addEdge("s", "b");
+		graph.addEdge("a", "c");
+		graph.addEdge("b", "d");
+		graph.addEdge("c", "d");
+		graph.addEdge("c", "e");
+		graph.addEdge("d", "f");
+		graph.addEdge("e", "f");
+		graph.addEdge("f", "t");
+		graph.addEdge("a", "b");
+		frozen = graph.freeze();
+	}
+
+	@Test
+	public final void everyLooplessPathByLength() {
+		int s = frozen.getId("s");
+		int t = frozen.getId("t");
+		Set<String> expected = new HashSet<>();
+		allPaths(s, t, new boolean[frozen.size()], "", expected);
+
+		Set<String> produced = new HashSet<>();
+		LooplessPaths paths = new LooplessPaths(frozen, s, t);
+		int previous = 0;
+		while (paths.hasNext()) {
+			int[] path = paths.next();
+			assertEquals(true, path.length >= previous);
+			previous = path.length;
+			assertEquals(s, path[0]);
+			assertEquals(t, path[path.length - 1]);
+			StringBuilder words = new StringBuilder();
+			for (int id : path)
+				words.append(frozen.getVertex(id));
+			assertEquals(true, produced.add(words.toString()));
+		}
+		assertEquals(expected, produced);
+		assertEquals(true, produced.contains("sbdft"));
+	}
+
+	@Test
+	public final void noPath() {
+		assertFalse(new LooplessPaths(frozen, frozen.getId("s"), frozen.getId("alone")).hasNext());
+	}
+
+	/**
+	 * Lists the loopless paths from v to t by depth-first search
+	 */
+	private void allPaths(int v, int t, boolean[] onPath, String prefix, Set<String> paths) {
+		String path = prefix + frozen.getVertex(v);
+		if (v == t) {
+			paths.add(path);
+			return;
+		}
+		onPath[v] = true;
+		frozen.forEachNeighbor(v, w -> {
+			if (!onPath[w])
+				allPaths(w, t, onPath, path, paths);
+		});
+		onPath[v] = false;
+	}
+}
@@ -0,0 +1,263 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link GraphMetrics} that keeps counters, phase times and query latency
+ * histograms in memory, plus a log of the most recent slow queries.
+ *
+ * Latencies are counted in buckets of powers of two nanoseconds, so a
+ * histogram has a fixed size and percentiles are accurate to within a factor
+ * of two. Counters are {@link LongAdder}s, so threads reporting at once do not
+ * contend.
+ */
+public class MetricsRecorder implements GraphMetrics {
+
+	/**
+	 * Number of slow queries kept in the log
+	 */
+	public static final int SLOW_QUERY_LOG_SIZE = 1000;
+
+	/**
+	 * Number of latency buckets; bucket b counts latencies below 2^b ns
+	 */
+	private static final int BUCKETS = 64;
+
+	private final LongAdder vertices = new LongAdder();
+	private final LongAdder edges = new LongAdder();
+	private final LongAdder isAdjacentCalls = new LongAdder();
+	private final LongAdder expandedVertices = new LongAdder();
+	private final LongAdder searches = new LongAdder();
+	private final AtomicLong precomputedBytes = new AtomicLong();
+
+	/**
+	 * Total time and number of runs of each phase
+	 */
+	private final EnumMap<Phase, LongAdder> phaseNanos = new EnumMap<>(Phase.class);
+	private final EnumMap<Phase, LongAdder> phaseCounts = new EnumMap<>(Phase.class);
+
+	/**
+	 * Latency histogram of each kind of query
+	 */
+	private final EnumMap<Query, AtomicLongArray> latencies = new EnumMap<>(Query.class);
+
+	/**
+	 * Queries at least this slow are logged
+	 */
+	private volatile long slowQueryNanos;
+
+	/**
+	 * Most recent slow queries, oldest first
+	 */
+	private final ArrayDeque<String> slowQueries = new ArrayDeque<>();
+
+	/**
+	 * Constructor for a recorder logging queries slower than a threshold
+	 *
+	 * @param slowQueryNanos
+	 *            the latency from which queries are logged, in nanoseconds;
+	 *            Long.MAX_VALUE to log none
+	 */
+	public MetricsRecorder(long slowQueryNanos) {
+		this.slowQueryNanos = slowQueryNanos;
+		for (Phase phase : Phase.values()) {
+			phaseNanos.put(phase, new LongAdder());
+			phaseCounts.put(phase, new LongAdder());
+		}
+		for (Query query : Query.values())
+			latencies.put(query, new AtomicLongArray(BUCKETS));
+	}
+
+	@Override
+	public void verticesChanged(long delta) {
+		vertices.add(delta);
+	}
+
+	@Override
+	public void edgesChanged(long delta) {
+		edges.add(delta);
+	}
+
+	@Override
+	public void isAdjacentCalled(long count) {
+		isAdjacentCalls.add(count);
+	}
+
+	@Override
+	public void phaseCompleted(Phase phase, long nanos) {
+		phaseNanos.get(phase).add(nanos);
+		phaseCounts.get(phase).increment();
+	}
+
+	@Override
+	public void queryCompleted(Query query, String word1, String word2, long nanos) {
+		latencies.get(query).incrementAndGet(bucket(nanos));
+		if (nanos >= slowQueryNanos) {
+			String entry = String.format("%s(%s, %s) took %.3f ms", query, word1, word2, nanos / 1e6);
+			synchronized (slowQueries) {
+				if (slowQueries.size() == SLOW_QUERY_LOG_SIZE)
+					slowQueries.poll();
+				slowQueries.add(entry);
+			}
+		}
+	}
+
+	@Override
+	public void verticesExpanded(long count) {
+		expandedVertices.add(count);
+		searches.increment();
+	}
+
+	@Override
+	public void precomputedSizeChanged(long bytes) {
+		precomputedBytes.set(bytes);
+	}
+
+	/**
+	 * @param slowQueryNanos
+	 *            the latency from which queries are logged, in nanoseconds
+	 */
+	public void setSlowQueryThreshold(long slowQueryNanos) {
+		this.slowQueryNanos = slowQueryNanos;
+	}
+
+	/**
+	 * @return long the latency from which queries are logged, in nanoseconds
+	 */
+	public long getSlowQueryThreshold() {
+		return slowQueryNanos;
+	}
+
+	/**
+	 * @return long the number of vertices added minus the number removed
+	 */
+	public long getVertexCount() {
+		return vertices.sum();
+	}
+
+	/**
+	 * @return long the number of edges added minus the number removed
+	 */
+	public long getEdgeCount() {
+		return edges.sum();
+	}
+
+	/**
+	 * @return long the number of adjacency tests
+	 */
+	public long getIsAdjacentCount() {
+		return isAdjacentCalls.sum();
+	}
+
+	/**
+	 * @return long the number of vertices expanded by the searches of queries
+	 */
+	public long getExpandedCount() {
+		return expandedVertices.sum();
+	}
+
+	/**
+	 * @return long the number of queries answered by searching, over which
+	 *         {@link #getExpandedCount()} is counted
+	 */
+	public long getSearchCount() {
+		return searches.sum();
+	}
+
+	/**
+	 * @return long the last reported size of the precomputed paths, in bytes
+	 */
+	public long getPrecomputedBytes() {
+		return precomputedBytes.get();
+	}
+
+	/**
+	 * @param phase
+	 *            a phase
+	 * @return long the total time spent in phase, in nanoseconds
+	 */
+	public long getPhaseNanos(Phase phase) {
+		return phaseNanos.get(phase).sum();
+	}
+
+	/**
+	 * @param phase
+	 *            a phase
+	 * @return long the number of times phase was run
+	 */
+	public long getPhaseCount(Phase phase) {
+		return phaseCounts.get(phase).sum();
+	}
+
+	/**
+	 * @param query
+	 *            a kind of query
+	 * @return long[] the number of queries of that kind with a latency below 2^b
+	 *         ns and at least 2^(b-1) ns, for each bucket b
+	 */
+	public long[] getLatencyHistogram(Query query) {
+		AtomicLongArray histogram = latencies.get(query);
+		long[] counts = new long[BUCKETS];
+		for (int b = 0; b < BUCKETS; b++)
+			counts[b] = histogram.get(b);
+		return counts;
+	}
+
+	/**
+	 * @param query
+	 *            a kind of query
+	 * @return long the number of queries of that kind
+	 */
+	public long getQueryCount(Query query) {
+		long count = 0;
+		for (long c : getLatencyHistogram(query))
+			count += c;
+		return count;
+	}
+
+	/**
+	 * Estimates a latency percentile from the histogram of a kind of query
+	 *
+	 * @param query
+	 *            a kind of query
+	 * @param percentile
+	 *            the percentile, between 0 and 100
+	 * @return long the upper bound of the bucket holding the percentile, in
+	 *         nanoseconds, or 0 if there were no such queries
+	 */
+	public long getLatencyPercentile(Query query, double percentile) {
+		long[] histogram = getLatencyHistogram(query);
+		long count = 0;
+		for (long c : histogram)
+			count += c;
+		long rank = (long) Math.ceil(count * percentile / 100);
+		long seen = 0;
+		for (int b = 0; b < BUCKETS; b++) {
+			seen += histogram[b];
+			if (seen > 0 && seen >= rank)
+				return b == BUCKETS - 1 ? Long.MAX_VALUE : 1L << b;
+		}
+		return 0;
+	}
+
+	/**
+	 * @return List<String> the most recent queries at least as slow as the
+	 *         threshold, oldest first
+	 */
+	public List<String> getSlowQueries() {
+		synchronized (slowQueries) {
+			return new ArrayList<>(slowQueries);
+		}
+	}
+
+	/**
+	 * Private helper method to find the histogram bucket of a latency
+	 */
+	private static int bucket(long nanos) {
+		return nanos <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+	}
+}
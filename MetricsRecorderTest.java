@@ -0,0 +1,63 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Junit test class to test class @see MetricsRecorder
+ */
+public class MetricsRecorderTest {
+
+	private MetricsRecorder recorder;
+
+	@Before
+	public void setUp() throws Exception {
+		recorder = new MetricsRecorder(1000);
+	}
+
+	@Test
+	public final void countersAddUpChanges() {
+		recorder.verticesChanged(3);
+		recorder.verticesChanged(-1);
+		recorder.edgesChanged(2);
+		recorder.isAdjacentCalled(5);
+		recorder.isAdjacentCalled(1);
+		assertEquals(2, recorder.getVertexCount());
+		assertEquals(2, recorder.getEdgeCount());
+		assertEquals(6, recorder.getIsAdjacentCount());
+	}
+
+	@Test
+	public final void phasesAreTimedAndCounted() {
+		recorder.phaseCompleted(GraphMetrics.Phase.FREEZE, 10);
+		recorder.phaseCompleted(GraphMetrics.Phase.FREEZE, 15);
+		assertEquals(25, recorder.getPhaseNanos(GraphMetrics.Phase.FREEZE));
+		assertEquals(2, recorder.getPhaseCount(GraphMetrics.Phase.FREEZE));
+		assertEquals(0, recorder.getPhaseCount(GraphMetrics.Phase.LOAD));
+	}
+
+	@Test
+	public final void latenciesFillPowerOfTwoBuckets() {
+		for (int i = 0; i < 9; i++)
+			recorder.queryCompleted(GraphMetrics.Query.PATH, "CAT", "HAT", 100);
+		recorder.queryCompleted(GraphMetrics.Query.PATH, "CAT", "DOG", 5000);
+		assertEquals(10, recorder.getQueryCount(GraphMetrics.Query.PATH));
+		assertEquals(0, recorder.getQueryCount(GraphMetrics.Query.DISTANCE));
+		assertEquals(9, recorder.getLatencyHistogram(GraphMetrics.Query.PATH)[7]);
+		assertEquals(128, recorder.getLatencyPercentile(GraphMetrics.Query.PATH, 50));
+		assertEquals(8192, recorder.getLatencyPercentile(GraphMetrics.Query.PATH, 99));
+		assertEquals(0, recorder.getLatencyPercentile(GraphMetrics.Query.DISTANCE, 50));
+	}
+
+	@Test
+	public final void onlySlowQueriesAreLogged() {
+		recorder.queryCompleted(GraphMetrics.Query.PATH, "CAT", "HAT", 999);
+		recorder.queryCompleted(GraphMetrics.Query.DISTANCE, "CAT", "DOG", 1000);
+		assertEquals(1, recorder.getSlowQueries().size());
+		assertEquals(true, recorder.getSlowQueries().get(0).startsWith("DISTANCE(CAT, DOG)"));
+
+		recorder.setSlowQueryThreshold(Long.MAX_VALUE);
+		recorder.queryCompleted(GraphMetrics.Query.PATH, "CAT", "DOG", 1 << 20);
+		assertEquals(1, recorder.getSlowQueries().size());
+	}
+}
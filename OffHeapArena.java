@@ -0,0 +1,247 @@
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memory outside the Java heap, handed out as direct {@link ByteBuffer} slices
+ * of a few large slabs and released all at once by {@link #close()}.
+ *
+ * The garbage collector only sees the slab and slice handles, not the bytes,
+ * so large precomputed tables neither grow the heap nor lengthen full
+ * collections. The slabs are freed as soon as the arena is closed rather than
+ * whenever their buffers are collected, where the runtime allows it (Java 8
+ * and later HotSpot runtimes); elsewhere they are freed by the collector once
+ * unreachable.
+ *
+ * Slices must not be used once their memory is released. Readers that may
+ * run while the arena is closed register with {@link #acquire()} and
+ * {@link #release()}: closing stops allocation and new readers at once, but
+ * the memory is only released when the last reader is done. Allocation is
+ * thread safe.
+ */
+public class OffHeapArena implements AutoCloseable {
+
+	/**
+	 * Default size of a slab, in bytes
+	 */
+	public static final int DEFAULT_SLAB_SIZE = 64 << 20;
+
+	/**
+	 * Frees a direct buffer now, or null if the runtime does not allow it
+	 */
+	private static final Releaser RELEASER = releaser();
+
+	/**
+	 * Frees the memory of a direct buffer
+	 */
+	private interface Releaser {
+		void release(ByteBuffer buffer) throws Exception;
+	}
+
+	/**
+	 * Size of the slabs, except for allocations larger than a slab, which get a
+	 * slab of their own
+	 */
+	private final int slabSize;
+
+	/**
+	 * Every slab allocated so far
+	 */
+	private final List<ByteBuffer> slabs = new ArrayList<>();
+
+	/**
+	 * Slab the next slices are cut from, positioned at its free space
+	 */
+	private ByteBuffer current;
+
+	/**
+	 * Bytes handed out and bytes reserved in slabs
+	 */
+	private long allocated;
+	private long reserved;
+
+	private boolean closed;
+
+	/**
+	 * Number of readers registered by {@link #acquire()} and not released yet
+	 */
+	private int readers;
+
+	/**
+	 * Constructor for an arena with slabs of {@link #DEFAULT_SLAB_SIZE}
+	 */
+	public OffHeapArena() {
+		this(DEFAULT_SLAB_SIZE);
+	}
+
+	/**
+	 * Constructor for an arena with slabs of a given size
+	 *
+	 * @param slabSize
+	 *            the size of a slab, in bytes, at least 1
+	 * @throws IllegalArgumentException
+	 *             if slabSize is less than 1
+	 */
+	public OffHeapArena(int slabSize) {
+		if (slabSize < 1)
+			throw new IllegalArgumentException("slabSize must be at least 1");
+		this.slabSize = slabSize;
+	}
+
+	/**
+	 * Allocates zeroed memory
+	 *
+	 * @param bytes
+	 *            the number of bytes
+	 * @return ByteBuffer a direct buffer of the given capacity, positioned at 0
+	 * @throws IllegalStateException
+	 *             if the arena is closed
+	 */
+	public synchronized ByteBuffer allocate(int bytes) {
+		if (closed)
+			throw new IllegalStateException("arena is closed");
+		if (current == null || current.remaining() < bytes) {
+			ByteBuffer slab = ByteBuffer.allocateDirect(Math.max(bytes, slabSize));
+			slabs.add(slab);
+			reserved += slab.capacity();
+			if (bytes >= slabSize) {
+				allocated += bytes;
+				return slab;
+			}
+			current = slab;
+		}
+		ByteBuffer slice = current.slice();
+		slice.limit(bytes);
+		current.position(current.position() + bytes);
+		allocated += bytes;
+		return slice.slice();
+	}
+
+	/**
+	 * Allocates memory holding a copy of an array
+	 *
+	 * @param bytes
+	 *            the bytes to copy
+	 * @return ByteBuffer a direct buffer holding bytes, positioned at 0
+	 * @throws IllegalStateException
+	 *             if the arena is closed
+	 */
+	public ByteBuffer copyOf(byte[] bytes) {
+		ByteBuffer buffer = allocate(bytes.length);
+		buffer.put(bytes);
+		buffer.clear();
+		return buffer;
+	}
+
+	/**
+	 * @return long the number of bytes handed out
+	 */
+	public synchronized long allocatedBytes() {
+		return allocated;
+	}
+
+	/**
+	 * @return long the number of bytes of all slabs, including the unused end
+	 *         of each
+	 */
+	public synchronized long reservedBytes() {
+		return reserved;
+	}
+
+	/**
+	 * @return boolean true if the arena was closed
+	 */
+	public synchronized boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Registers a reader of the memory of this arena, which is not released
+	 * until the reader calls {@link #release()}
+	 *
+	 * @return boolean true if registered; false if the arena is closed, in which
+	 *         case its memory must not be read and release must not be called
+	 */
+	public synchronized boolean acquire() {
+		if (closed)
+			return false;
+		readers++;
+		return true;
+	}
+
+	/**
+	 * Ends a read registered by {@link #acquire()}, releasing the memory if the
+	 * arena was closed and this was its last reader
+	 *
+	 * @throws IllegalStateException
+	 *             if there is no registered reader
+	 */
+	public synchronized void release() {
+		if (readers == 0)
+			throw new IllegalStateException("no reader to release");
+		if (--readers == 0 && closed)
+			free();
+	}
+
+	/**
+	 * Closes the arena: no memory is allocated and no reader registered
+	 * afterwards. All the memory is released now if no reader is registered,
+	 * otherwise when the last one calls {@link #release()}. Does nothing if the
+	 * arena is already closed.
+	 */
+	@Override
+	public synchronized void close() {
+		if (closed)
+			return;
+		closed = true;
+		if (readers == 0)
+			free();
+	}
+
+	/**
+	 * Private helper method to release the slabs
+	 */
+	private void free() {
+		for (ByteBuffer slab : slabs) {
+			if (RELEASER != null) {
+				try {
+					RELEASER.release(slab);
+				} catch (Exception e) {
+					// Left to the garbage collector
+				}
+			}
+		}
+		slabs.clear();
+		current = null;
+		allocated = 0;
+		reserved = 0;
+	}
+
+	/**
+	 * Private helper method to find how the runtime frees a direct buffer: with
+	 * Unsafe.invokeCleaner from Java 9, or the buffer's cleaner in Java 8
+	 *
+	 * @return Releaser the way to free a buffer, or null if there is none
+	 */
+	private static Releaser releaser() {
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			Object unsafe = theUnsafe.get(null);
+			return buffer -> invokeCleaner.invoke(unsafe, buffer);
+		} catch (Exception | LinkageError e) {
+			// Not Java 9 or later
+		}
+		try {
+			Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+			Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+			return buffer -> clean.invoke(cleaner.invoke(buffer));
+		} catch (Exception | LinkageError e) {
+			return null;
+		}
+	}
+}
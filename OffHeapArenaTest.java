@@ -0,0 +1,73 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+/**
+ * Junit test class to test class @see OffHeapArena
+ */
+public class OffHeapArenaTest {
+
+	@Test
+	public final void slicesAreSeparateAndZeroed() {
+		try (OffHeapArena arena = new OffHeapArena(100)) {
+			ByteBuffer first = arena.allocate(40);
+			ByteBuffer second = arena.allocate(40);
+			assertEquals(true, first.isDirect());
+			assertEquals(40, first.capacity());
+			for (int i = 0; i < 40; i++)
+				first.put(i, (byte) 7);
+			for (int i = 0; i < 40; i++)
+				assertEquals(0, second.get(i));
+			assertEquals(80, arena.allocatedBytes());
+			assertEquals(100, arena.reservedBytes());
+
+			// Does not fit in the first slab, or in any slab
+			arena.allocate(40);
+			assertEquals(250, arena.allocate(250).capacity());
+			assertEquals(450, arena.reservedBytes());
+			ByteBuffer copy = arena.copyOf(new byte[] { 1, 2, 3 });
+			assertEquals(0, copy.position());
+			assertEquals(3, copy.get(2));
+		}
+	}
+
+	@Test
+	public final void closedArenaAllocatesNothing() {
+		OffHeapArena arena = new OffHeapArena();
+		arena.allocate(1000);
+		arena.close();
+		assertEquals(true, arena.isClosed());
+		assertEquals(0, arena.reservedBytes());
+		arena.close();
+		try {
+			arena.allocate(1);
+			fail("allocated from a closed arena");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public final void memoryIsKeptUntilTheLastReaderIsDone() {
+		OffHeapArena arena = new OffHeapArena(100);
+		ByteBuffer slice = arena.copyOf(new byte[] { 5 });
+		assertEquals(true, arena.acquire());
+		assertEquals(true, arena.acquire());
+		arena.close();
+		assertEquals(false, arena.acquire());
+		assertEquals(100, arena.reservedBytes());
+		arena.release();
+		assertEquals(5, slice.get(0));
+		arena.release();
+		assertEquals(0, arena.reservedBytes());
+		try {
+			arena.release();
+			fail("released a reader that was not registered");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+}
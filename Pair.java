@@ -0,0 +1,63 @@
+/**
+ * Two words of a shortest path query, as passed to
+ * {@link GraphProcessor#getShortestPaths(java.util.Collection)} and
+ * {@link GraphProcessor#getShortestDistances(java.util.Collection)}.
+ */
+public final class Pair {
+
+	/**
+	 * First word, where the path starts
+	 */
+	private final String word1;
+
+	/**
+	 * Second word, where the path ends
+	 */
+	private final String word2;
+
+	/**
+	 * Constructor for a query from word1 to word2
+	 *
+	 * @param word1
+	 *            first word
+	 * @param word2
+	 *            second word
+	 */
+	public Pair(String word1, String word2) {
+		this.word1 = word1;
+		this.word2 = word2;
+	}
+
+	/**
+	 * @return String the first word
+	 */
+	public String getWord1() {
+		return word1;
+	}
+
+	/**
+	 * @return String the second word
+	 */
+	public String getWord2() {
+		return word2;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof Pair))
+			return false;
+		Pair other = (Pair) o;
+		return (word1 == null ? other.word1 == null : word1.equals(other.word1))
+				&& (word2 == null ? other.word2 == null : word2.equals(other.word2));
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (word1 == null ? 0 : word1.hashCode()) + (word2 == null ? 0 : word2.hashCode());
+	}
+
+	@Override
+	public String toString() {
+		return "(" + word1 + ", " + word2 + ")";
+	}
+}
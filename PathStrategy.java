@@ -0,0 +1,40 @@
+/**
+ * How {@link GraphProcessor} answers shortest path and distance queries
+ */
+public enum PathStrategy {
+
+	/**
+	 * Paths between all pairs of words are computed by
+	 * {@link GraphProcessor#shortestPathPrecomputation()}, and queries only look
+	 * them up
+	 */
+	PRECOMPUTED,
+
+	/**
+	 * The breadth-first search tree of a source word is computed the first time
+	 * the word is queried and kept in a bounded least-recently-used cache
+	 */
+	LAZY,
+
+	/**
+	 * Nothing is precomputed or cached; each query runs a breadth-first search
+	 * from both words at once
+	 */
+	BIDIRECTIONAL,
+
+	/**
+	 * Nothing is precomputed or cached; each query runs an A* search from the
+	 * first word, expanding first the words closest to the second word in edit
+	 * distance (see {@link AStarSearch})
+	 */
+	ASTAR,
+
+	/**
+	 * Every word is given a label of hub words and its distances to them by
+	 * {@link GraphProcessor#shortestPathPrecomputation()}, and queries merge
+	 * the labels of their two words (see {@link PrunedLandmarkLabeling}). Exact
+	 * like {@link #PRECOMPUTED}, with memory growing with the number of words
+	 * times the label size rather than with the square of the number of words
+	 */
+	PLL
+}
@@ -0,0 +1,181 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Binary file holding a {@link RoutingTable} and the graph of words it was
+ * computed on.
+ *
+ * Layout (big-endian, version 3):
+ *
+ * - magic number {@link #MAGIC} and format {@link #VERSION} (ints)
+ *
+ * - file offset of the first row (long), always a multiple of 8
+ *
+ * - CRC-32 of everything after the header (long)
+ *
+ * - the graph, as written by {@link CsrGraph#write(CsrGraph, DataOutputStream)}
+ *
+ * - padding, then the rows of the table one after another in source ID order.
+ * Each row is as long as the component of its source needs, and unused IDs and
+ * vertices alone in their component have empty rows, so the row offsets follow
+ * from the components of the graph and are not stored.
+ *
+ * {@link #map(Path)} reads the graph into the heap, but maps the rows with
+ * {@link FileChannel#map}, so queries run directly off the page cache and the
+ * rows are shared by every process that maps the same file. The file is checked
+ * against its checksum first, in one sequential pass over the mapped file, as
+ * a query walking a corrupt row could fail or never reach its target.
+ */
+public class PrecomputationFile {
+
+	/**
+	 * First four bytes of the file, "DGRT"
+	 */
+	public static final int MAGIC = 0x44475254;
+
+	/**
+	 * Version of the layout written by this class
+	 */
+	public static final int VERSION = 3;
+
+	/**
+	 * Length of the header, in bytes
+	 */
+	private static final int HEADER_LENGTH = 24;
+
+	/**
+	 * Largest region mapped at once; mappings are limited to 2 GB each
+	 */
+	private static final long MAX_MAPPING = Integer.MAX_VALUE;
+
+	/**
+	 * Writes a routing table computed on a graph of words
+	 *
+	 * @param table
+	 *            the table to write
+	 * @param file
+	 *            the file to create or replace
+	 * @throws IOException
+	 *             exception resulting from writing the file
+	 */
+	@SuppressWarnings("unchecked")
+	public static void write(RoutingTable table, Path file) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		CsrGraph.write((CsrGraph<String>) table.getGraph(), out);
+		out.flush();
+		long rowsOffset = align(HEADER_LENGTH + bytes.size());
+
+		CRC32 crc = new CRC32();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			channel.position(HEADER_LENGTH);
+			writeFully(channel, ByteBuffer.wrap(bytes.toByteArray()), crc);
+			writeFully(channel, ByteBuffer.allocate((int) (rowsOffset - HEADER_LENGTH - bytes.size())), crc);
+			for (int source = 0; source < table.getGraph().size(); source++)
+				writeFully(channel, table.getRow(source), crc);
+
+			// The header is written last, once the checksum is known
+			ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+			header.putInt(MAGIC).putInt(VERSION).putLong(rowsOffset).putLong(crc.getValue()).flip();
+			channel.position(0);
+			writeFully(channel, header, null);
+		}
+	}
+
+	/**
+	 * Maps a file written by {@link #write(RoutingTable, Path)}. The rows stay
+	 * valid after the file is closed, for as long as the table is reachable.
+	 *
+	 * @param file
+	 *            the file to map
+	 * @return RoutingTable the table, with its rows backed by the file
+	 * @throws IOException
+	 *             exception resulting from reading the file, or if it is not a
+	 *             supported precomputation file
+	 */
+	public static RoutingTable map(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(HEADER_LENGTH, channel.size()));
+			if (header.remaining() < HEADER_LENGTH || header.getInt() != MAGIC)
+				throw new IOException(file + " is not a precomputation file");
+			int version = header.getInt();
+			if (version != VERSION)
+				throw new IOException("unsupported precomputation file version " + version);
+			long rowsOffset = header.getLong();
+			long checksum = header.getLong();
+			if (rowsOffset < HEADER_LENGTH || rowsOffset > channel.size())
+				throw new IOException("corrupt precomputation file header");
+			if (checksum(channel, HEADER_LENGTH, channel.size()) != checksum)
+				throw new IOException("precomputation file checksum mismatch");
+
+			ByteBuffer graphSection = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_LENGTH,
+					rowsOffset - HEADER_LENGTH);
+			CsrGraph<String> graph = CsrGraph.read(graphSection);
+
+			RoutingTable.Layout layout = RoutingTable.Layout.of(graph);
+			long rowsLength = 0;
+			for (int source = 0; source < graph.size(); source++)
+				rowsLength += layout.rowBytes(source);
+			if (channel.size() != rowsOffset + rowsLength)
+				throw new IOException("precomputation file rows do not match its graph");
+
+			// Map as many whole rows at once as fit in one mapping
+			ByteBuffer[] rows = new ByteBuffer[graph.size()];
+			long offset = rowsOffset;
+			for (int first = 0; first < rows.length;) {
+				long length = 0;
+				int last = first;
+				while (last < rows.length && length + layout.rowBytes(last) <= MAX_MAPPING)
+					length += layout.rowBytes(last++);
+				ByteBuffer mapping = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+				for (int source = first, position = 0; source < last; source++) {
+					int rowBytes = layout.rowBytes(source);
+					if (rowBytes > 0) {
+						mapping.limit(position + rowBytes).position(position);
+						rows[source] = mapping.slice();
+						position += rowBytes;
+					}
+				}
+				offset += length;
+				first = last;
+			}
+			return new RoutingTable(graph, layout, rows);
+		}
+	}
+
+	/**
+	 * Private helper method to round a file offset up to a multiple of 8
+	 */
+	private static long align(long offset) {
+		return (offset + 7) & ~7L;
+	}
+
+	/**
+	 * Private helper method to compute the CRC-32 of a region of a file, mapping
+	 * it a piece at a time
+	 */
+	private static long checksum(FileChannel channel, long from, long to) throws IOException {
+		CRC32 crc = new CRC32();
+		for (long offset = from; offset < to; offset += MAX_MAPPING)
+			crc.update(channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(MAX_MAPPING, to - offset)));
+		return crc.getValue();
+	}
+
+	/**
+	 * Private helper method to write all remaining bytes of a buffer, adding them
+	 * to a checksum unless it is null
+	 */
+	private static void writeFully(FileChannel channel, ByteBuffer buffer, CRC32 crc) throws IOException {
+		if (crc != null)
+			crc.update(buffer.duplicate());
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+	}
+}
@@ -0,0 +1,302 @@
+import java.util.Arrays;
+
+/**
+ * Exact shortest distances and paths between any two vertices of a
+ * {@link CsrGraph} from 2-hop labels (pruned landmark labeling, Akiba, Iwata
+ * and Yoshida, 2013).
+ *
+ * Every vertex gets a label: a list of hubs with its distance to each. The
+ * labels cover every pair, meaning some shortest path between any two
+ * connected vertices goes through a hub both their labels hold, so their
+ * distance is the smallest sum of distances over the common hubs, found by a
+ * merge of the two labels sorted by hub.
+ *
+ * Vertices are made hubs in decreasing order of degree. A breadth-first
+ * search from each hub adds it to the label of every vertex it reaches, but
+ * stops at vertices whose distance to the hub the labels built so far already
+ * give, so later searches stay small. With high degree words first, most
+ * shortest paths are covered by a few hubs and labels hold tens of entries
+ * instead of a row per vertex as in a {@link RoutingTable}.
+ *
+ * Each label entry also keeps the next vertex towards its hub. That vertex was
+ * expanded by the same search, so its own label holds the hub, and a shortest
+ * path is walked from both ends to the best common hub.
+ *
+ * The labels of all vertices are stored in three flat arrays indexed by the
+ * offset of each vertex, hubs by rank so that labels are sorted.
+ */
+public class PrunedLandmarkLabeling {
+
+	/**
+	 * Largest distance a label can hold
+	 */
+	private static final int MAX_DISTANCE = Character.MAX_VALUE;
+
+	/**
+	 * Graph the labels were computed on
+	 */
+	private final CsrGraph<?> graph;
+
+	/**
+	 * Start of the label of each vertex in hubs, distances and parents, with
+	 * offsets[graph.size()] equal to their length
+	 */
+	private final int[] offsets;
+
+	/**
+	 * Rank of the hub of each label entry, increasing within a label
+	 */
+	private final int[] hubs;
+
+	/**
+	 * Distance to the hub of each label entry
+	 */
+	private final char[] distances;
+
+	/**
+	 * Next vertex on a shortest path to the hub of each label entry, -1 for the
+	 * hub itself
+	 */
+	private final int[] parents;
+
+	/**
+	 * Private constructor, labels are built by {@link #build(CsrGraph)}
+	 */
+	private PrunedLandmarkLabeling(CsrGraph<?> graph, int[] offsets, int[] hubs, char[] distances, int[] parents) {
+		this.graph = graph;
+		this.offsets = offsets;
+		this.hubs = hubs;
+		this.distances = distances;
+		this.parents = parents;
+	}
+
+	/**
+	 * Computes the labels of every vertex of a graph
+	 *
+	 * @param graph
+	 *            the graph
+	 * @return PrunedLandmarkLabeling the labels
+	 * @throws IllegalStateException
+	 *             if a shortest path is longer than 65535 edges
+	 */
+	public static PrunedLandmarkLabeling build(CsrGraph<?> graph) {
+		int n = graph.size();
+		int[] order = byDegree(graph);
+
+		// Labels while they grow: hub rank and distance packed in one long, and
+		// the parent of each entry
+		long[][] entries = new long[n][];
+		int[][] entryParents = new int[n][];
+		int[] sizes = new int[n];
+
+		// Distance from the current hub to the hubs of its label, by rank
+		int[] hubDistance = new int[n];
+		Arrays.fill(hubDistance, Integer.MAX_VALUE);
+		int[] dist = new int[n];
+		Arrays.fill(dist, -1);
+		int[] parent = new int[n];
+		int[] queue = new int[n];
+		int[] offsets = graph.offsets;
+		int[] targets = graph.targets;
+
+		for (int rank = 0; rank < n; rank++) {
+			int hub = order[rank];
+			for (int i = 0; i < sizes[hub]; i++)
+				hubDistance[(int) (entries[hub][i] >>> 16)] = (int) entries[hub][i] & MAX_DISTANCE;
+
+			int head = 0;
+			int tail = 0;
+			dist[hub] = 0;
+			parent[hub] = -1;
+			queue[tail++] = hub;
+			while (head < tail) {
+				int v = queue[head++];
+				int d = dist[v];
+				if (covered(entries[v], sizes[v], hubDistance, d))
+					continue;
+				if (d > MAX_DISTANCE)
+					throw new IllegalStateException("path longer than " + MAX_DISTANCE + " edges");
+				if (entries[v] == null) {
+					entries[v] = new long[4];
+					entryParents[v] = new int[4];
+				} else if (sizes[v] == entries[v].length) {
+					entries[v] = Arrays.copyOf(entries[v], sizes[v] * 2);
+					entryParents[v] = Arrays.copyOf(entryParents[v], sizes[v] * 2);
+				}
+				entries[v][sizes[v]] = (long) rank << 16 | d;
+				entryParents[v][sizes[v]++] = parent[v];
+				for (int i = offsets[v], end = offsets[v + 1]; i < end; i++) {
+					int w = targets[i];
+					if (dist[w] < 0) {
+						dist[w] = d + 1;
+						parent[w] = v;
+						queue[tail++] = w;
+					}
+				}
+			}
+
+			for (int i = 0; i < tail; i++)
+				dist[queue[i]] = -1;
+			for (int i = 0; i < sizes[hub]; i++)
+				hubDistance[(int) (entries[hub][i] >>> 16)] = Integer.MAX_VALUE;
+		}
+
+		int[] labelOffsets = new int[n + 1];
+		for (int v = 0; v < n; v++)
+			labelOffsets[v + 1] = labelOffsets[v] + sizes[v];
+		int[] hubs = new int[labelOffsets[n]];
+		char[] distances = new char[labelOffsets[n]];
+		int[] parents = new int[labelOffsets[n]];
+		for (int v = 0; v < n; v++) {
+			for (int i = 0, k = labelOffsets[v]; i < sizes[v]; i++, k++) {
+				hubs[k] = (int) (entries[v][i] >>> 16);
+				distances[k] = (char) entries[v][i];
+				parents[k] = entryParents[v][i];
+			}
+			entries[v] = null;
+			entryParents[v] = null;
+		}
+		return new PrunedLandmarkLabeling(graph, labelOffsets, hubs, distances, parents);
+	}
+
+	/**
+	 * @return CsrGraph<?> the graph the labels were computed on
+	 */
+	public CsrGraph<?> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Finds the shortest distance between two vertices
+	 *
+	 * @param source
+	 *            the ID of the first vertex
+	 * @param target
+	 *            the ID of the second vertex
+	 * @return int the number of edges on a shortest path, or -1 if target is not
+	 *         reachable from source
+	 */
+	public int distance(int source, int target) {
+		int i = offsets[source];
+		int j = offsets[target];
+		int iEnd = offsets[source + 1];
+		int jEnd = offsets[target + 1];
+		int best = Integer.MAX_VALUE;
+		while (i < iEnd && j < jEnd) {
+			if (hubs[i] < hubs[j]) {
+				i++;
+			} else if (hubs[i] > hubs[j]) {
+				j++;
+			} else {
+				best = Math.min(best, distances[i++] + distances[j++]);
+			}
+		}
+		return best == Integer.MAX_VALUE ? -1 : best;
+	}
+
+	/**
+	 * Finds a shortest path between two vertices
+	 *
+	 * @param source
+	 *            the ID of the first vertex
+	 * @param target
+	 *            the ID of the second vertex
+	 * @return int[] the IDs from source to target (both included), or null if
+	 *         target is not reachable from source
+	 */
+	public int[] path(int source, int target) {
+		int i = offsets[source];
+		int j = offsets[target];
+		int iEnd = offsets[source + 1];
+		int jEnd = offsets[target + 1];
+		int best = Integer.MAX_VALUE;
+		int hub = -1;
+		int toHub = 0;
+		while (i < iEnd && j < jEnd) {
+			if (hubs[i] < hubs[j]) {
+				i++;
+			} else if (hubs[i] > hubs[j]) {
+				j++;
+			} else {
+				if (distances[i] + distances[j] < best) {
+					best = distances[i] + distances[j];
+					hub = hubs[i];
+					toHub = distances[i];
+				}
+				i++;
+				j++;
+			}
+		}
+		if (hub < 0)
+			return null;
+
+		// Walk from both ends to the hub, which is at index toHub
+		int[] path = new int[best + 1];
+		for (int k = 0, v = source; k <= toHub; k++, v = parents[entry(v, hub)])
+			path[k] = v;
+		for (int k = best, v = target; k > toHub; k--, v = parents[entry(v, hub)])
+			path[k] = v;
+		return path;
+	}
+
+	/**
+	 * @return long the number of entries in all labels
+	 */
+	public long labelEntries() {
+		return hubs.length;
+	}
+
+	/**
+	 * @return long the size of the labels, in bytes
+	 */
+	public long sizeInBytes() {
+		return hubs.length * 10L + offsets.length * 4L;
+	}
+
+	/**
+	 * Private helper method to find the entry of a hub in the label of a vertex
+	 * that holds it
+	 */
+	private int entry(int v, int hub) {
+		return Arrays.binarySearch(hubs, offsets[v], offsets[v + 1], hub);
+	}
+
+	/**
+	 * Private helper method to check whether the labels built so far give a
+	 * distance of at most d between the current hub and a vertex
+	 *
+	 * @param label
+	 *            - the packed label of the vertex, or null if it is empty
+	 * @param size
+	 *            - the number of entries of the label
+	 * @param hubDistance
+	 *            - the distance from the current hub to each hub of its label,
+	 *            Integer.MAX_VALUE for other hubs
+	 * @param d
+	 *            - the distance found by the search of the current hub
+	 * @return boolean true if the vertex need not be labeled or expanded
+	 */
+	private static boolean covered(long[] label, int size, int[] hubDistance, int d) {
+		for (int i = 0; i < size; i++) {
+			int through = hubDistance[(int) (label[i] >>> 16)];
+			if (through != Integer.MAX_VALUE && through + ((int) label[i] & MAX_DISTANCE) <= d)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Private helper method to order the vertices by decreasing degree, then
+	 * increasing ID
+	 */
+	private static int[] byDegree(CsrGraph<?> graph) {
+		long[] keys = new long[graph.size()];
+		for (int v = 0; v < keys.length; v++)
+			keys[v] = ((long) -graph.degree(v) << 32) | v;
+		Arrays.sort(keys);
+		int[] order = new int[keys.length];
+		for (int i = 0; i < order.length; i++)
+			order[i] = (int) keys[i];
+		return order;
+	}
+}
@@ -0,0 +1,70 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Junit test class to test class @see PrunedLandmarkLabeling
+ */
+public class PrunedLandmarkLabelingTest {
+
+	private CsrGraph<String> frozen;
+	private PrunedLandmarkLabeling labels;
+
+	@Before
+	public void setUp() throws Exception {
+		Graph<String> graph = new Graph<>();
+		List<String> words = new ArrayList<>();
+		WordProcessor.getWordStream("word_list.txt").distinct().forEach(words::add);
+		for (String word : words)
+			graph.addVertex(word);
+		for (String word1 : words) {
+			for (String word2 : words) {
+				if (!word1.equals(word2) && WordProcessor.isAdjacent(word1, word2))
+					graph.addEdge(word1, word2);
+			}
+		}
+		frozen = graph.freeze();
+		labels = PrunedLandmarkLabeling.build(frozen);
+	}
+
+	@Test
+	public final void distancesMatchBreadthFirstSearch() {
+		BfsEngine engine = new BfsEngine(frozen);
+		for (int u = 0; u < frozen.size(); u++) {
+			int[] dist = engine.search(u).dist;
+			for (int v = 0; v < frozen.size(); v++)
+				assertEquals(frozen.getVertex(u) + " " + frozen.getVertex(v), dist[v], labels.distance(u, v));
+		}
+	}
+
+	@Test
+	public final void pathsAreShortestPathsOfTheGraph() {
+		for (int u = 0; u < frozen.size(); u++) {
+			for (int v = 0; v < frozen.size(); v++) {
+				int[] path = labels.path(u, v);
+				int distance = labels.distance(u, v);
+				if (distance < 0) {
+					assertNull(path);
+					continue;
+				}
+				assertEquals(distance + 1, path.length);
+				assertEquals(u, path[0]);
+				assertEquals(v, path[distance]);
+				for (int k = 1; k < path.length; k++)
+					assertEquals(true, frozen.isAdjacent(path[k - 1], path[k]));
+			}
+		}
+	}
+
+	@Test
+	public final void labelsAreSmallerThanAllPairs() {
+		long pairs = (long) frozen.size() * frozen.size();
+		assertEquals(true, labels.labelEntries() >= frozen.size());
+		assertEquals(true, labels.labelEntries() * 10 < pairs);
+	}
+}
@@ -0,0 +1,841 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Compact all-pairs shortest path table of a {@link CsrGraph}.
+ *
+ * For every source vertex s the table has one row with a 2-bit entry per
+ * vertex t: the distance from s to t modulo 3, or {@link #UNREACHABLE}. The
+ * neighbors of t are at distance d - 1, d or d + 1 from s, and those three
+ * distances have different residues, so the next hop from t back towards s is
+ * any neighbor whose entry is one less (mod 3) than the entry of t. Walking
+ * those hops from t until s is reached recovers both the shortest path and
+ * its length.
+ *
+ * Vertices in different components are never connected, so the rows are
+ * partitioned by connected component (see {@link Layout}): a row only has
+ * entries for the vertices of the source's own component, and vertices with
+ * no neighbors have no row at all. A row takes a quarter of a byte per vertex
+ * of its component, so all pairs of a 50,000 word component fit in about
+ * 625 MB, however many other words the dictionary has.
+ *
+ * When vertices and edges are added to the graph, {@link #update(RoutingTable,
+ * BfsEngine)} derives the new table from the old one and only searches again
+ * from the sources whose distances can shrink. When vertices are removed, it
+ * only searches again from the sources whose distances can grow.
+ *
+ * Rows are byte arrays on the heap, slices of a memory mapped file (see
+ * {@link PrecomputationFile}), or slices of an {@link OffHeapArena} when the
+ * table is built with one, so that the heap only holds a handle per row.
+ */
+public class RoutingTable {
+
+	/**
+	 * Entry of a vertex that is not reachable from the source of the row
+	 */
+	public static final int UNREACHABLE = 3;
+
+	/**
+	 * Graph the table was computed on
+	 */
+	private final CsrGraph<?> graph;
+
+	/**
+	 * Component and position of each vertex
+	 */
+	private final Layout layout;
+
+	/**
+	 * Row of each source vertex, null for unused IDs and vertices alone in their
+	 * component
+	 */
+	private final ByteBuffer[] rows;
+
+	/**
+	 * Number of sources searched to compute this table
+	 */
+	private int searchedSources;
+
+	/**
+	 * Arena holding the rows, or null if they are on the heap or memory mapped
+	 */
+	private OffHeapArena arena;
+
+	/**
+	 * Connected components of a graph, numbered in the order of their smallest
+	 * vertex ID. Each vertex has an index within its component, following the
+	 * order of the IDs, which is the position of its entry in the rows of that
+	 * component.
+	 */
+	static final class Layout {
+		/**
+		 * Component of each ID, -1 for unused IDs
+		 */
+		final int[] component;
+
+		/**
+		 * Index of each ID within its component
+		 */
+		final int[] index;
+
+		/**
+		 * Vertices of each component in ID order, one component after another
+		 */
+		final int[] members;
+
+		/**
+		 * Position in members of the first vertex of each component, followed by
+		 * the number of members
+		 */
+		final int[] start;
+
+		private Layout(int[] component, int[] index, int[] members, int[] start) {
+			this.component = component;
+			this.index = index;
+			this.members = members;
+			this.start = start;
+		}
+
+		/**
+		 * Finds the components of a graph with one breadth-first search each
+		 *
+		 * @param graph
+		 *            the graph
+		 * @return Layout the components of graph
+		 */
+		static Layout of(CsrGraph<?> graph) {
+			int n = graph.size();
+			int[] component = new int[n];
+			Arrays.fill(component, -1);
+			int[] queue = new int[n];
+			int count = 0;
+			for (int v = 0; v < n; v++) {
+				if (component[v] >= 0 || graph.getVertex(v) == null)
+					continue;
+				int head = 0;
+				int tail = 0;
+				component[v] = count;
+				queue[tail++] = v;
+				while (head < tail) {
+					int x = queue[head++];
+					for (int i = graph.offsets[x], end = graph.offsets[x + 1]; i < end; i++) {
+						if (component[graph.targets[i]] < 0) {
+							component[graph.targets[i]] = count;
+							queue[tail++] = graph.targets[i];
+						}
+					}
+				}
+				count++;
+			}
+
+			int[] start = new int[count + 1];
+			for (int v = 0; v < n; v++) {
+				if (component[v] >= 0)
+					start[component[v] + 1]++;
+			}
+			for (int c = 0; c < count; c++)
+				start[c + 1] += start[c];
+			int[] index = new int[n];
+			int[] members = new int[start[count]];
+			int[] filled = new int[count];
+			for (int v = 0; v < n; v++) {
+				if (component[v] >= 0) {
+					index[v] = filled[component[v]]++;
+					members[start[component[v]] + index[v]] = v;
+				}
+			}
+			return new Layout(component, index, members, start);
+		}
+
+		/**
+		 * @param v
+		 *            an ID
+		 * @return int the number of vertices in the component of v, 0 for unused
+		 *         IDs
+		 */
+		int componentSize(int v) {
+			int c = component[v];
+			return c < 0 ? 0 : start[c + 1] - start[c];
+		}
+
+		/**
+		 * @param source
+		 *            an ID
+		 * @return int the number of bytes in the row of source, 0 if it has no row
+		 */
+		int rowBytes(int source) {
+			int size = componentSize(source);
+			return size < 2 ? 0 : RoutingTable.rowBytes(size);
+		}
+	}
+
+	/**
+	 * Constructor for a table over already computed rows
+	 *
+	 * @param graph
+	 *            the graph the rows were computed on
+	 * @param layout
+	 *            the components of graph
+	 * @param rows
+	 *            the row of each source vertex
+	 */
+	RoutingTable(CsrGraph<?> graph, Layout layout, ByteBuffer[] rows) {
+		this.graph = graph;
+		this.layout = layout;
+		this.rows = rows;
+	}
+
+	/**
+	 * Computes the table of a graph, running one breadth-first search per source
+	 * in parallel. Vertices alone in their component are not searched.
+	 *
+	 * @param engine
+	 *            the BFS engine of the graph
+	 * @return RoutingTable the table of the engine's graph
+	 */
+	public static RoutingTable build(BfsEngine engine) {
+		return build(engine, null);
+	}
+
+	/**
+	 * Computes the table of a graph like {@link #build(BfsEngine)}, keeping the
+	 * rows outside the heap
+	 *
+	 * @param engine
+	 *            the BFS engine of the graph
+	 * @param arena
+	 *            the arena holding the rows, which must stay open as long as the
+	 *            table is used; null to keep them on the heap
+	 * @return RoutingTable the table of the engine's graph
+	 */
+	public static RoutingTable build(BfsEngine engine, OffHeapArena arena) {
+		CsrGraph<?> graph = engine.getGraph();
+		Layout layout = Layout.of(graph);
+		ByteBuffer[] rows = new ByteBuffer[graph.size()];
+		AtomicInteger searched = new AtomicInteger();
+		IntStream.range(0, graph.size()).parallel().forEach(source -> {
+			if (layout.rowBytes(source) > 0) {
+				searched.incrementAndGet();
+				rows[source] = store(searchRow(engine, layout, source), arena);
+			}
+		});
+		RoutingTable table = new RoutingTable(graph, layout, rows);
+		table.searchedSources = searched.get();
+		table.arena = arena;
+		return table;
+	}
+
+	/**
+	 * Computes the table of a graph that was changed only by adding vertices and
+	 * edges incident to them, reusing the table of the graph before the change.
+	 *
+	 * The new graph must have been frozen with
+	 * {@link CsrGraph#of(GraphADT, CsrGraph)} from the old one, so the added
+	 * vertices are the IDs past the old ones. Otherwise, or when the graph grew
+	 * by more than a quarter, the table is rebuilt from scratch. A graph that was
+	 * changed only by removing vertices is handled by
+	 * {@link #prune(RoutingTable, BfsEngine, boolean[])}.
+	 *
+	 * A path whose distance shrinks must enter the added vertices from some old
+	 * vertex a and leave them to some old vertex b. So the distances from an old
+	 * source s shrink exactly when, for such a pair, the old distance from s to b
+	 * is longer than the old distance from s to a plus the length of the
+	 * shortest a-b detour through added vertices. The vertex after s on a
+	 * shortest path to a then shrinks too, so those sources are found by a
+	 * search from a that stops at the sources that do not shrink, reading the
+	 * old distances to b from the old table. Only those sources are searched
+	 * again; every other row is copied and extended with the distances to the
+	 * added vertices that joined its component, read from the rows of the added
+	 * vertices, which come from one search each.
+	 *
+	 * The cost is one search of the new graph per added vertex and per shrinking
+	 * source, plus the part of the old graph whose distances shrink. Past a
+	 * quarter of new vertices, rebuilding is cheaper than searching again from
+	 * most sources.
+	 *
+	 * @param previous
+	 *            the table of the graph before the change
+	 * @param engine
+	 *            the BFS engine of the changed graph
+	 * @return RoutingTable the table of the engine's graph
+	 */
+	public static RoutingTable update(RoutingTable previous, BfsEngine engine) {
+		return update(previous, engine, null);
+	}
+
+	/**
+	 * Computes the table of a changed graph like
+	 * {@link #update(RoutingTable, BfsEngine)}, keeping the rows outside the
+	 * heap. The previous table is only read, so its rows may be in another
+	 * arena, to be closed once the new table replaces it.
+	 *
+	 * @param previous
+	 *            the table of the graph before the change
+	 * @param engine
+	 *            the BFS engine of the changed graph
+	 * @param arena
+	 *            the arena holding the new rows, which must stay open as long as
+	 *            the table is used; null to keep them on the heap
+	 * @return RoutingTable the table of the engine's graph
+	 */
+	public static RoutingTable update(RoutingTable previous, BfsEngine engine, OffHeapArena arena) {
+		CsrGraph<?> graph = engine.getGraph();
+		CsrGraph<?> old = previous.graph;
+		int oldSize = old.size();
+		int added = graph.size() - oldSize;
+		if (!extendsGraph(graph, old)) {
+			boolean[] removed = removedVertices(graph, old);
+			return removed == null ? build(engine, arena) : prune(previous, engine, removed, arena);
+		}
+		if ((long) added * 4 > old.vertexCount())
+			return build(engine, arena);
+
+		// Old vertices with an added neighbor, and the sources whose distances
+		// shrink through the detours between them
+		boolean[] shrinking = new boolean[oldSize];
+		Region region = new Region(oldSize);
+		for (int a : attachments(graph, oldSize)) {
+			for (Map.Entry<Integer, Integer> detour : detours(graph, oldSize, a).entrySet())
+				markShrinking(previous, a, detour.getKey(), detour.getValue(), shrinking, region);
+		}
+
+		// Rows of the added vertices first, which also hold the distances from
+		// them to the old vertices of their component
+		Layout layout = Layout.of(graph);
+		ByteBuffer[] rows = new ByteBuffer[graph.size()];
+		AtomicInteger searched = new AtomicInteger(added);
+		IntStream.range(oldSize, graph.size()).parallel().forEach(source -> {
+			if (layout.rowBytes(source) > 0)
+				rows[source] = store(searchRow(engine, layout, source), arena);
+		});
+		IntStream.range(0, oldSize).parallel().forEach(source -> {
+			if (layout.rowBytes(source) == 0)
+				return;
+			if (shrinking[source]) {
+				searched.incrementAndGet();
+				rows[source] = store(searchRow(engine, layout, source), arena);
+				return;
+			}
+
+			// The component of source only gained vertices; if it gained none, the
+			// old row is still valid as it is
+			byte[] row = new byte[layout.rowBytes(source)];
+			if (layout.componentSize(source) == previous.layout.componentSize(source)) {
+				previous.getRow(source).get(row);
+			} else {
+				int c = layout.component[source];
+				int index = layout.index[source];
+				for (int k = layout.start[c], end = layout.start[c + 1]; k < end; k++) {
+					int t = layout.members[k];
+					set(row, k - layout.start[c], t < oldSize ? previous.entry(source, t) : get(rows[t], index));
+				}
+			}
+			rows[source] = store(row, arena);
+		});
+		RoutingTable table = new RoutingTable(graph, layout, rows);
+		table.searchedSources = searched.get();
+		table.arena = arena;
+		return table;
+	}
+
+	/**
+	 * Computes the table of a graph that was changed only by removing vertices,
+	 * reusing the table of the graph before the change.
+	 *
+	 * Removing vertices can only make distances longer. Take the closest vertex
+	 * x to a source s whose distance grows: every vertex one edge closer to s
+	 * than x either keeps its distance or was removed, and x can only lose its
+	 * distance if all of them were removed. So the distances from s grow exactly
+	 * when some remaining neighbor x of a removed vertex r, one edge further from
+	 * s than r, has no remaining neighbor one edge closer to s. The old row
+	 * answers that check without a search, so only those sources are searched
+	 * again; every other row is copied without the removed vertices.
+	 *
+	 * @param previous
+	 *            the table of the graph before the change
+	 * @param engine
+	 *            the BFS engine of the changed graph
+	 * @param removed
+	 *            whether each ID was removed by the change
+	 * @param arena
+	 *            the arena holding the new rows, or null
+	 * @return RoutingTable the table of the engine's graph
+	 */
+	private static RoutingTable prune(RoutingTable previous, BfsEngine engine, boolean[] removed,
+			OffHeapArena arena) {
+		CsrGraph<?> graph = engine.getGraph();
+		CsrGraph<?> old = previous.graph;
+		int[] removedIds = IntStream.range(0, removed.length).filter(v -> removed[v]).toArray();
+		Layout layout = Layout.of(graph);
+		ByteBuffer[] rows = new ByteBuffer[graph.size()];
+		AtomicInteger searched = new AtomicInteger();
+		IntStream.range(0, graph.size()).parallel().forEach(source -> {
+			if (layout.rowBytes(source) == 0)
+				return;
+			if (grows(previous, source, removedIds, removed)) {
+				searched.incrementAndGet();
+				rows[source] = store(searchRow(engine, layout, source), arena);
+				return;
+			}
+
+			// No distance grew, so the component of source only lost the removed
+			// vertices; if it lost none, the old row is still valid as it is
+			byte[] row = new byte[layout.rowBytes(source)];
+			if (layout.componentSize(source) == previous.layout.componentSize(source)) {
+				previous.getRow(source).get(row);
+			} else {
+				int c = layout.component[source];
+				for (int k = layout.start[c], end = layout.start[c + 1]; k < end; k++)
+					set(row, k - layout.start[c], previous.entry(source, layout.members[k]));
+			}
+			rows[source] = store(row, arena);
+		});
+		RoutingTable table = new RoutingTable(graph, layout, rows);
+		table.searchedSources = searched.get();
+		table.arena = arena;
+		return table;
+	}
+
+	/**
+	 * Private helper method to keep a computed row on the heap or in an arena
+	 *
+	 * @param row
+	 *            - the row
+	 * @param arena
+	 *            - the arena to copy it to, or null to keep it on the heap
+	 * @return ByteBuffer the stored row
+	 */
+	private static ByteBuffer store(byte[] row, OffHeapArena arena) {
+		return arena == null ? ByteBuffer.wrap(row) : arena.copyOf(row);
+	}
+
+	/**
+	 * Private helper method to find the vertices a graph removed from an older
+	 * graph
+	 *
+	 * @return boolean[] whether each ID was removed, or null if the graph changed
+	 *         in any other way
+	 */
+	private static boolean[] removedVertices(CsrGraph<?> graph, CsrGraph<?> old) {
+		if (graph.size() != old.size())
+			return null;
+		boolean[] removed = new boolean[old.size()];
+		for (int v = 0; v < old.size(); v++) {
+			Object vertex = old.getVertex(v);
+			if (vertex != null && graph.getVertex(v) == null)
+				removed[v] = true;
+			else if (vertex == null ? graph.getVertex(v) != null : !vertex.equals(graph.getVertex(v)))
+				return null;
+		}
+		// The remaining neighbors of each remaining vertex must be its old ones
+		for (int v = 0; v < old.size(); v++) {
+			if (graph.getVertex(v) == null)
+				continue;
+			int i = graph.offsets[v];
+			int end = graph.offsets[v + 1];
+			for (int j = old.offsets[v]; j < old.offsets[v + 1]; j++) {
+				int w = old.targets[j];
+				if (removed[w])
+					continue;
+				if (i == end || graph.targets[i++] != w)
+					return null;
+			}
+			if (i != end)
+				return null;
+		}
+		return removed;
+	}
+
+	/**
+	 * Private helper method to check whether removing vertices makes any distance
+	 * from a remaining source longer, using only its old row
+	 */
+	private static boolean grows(RoutingTable previous, int source, int[] removedIds, boolean[] removed) {
+		CsrGraph<?> old = previous.graph;
+		int[] offsets = old.offsets;
+		int[] targets = old.targets;
+		for (int r : removedIds) {
+			int entry = previous.entry(source, r);
+			if (entry == UNREACHABLE)
+				continue;
+			int further = (entry + 1) % 3;
+			for (int i = offsets[r], end = offsets[r + 1]; i < end; i++) {
+				int x = targets[i];
+				if (removed[x] || previous.entry(source, x) != further)
+					continue;
+				boolean kept = false;
+				for (int j = offsets[x], stop = offsets[x + 1]; j < stop && !kept; j++)
+					kept = !removed[targets[j]] && previous.entry(source, targets[j]) == entry;
+				if (!kept)
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Private helper method to check that a graph only adds vertices after the
+	 * IDs of an older graph, and edges incident to them
+	 */
+	private static boolean extendsGraph(CsrGraph<?> graph, CsrGraph<?> old) {
+		if (graph.size() < old.size())
+			return false;
+		for (int v = 0; v < old.size(); v++) {
+			Object vertex = old.getVertex(v);
+			if (vertex == null ? graph.getVertex(v) != null : !vertex.equals(graph.getVertex(v)))
+				return false;
+			// Neighbors are sorted, so the old ones come first
+			int degree = old.degree(v);
+			if (graph.degree(v) < degree || (graph.degree(v) > degree
+					&& graph.targets[graph.offsets[v] + degree] < old.size()))
+				return false;
+			for (int i = 0; i < degree; i++) {
+				if (graph.targets[graph.offsets[v] + i] != old.targets[old.offsets[v] + i])
+					return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Private helper method to find the old vertices with an added neighbor
+	 */
+	private static Set<Integer> attachments(CsrGraph<?> graph, int oldSize) {
+		Set<Integer> attachments = new TreeSet<>();
+		for (int x = oldSize; x < graph.size(); x++) {
+			for (int i = graph.offsets[x]; i < graph.offsets[x + 1]; i++) {
+				if (graph.targets[i] < oldSize)
+					attachments.add(graph.targets[i]);
+			}
+		}
+		return attachments;
+	}
+
+	/**
+	 * Private helper method to find the shortest paths from an old vertex to the
+	 * other old vertices whose inner vertices are all added ones
+	 *
+	 * @return Map<Integer, Integer> the length of the shortest such path to each
+	 *         old vertex it reaches
+	 */
+	private static Map<Integer, Integer> detours(CsrGraph<?> graph, int oldSize, int a) {
+		Map<Integer, Integer> detours = new HashMap<>();
+		Map<Integer, Integer> dist = new HashMap<>();
+		ArrayDeque<Integer> queue = new ArrayDeque<>();
+		for (int i = graph.offsets[a]; i < graph.offsets[a + 1]; i++) {
+			if (graph.targets[i] >= oldSize) {
+				dist.put(graph.targets[i], 1);
+				queue.add(graph.targets[i]);
+			}
+		}
+		while (!queue.isEmpty()) {
+			int x = queue.poll();
+			int next = dist.get(x) + 1;
+			for (int i = graph.offsets[x]; i < graph.offsets[x + 1]; i++) {
+				int y = graph.targets[i];
+				if (y < oldSize) {
+					if (y != a)
+						detours.putIfAbsent(y, next);
+				} else if (!dist.containsKey(y)) {
+					dist.put(y, next);
+					queue.add(y);
+				}
+			}
+		}
+		return detours;
+	}
+
+	/**
+	 * Search state of {@link #markShrinking}, reused for every detour: vertices
+	 * are marked seen by stamping them with the number of the current search
+	 */
+	private static final class Region {
+		final int[] stamp;
+		final int[] toA;
+		final int[] toB;
+		final int[] queue;
+		int search;
+
+		Region(int size) {
+			stamp = new int[size];
+			toA = new int[size];
+			toB = new int[size];
+			queue = new int[size];
+		}
+	}
+
+	/**
+	 * Private helper method to mark the old sources whose distance to b shrinks
+	 * through a detour from a, by a search from a through those sources alone
+	 *
+	 * @param previous
+	 *            - the table of the graph before the change
+	 * @param a
+	 *            - the old vertex the detour starts from
+	 * @param b
+	 *            - the old vertex the detour ends at
+	 * @param length
+	 *            - the number of edges of the detour
+	 * @param shrinking
+	 *            - set for each source whose distances shrink
+	 * @param region
+	 *            - the search state
+	 */
+	private static void markShrinking(RoutingTable previous, int a, int b, int length, boolean[] shrinking,
+			Region region) {
+		final int far = Integer.MAX_VALUE;
+		int[] offsets = previous.graph.offsets;
+		int[] targets = previous.graph.targets;
+		int aToB = previous.distance(a, b);
+		if (aToB >= 0 && aToB <= length)
+			return;
+		int search = ++region.search;
+		int head = 0;
+		int tail = 0;
+		region.stamp[a] = search;
+		region.toA[a] = 0;
+		region.toB[a] = aToB < 0 ? far : aToB;
+		region.queue[tail++] = a;
+		while (head < tail) {
+			int s = region.queue[head++];
+			shrinking[s] = true;
+			for (int i = offsets[s], end = offsets[s + 1]; i < end; i++) {
+				int w = targets[i];
+				if (region.stamp[w] == search)
+					continue;
+				region.stamp[w] = search;
+				int toA = region.toA[s] + 1;
+				int toB = far;
+				int entry = previous.entry(b, w);
+				if (region.toB[s] != far && entry != UNREACHABLE) {
+					// Neighbors differ by at most one edge, which the residue tells
+					toB = region.toB[s] - 1;
+					while (toB < 0 || toB % 3 != entry)
+						toB++;
+				}
+				if (toB != far && toB <= toA + length)
+					continue;
+				region.toA[w] = toA;
+				region.toB[w] = toB;
+				region.queue[tail++] = w;
+			}
+		}
+	}
+
+	/**
+	 * Private helper method to compute the row of a source with a new search
+	 */
+	private static byte[] searchRow(BfsEngine engine, Layout layout, int source) {
+		byte[] row = new byte[layout.rowBytes(source)];
+		BfsEngine.Workspace ws = engine.search(source);
+		for (int i = 0; i < ws.reached; i++) {
+			int v = ws.queue[i];
+			set(row, layout.index[v], ws.dist[v] % 3);
+		}
+		return row;
+	}
+
+	/**
+	 * Private helper method to set the entry at an index of a row
+	 */
+	private static void set(byte[] row, int index, int entry) {
+		int shift = (index & 3) << 1;
+		row[index >>> 2] = (byte) ((row[index >>> 2] & ~(3 << shift)) | (entry << shift));
+	}
+
+	/**
+	 * Private helper method to get the entry at an index of a stored row
+	 */
+	private static int get(ByteBuffer row, int index) {
+		return (row.get(index >>> 2) >>> ((index & 3) << 1)) & 3;
+	}
+
+	/**
+	 * @param vertexCount
+	 *            the number of vertices in a component
+	 * @return int the number of bytes in a row with an entry for each of them
+	 */
+	static int rowBytes(int vertexCount) {
+		return (vertexCount + 3) >>> 2;
+	}
+
+	/**
+	 * @return CsrGraph<?> the graph the table was computed on
+	 */
+	public CsrGraph<?> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @param source
+	 *            the ID of the source vertex
+	 * @return ByteBuffer a read-only view of the row of source, positioned at its
+	 *         first byte; empty if source has no row
+	 */
+	public ByteBuffer getRow(int source) {
+		if (rows[source] == null)
+			return ByteBuffer.allocate(0).asReadOnlyBuffer();
+		ByteBuffer row = rows[source].asReadOnlyBuffer();
+		row.clear();
+		return row;
+	}
+
+	/**
+	 * @param source
+	 *            the ID of the source vertex
+	 * @param target
+	 *            the ID of the target vertex
+	 * @return int the distance from source to target modulo 3, or UNREACHABLE
+	 */
+	public int entry(int source, int target) {
+		int c = layout.component[source];
+		if (c < 0 || c != layout.component[target])
+			return UNREACHABLE;
+		if (source == target)
+			return 0;
+		int i = layout.index[target];
+		return (rows[source].get(i >>> 2) >>> ((i & 3) << 1)) & 3;
+	}
+
+	/**
+	 * @param source
+	 *            the ID of a vertex
+	 * @param target
+	 *            the ID of another vertex
+	 * @return boolean true if both are vertices of the same component
+	 */
+	public boolean connected(int source, int target) {
+		return layout.component[source] >= 0 && layout.component[source] == layout.component[target];
+	}
+
+	/**
+	 * @param vertex
+	 *            the ID of a vertex
+	 * @return int the number of vertices in its component, 0 for unused IDs
+	 */
+	public int componentSize(int vertex) {
+		return layout.componentSize(vertex);
+	}
+
+	/**
+	 * @return int the number of connected components of the graph
+	 */
+	public int componentCount() {
+		return layout.start.length - 1;
+	}
+
+	/**
+	 * Gets the next hop from a vertex back towards the source
+	 *
+	 * @param source
+	 *            the ID of the source vertex
+	 * @param vertex
+	 *            the ID of a vertex reachable from source, other than source
+	 * @return int the ID of the first neighbor of vertex one edge closer to source
+	 */
+	private int nextHop(int source, int vertex) {
+		int previous = (entry(source, vertex) + 2) % 3;
+		int[] offsets = graph.offsets;
+		int[] targets = graph.targets;
+		for (int i = offsets[vertex], end = offsets[vertex + 1]; i < end; i++) {
+			if (entry(source, targets[i]) == previous)
+				return targets[i];
+		}
+		throw new IllegalStateException("routing table does not match its graph");
+	}
+
+	/**
+	 * @param source
+	 *            the ID of the source vertex
+	 * @param target
+	 *            the ID of the target vertex
+	 * @return int the number of edges on a shortest path from source to target, or
+	 *         -1 if target is not reachable
+	 */
+	public int distance(int source, int target) {
+		if (entry(source, target) == UNREACHABLE)
+			return -1;
+		int distance = 0;
+		for (int v = target; v != source; v = nextHop(source, v))
+			distance++;
+		return distance;
+	}
+
+	/**
+	 * @param source
+	 *            the ID of the source vertex
+	 * @param target
+	 *            the ID of the target vertex
+	 * @return int[] the IDs on a shortest path from source to target (both
+	 *         included), or null if target is not reachable
+	 */
+	public int[] path(int source, int target) {
+		int distance = distance(source, target);
+		if (distance < 0)
+			return null;
+		int[] path = new int[distance + 1];
+		for (int k = distance, v = target; k >= 0; k--) {
+			path[k] = v;
+			if (k > 0)
+				v = nextHop(source, v);
+		}
+		return path;
+	}
+
+	/**
+	 * @return int the number of sources that were searched to compute this table,
+	 *         as opposed to copied from an earlier table
+	 */
+	public int getSearchedSourceCount() {
+		return searchedSources;
+	}
+
+	/**
+	 * @return boolean true if the rows are outside the heap, in an arena or a
+	 *         mapped file; false if they are on the heap or there are none
+	 */
+	public boolean isDirect() {
+		for (ByteBuffer row : rows) {
+			if (row != null)
+				return row.isDirect();
+		}
+		return false;
+	}
+
+	/**
+	 * Registers a reader of the rows, so that the arena holding them is not
+	 * released until {@link #release()} is called. Tables on the heap or memory
+	 * mapped can always be read.
+	 *
+	 * @return boolean true if the rows can be read; false if their arena was
+	 *         closed, in which case release must not be called
+	 */
+	public boolean acquire() {
+		return arena == null || arena.acquire();
+	}
+
+	/**
+	 * Ends a read of the rows started by a successful {@link #acquire()}
+	 */
+	public void release() {
+		if (arena != null)
+			arena.release();
+	}
+
+	/**
+	 * @return long the size of all rows, in bytes
+	 */
+	public long sizeInBytes() {
+		long size = 0;
+		for (int source = 0; source < rows.length; source++)
+			size += layout.rowBytes(source);
+		return size;
+	}
+}
@@ -0,0 +1,115 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Junit test class to test class @see RoutingTable
+ */
+public class RoutingTableTest {
+
+	private Graph<String> words;
+	private Graph<Integer> random;
+
+	@Before
+	public void setUp() throws Exception {
+		// The words of word_list.txt joined by comparing every pair
+		words = new Graph<>();
+		List<String> list = new ArrayList<>();
+		WordProcessor.getWordStream("word_list.txt").distinct().forEach(list::add);
+		for (int i = 0; i < list.size(); i++) {
+			words.addVertex(list.get(i));
+			for (int j = 0; j < i; j++) {
+				if (WordProcessor.isAdjacent(list.get(i), list.get(j)))
+					words.addEdge(list.get(i), list.get(j));
+			}
+		}
+
+		// A sparse random graph with many components and cycles
+		random = new Graph<>();
+		Random rnd = new Random(11);
+		for (int v = 0; v < 300; v++)
+			random.addVertex(v);
+		for (int e = 0; e < 330; e++)
+			random.addEdge(rnd.nextInt(300), rnd.nextInt(300));
+	}
+
+	@Test
+	public final void distancesMatchPlainBfsOnWords() {
+		RoutingTable table = RoutingTable.build(new BfsEngine(words.freeze()));
+		assertTableMatches(words, table, 2);
+	}
+
+	@Test
+	public final void distancesMatchPlainBfsOnRandomGraph() {
+		RoutingTable table = RoutingTable.build(new BfsEngine(random.freeze()));
+		assertTableMatches(random, table, 1);
+	}
+
+	@Test
+	public final void offHeapDistancesMatchPlainBfs() {
+		try (OffHeapArena arena = new OffHeapArena(1 << 10)) {
+			RoutingTable table = RoutingTable.build(new BfsEngine(words.freeze()), arena);
+			assertEquals(true, table.isDirect());
+			assertTableMatches(words, table, 5);
+		}
+	}
+
+	/**
+	 * Compares the table with a plain breadth-first search over the graph from
+	 * every step-th vertex to every vertex: the 2-bit entry, the distance walked
+	 * back from it and the path, which must be a walk of neighbors that long
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E> void assertTableMatches(Graph<E> graph, RoutingTable table, int step) {
+		CsrGraph<E> frozen = (CsrGraph<E>) table.getGraph();
+		for (int source = 0; source < frozen.size(); source += step) {
+			Map<E, Integer> expected = distances(graph, frozen.getVertex(source));
+			for (int target = 0; target < frozen.size(); target++) {
+				Integer distance = expected.get(frozen.getVertex(target));
+				assertEquals(distance != null, table.connected(source, target) || source == target);
+				assertEquals(distance == null ? RoutingTable.UNREACHABLE : distance % 3,
+						table.entry(source, target));
+				assertEquals(distance == null ? -1 : (int) distance, table.distance(source, target));
+				int[] path = table.path(source, target);
+				if (distance == null) {
+					assertEquals(null, path);
+					continue;
+				}
+				assertEquals(distance + 1, path.length);
+				assertEquals(source, path[0]);
+				assertEquals(target, path[distance]);
+				for (int k = 1; k < path.length; k++)
+					assertEquals(true, frozen.isAdjacent(path[k - 1], path[k]));
+			}
+		}
+	}
+
+	/**
+	 * Distances from a source by a breadth-first search over the graph's own
+	 * neighbor lists
+	 */
+	private static <E> Map<E, Integer> distances(Graph<E> graph, E source) {
+		Map<E, Integer> dist = new HashMap<>();
+		ArrayDeque<E> queue = new ArrayDeque<>();
+		dist.put(source, 0);
+		queue.add(source);
+		while (!queue.isEmpty()) {
+			E v = queue.poll();
+			for (E w : graph.getNeighbors(v)) {
+				if (!dist.containsKey(w)) {
+					dist.put(w, dist.get(v) + 1);
+					queue.add(w);
+				}
+			}
+		}
+		return dist;
+	}
+}
@@ -0,0 +1,261 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * All the shortest paths between two vertices of a {@link CsrGraph}, as the
+ * directed acyclic graph of the edges they use.
+ *
+ * A breadth-first search from the source gives the layer of every vertex, its
+ * distance from the source. An edge from v to w is on a shortest path to the
+ * target when w is one layer further than v and the target can be reached
+ * from w the same way, so the graph is built by walking the layers back from
+ * the target, keeping only the vertices and edges that lead to it. Its size
+ * is at most the part of the graph closer to the source than the target is,
+ * while the number of paths it holds can grow exponentially with the
+ * distance.
+ *
+ * The paths are therefore counted without being listed, and iterated one at a
+ * time: each path is the previous one with its last branch advanced, like an
+ * odometer, so asking for the first paths costs only their length each. Paths
+ * are produced in lexicographic order of the IDs of their vertices.
+ */
+public class ShortestPathDag implements Iterable<int[]> {
+
+	/**
+	 * Graph the paths are in
+	 */
+	private final CsrGraph<?> graph;
+
+	/**
+	 * Number of edges of every shortest path, -1 if there is none
+	 */
+	private final int length;
+
+	/**
+	 * ID of each vertex of the DAG, by layer then increasing ID; the source is
+	 * first
+	 */
+	private final int[] vertices;
+
+	/**
+	 * Start of the successors of each vertex of the DAG in successors, with
+	 * offsets[vertices.length] equal to its length
+	 */
+	private final int[] offsets;
+
+	/**
+	 * Indexes in vertices of the successors of each vertex, in increasing ID
+	 * order
+	 */
+	private final int[] successors;
+
+	/**
+	 * Private constructor, DAGs are built by {@link #build}
+	 */
+	private ShortestPathDag(CsrGraph<?> graph, int length, int[] vertices, int[] offsets, int[] successors) {
+		this.graph = graph;
+		this.length = length;
+		this.vertices = vertices;
+		this.offsets = offsets;
+		this.successors = successors;
+	}
+
+	/**
+	 * Builds the DAG of the shortest paths between two vertices
+	 *
+	 * @param engine
+	 *            a BFS engine over the graph
+	 * @param source
+	 *            the ID of the first vertex
+	 * @param target
+	 *            the ID of the second vertex
+	 * @return ShortestPathDag the shortest paths from source to target, none if
+	 *         target is not reachable from source
+	 */
+	public static ShortestPathDag build(BfsEngine engine, int source, int target) {
+		CsrGraph<?> graph = engine.getGraph();
+		int[] dist = engine.search(source).dist;
+		int length = dist[target];
+		if (length == BfsEngine.UNREACHED)
+			return new ShortestPathDag(graph, -1, new int[0], new int[1], new int[0]);
+
+		// Walk the layers back from the target, marking the vertices that lead to
+		// it with their index in the layer order, counted from the target
+		int[] offsetsOf = graph.offsets;
+		int[] targets = graph.targets;
+		int[] index = new int[graph.size()];
+		Arrays.fill(index, -1);
+		int[] back = new int[16];
+		int size = 0;
+		back[size++] = target;
+		index[target] = 0;
+		int[] layerEnd = new int[length + 1];
+		layerEnd[length] = 1;
+		for (int layer = length, start = 0; layer > 0; layer--) {
+			int end = size;
+			for (int i = start; i < end; i++) {
+				int v = back[i];
+				for (int j = offsetsOf[v], stop = offsetsOf[v + 1]; j < stop; j++) {
+					int u = targets[j];
+					if (dist[u] == layer - 1 && index[u] < 0) {
+						if (size == back.length)
+							back = Arrays.copyOf(back, size * 2);
+						index[u] = size;
+						back[size++] = u;
+					}
+				}
+			}
+			start = end;
+			layerEnd[layer - 1] = size;
+		}
+
+		// Number the vertices from the source, each layer in increasing ID order
+		int[] vertices = new int[size];
+		int position = 0;
+		for (int layer = 0; layer <= length; layer++) {
+			int from = layer == length ? 0 : layerEnd[layer + 1];
+			int[] ids = Arrays.copyOfRange(back, from, layerEnd[layer]);
+			Arrays.sort(ids);
+			for (int id : ids) {
+				index[id] = position;
+				vertices[position++] = id;
+			}
+		}
+
+		// Successors are the neighbors one layer further that lead to the target
+		int[] offsets = new int[size + 1];
+		int[] successors = new int[16];
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			int v = vertices[i];
+			for (int j = offsetsOf[v], stop = offsetsOf[v + 1]; j < stop; j++) {
+				int w = targets[j];
+				if (dist[w] == dist[v] + 1 && index[w] >= 0) {
+					if (count == successors.length)
+						successors = Arrays.copyOf(successors, count * 2);
+					successors[count++] = index[w];
+				}
+			}
+			offsets[i + 1] = count;
+		}
+		return new ShortestPathDag(graph, length, vertices, offsets, Arrays.copyOf(successors, count));
+	}
+
+	/**
+	 * @return CsrGraph<?> the graph the paths are in
+	 */
+	public CsrGraph<?> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return int the number of edges of every shortest path, or -1 if there is
+	 *         no path
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * @return int the number of vertices on at least one shortest path
+	 */
+	public int vertexCount() {
+		return vertices.length;
+	}
+
+	/**
+	 * Counts the shortest paths without listing them, from the target back to
+	 * the source
+	 *
+	 * @return long the number of shortest paths, Long.MAX_VALUE if there are at
+	 *         least as many; 0 if there is no path
+	 */
+	public long countPaths() {
+		if (length < 0)
+			return 0;
+		long[] paths = new long[vertices.length];
+		paths[vertices.length - 1] = 1;
+		for (int i = vertices.length - 2; i >= 0; i--) {
+			long sum = 0;
+			for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+				sum += paths[successors[j]];
+				if (sum < 0) {
+					sum = Long.MAX_VALUE;
+					break;
+				}
+			}
+			paths[i] = sum;
+		}
+		return paths[0];
+	}
+
+	/**
+	 * Iterates over the shortest paths, each found when it is asked for
+	 *
+	 * @return Iterator<int[]> the IDs on each shortest path, from source to
+	 *         target, in lexicographic order
+	 */
+	@Override
+	public Iterator<int[]> iterator() {
+		return new Iterator<int[]>() {
+			/**
+			 * Index in vertices of the vertex at each position of the next path
+			 */
+			private final int[] path = new int[length + 1];
+
+			/**
+			 * Position in successors of the branch taken at each position
+			 */
+			private final int[] branch = new int[length + 1];
+
+			private boolean hasNext = length >= 0;
+
+			{
+				if (hasNext)
+					descend(0);
+			}
+
+			@Override
+			public boolean hasNext() {
+				return hasNext;
+			}
+
+			@Override
+			public int[] next() {
+				if (!hasNext)
+					throw new NoSuchElementException();
+				int[] ids = new int[path.length];
+				for (int k = 0; k < path.length; k++)
+					ids[k] = vertices[path[k]];
+				advance();
+				return ids;
+			}
+
+			/**
+			 * Takes the first branch from each position after k to the target
+			 */
+			private void descend(int k) {
+				for (; k < length; k++) {
+					branch[k] = offsets[path[k]];
+					path[k + 1] = successors[branch[k]];
+				}
+			}
+
+			/**
+			 * Moves to the next path: the deepest position with another branch
+			 * takes it, and the positions after it restart from their first
+			 */
+			private void advance() {
+				for (int k = length - 1; k >= 0; k--) {
+					if (branch[k] + 1 < offsets[path[k] + 1]) {
+						path[k + 1] = successors[++branch[k]];
+						descend(k + 1);
+						return;
+					}
+				}
+				hasNext = false;
+			}
+		};
+	}
+}
@@ -0,0 +1,110 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Junit test class to test class @see ShortestPathDag
+ */
+public class ShortestPathDagTest {
+
+	private CsrGraph<String> frozen;
+	private BfsEngine engine;
+
+	@Before
+	public void setUp() throws Exception {
+		// Three ways of 3 edges from s to t, a detour of 4 and a separate word
+		Graph<String> graph = new Graph<>();
+		for (String vertex : new String[] { "s", "a", "b", "c", "d", "e", "f", "g", "t", "alone" })
+			graph.addVertex(vertex);
+		graph.addEdge("s", "a");
+		graph.addEdge("s", "b");
+		graph.addEdge("a", "c");
+		graph.addEdge("b", "c");
+		graph.addEdge("a", "d");
+		graph.addEdge("c", "t");
+		graph.addEdge("d", "t");
+		graph.addEdge("s", "e");
+		graph.addEdge("e", "f");
+		graph.addEdge("f", "g");
+		graph.addEdge("g", "t");
+		frozen = graph.freeze();
+		engine = new BfsEngine(frozen);
+	}
+
+	@Test
+	public final void everyShortestPathOnceInOrder() {
+		ShortestPathDag dag = ShortestPathDag.build(engine, frozen.getId("s"), frozen.getId("t"));
+		assertEquals(3, dag.length());
+		assertEquals(6, dag.vertexCount());
+		assertEquals(3, dag.countPaths());
+		List<String> paths = new ArrayList<>();
+		int[] previous = null;
+		for (int[] path : dag) {
+			if (previous != null)
+				assertEquals(true, compare(previous, path) < 0);
+			previous = path;
+			StringBuilder words = new StringBuilder();
+			for (int id : path)
+				words.append(frozen.getVertex(id));
+			paths.add(words.toString());
+		}
+		paths.sort(null);
+		assertEquals(Arrays.asList("sact", "sadt", "sbct"), paths);
+	}
+
+	@Test
+	public final void noPathOrSameVertex() {
+		ShortestPathDag none = ShortestPathDag.build(engine, frozen.getId("s"), frozen.getId("alone"));
+		assertEquals(-1, none.length());
+		assertEquals(0, none.countPaths());
+		assertFalse(none.iterator().hasNext());
+
+		ShortestPathDag same = ShortestPathDag.build(engine, frozen.getId("s"), frozen.getId("s"));
+		Iterator<int[]> it = same.iterator();
+		assertEquals(1, same.countPaths());
+		assertEquals(1, it.next().length);
+		assertFalse(it.hasNext());
+	}
+
+	@Test
+	public final void pathsAreCountedWithoutListingThem() {
+		// A chain of 40 diamonds holds 2^40 shortest paths
+		Graph<String> graph = new Graph<>();
+		graph.addVertex("v0");
+		for (int i = 0; i < 40; i++) {
+			for (String vertex : new String[] { "l" + i, "r" + i, "v" + (i + 1) })
+				graph.addVertex(vertex);
+			graph.addEdge("v" + i, "l" + i);
+			graph.addEdge("v" + i, "r" + i);
+			graph.addEdge("l" + i, "v" + (i + 1));
+			graph.addEdge("r" + i, "v" + (i + 1));
+		}
+		CsrGraph<String> chain = graph.freeze();
+		ShortestPathDag dag = ShortestPathDag.build(new BfsEngine(chain), chain.getId("v0"), chain.getId("v40"));
+		assertEquals(80, dag.length());
+		assertEquals(1L << 40, dag.countPaths());
+		Iterator<int[]> it = dag.iterator();
+		int[] first = it.next();
+		int[] second = it.next();
+		assertEquals(81, first.length);
+		assertEquals(true, compare(first, second) < 0);
+	}
+
+	/**
+	 * Compares two paths of the same length lexicographically
+	 */
+	private static int compare(int[] a, int[] b) {
+		for (int i = 0; i < a.length; i++) {
+			if (a[i] != b[i])
+				return Integer.compare(a[i], b[i]);
+		}
+		return 0;
+	}
+}
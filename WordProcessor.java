@@ -1,7 +1,29 @@
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Assignment: Exercise4, Due: 04/16/18, Other Sources: Cracking the Code
@@ -9,15 +31,32 @@ import java.util.stream.Stream;
  * Word Processor helps take in a stream of words, edits them and checks if one
  * word is adjacent to the other.
  * 
+ * Dictionaries are read as bytes through a FileChannel, in chunks that end at
+ * a line break and are parsed in parallel, a few at a time as the words are
+ * consumed. Lines of ASCII letters are trimmed and uppercased in the chunk
+ * itself, so each word costs one String; other lines are decoded as UTF-8
+ * first. Files starting with the gzip magic number are decompressed while they
+ * are read.
+ * 
  * @author Ribhav Hora (ribhav.hora@wisc.edu)
  */
 public class WordProcessor {
 
+	/**
+	 * Number of bytes parsed by one task
+	 */
+	private static final int CHUNK_SIZE = 8 << 20;
+
 	/**
 	 * Gets a Stream of words from the filepath.
 	 * 
 	 * The Stream should only contain trimmed, non-empty and UPPERCASE words.
 	 * 
+	 * The file is read as the stream is consumed, a few chunks at a time, so
+	 * the words of a large dictionary are never all in memory at once. The file
+	 * is closed when the stream is closed or has been read to the end. An error
+	 * while reading is thrown as an UncheckedIOException.
+	 * 
 	 * @see <a href=
 	 *      "http://www.oracle.com/technetwork/articles/java/ma14-java-se-8-streams-2177646.html">java8
 	 *      stream blog</a>
@@ -29,8 +68,349 @@ public class WordProcessor {
 	 *             exception resulting from accessing the filepath
 	 */
 	public static Stream<String> getWordStream(String filepath) throws IOException {
-		return Files.lines(Paths.get(filepath)).map(String::trim).filter(x -> x != null && !x.equals(""))
-				.map(String::toUpperCase);
+		return getWordStream(Paths.get(filepath), CHUNK_SIZE);
+	}
+
+	/**
+	 * Gets a Stream of the words of several dictionary files, one file after
+	 * another, like {@link #getWordStream(String)}. Each file is opened when the
+	 * stream reaches it.
+	 * 
+	 * @param files
+	 *            the dictionary files, plain or gzip-compressed
+	 * @return Stream<String> stream of words read from the files
+	 * @throws IOException
+	 *             exception resulting from accessing any of the files
+	 */
+	public static Stream<String> getWordStream(Collection<Path> files) throws IOException {
+		for (Path file : files) {
+			if (!Files.isReadable(file))
+				throw new NoSuchFileException(file.toString());
+		}
+		return new ArrayList<>(files).stream().flatMap(file -> {
+			try {
+				return getWordStream(file, CHUNK_SIZE);
+			} catch (IOException ioe) {
+				throw new UncheckedIOException(ioe);
+			}
+		});
+	}
+
+	/**
+	 * Reads the trimmed, non-empty and UPPERCASE words of a dictionary file, in
+	 * file order and with duplicates
+	 * 
+	 * @param file
+	 *            the dictionary file, plain or gzip-compressed
+	 * @return List<String> the words of the file
+	 * @throws IOException
+	 *             exception resulting from accessing the file
+	 */
+	static List<String> readWords(Path file) throws IOException {
+		return readWords(file, CHUNK_SIZE);
+	}
+
+	/**
+	 * Reads the words of a dictionary file, parsing chunks of about chunkSize
+	 * bytes in parallel
+	 * 
+	 * @param file
+	 *            the dictionary file, plain or gzip-compressed
+	 * @param chunkSize
+	 *            the number of bytes a chunk is cut after, at the next line
+	 *            break
+	 * @return List<String> the words of the file
+	 * @throws IOException
+	 *             exception resulting from accessing the file
+	 */
+	static List<String> readWords(Path file, int chunkSize) throws IOException {
+		try (Stream<String> words = getWordStream(file, chunkSize)) {
+			return words.collect(Collectors.toList());
+		} catch (UncheckedIOException uioe) {
+			throw uioe.getCause();
+		}
+	}
+
+	/**
+	 * Gets a Stream of the words of a dictionary file like
+	 * {@link #getWordStream(String)}, reading chunks of about chunkSize bytes
+	 * 
+	 * @param file
+	 *            the dictionary file, plain or gzip-compressed
+	 * @param chunkSize
+	 *            the number of bytes a chunk is cut after, at the next line
+	 *            break
+	 * @return Stream<String> the words of the file
+	 * @throws IOException
+	 *             exception resulting from opening the file
+	 */
+	static Stream<String> getWordStream(Path file, int chunkSize) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		ChunkReader reader;
+		try {
+			if (isGzip(channel)) {
+				channel.close();
+				reader = new GzipChunkReader(new GZIPInputStream(Files.newInputStream(file), 1 << 16), chunkSize);
+			} else {
+				reader = new ChannelChunkReader(channel, chunkBounds(channel, chunkSize));
+			}
+		} catch (IOException ioe) {
+			channel.close();
+			throw ioe;
+		}
+		ParsedChunks chunks = new ParsedChunks(reader);
+		return StreamSupport.stream(chunks, false).onClose(chunks::close).flatMap(List::stream);
+	}
+
+	/**
+	 * Source of the chunks of a file, each made of whole lines
+	 */
+	private interface ChunkReader extends Closeable {
+		/**
+		 * @return byte[] the next chunk, or null at the end of the file
+		 */
+		byte[] next() throws IOException;
+	}
+
+	/**
+	 * Chunks of a plain file, between offsets found when it is opened
+	 */
+	private static final class ChannelChunkReader implements ChunkReader {
+		private final FileChannel channel;
+		private final long[] bounds;
+		private int next;
+
+		ChannelChunkReader(FileChannel channel, long[] bounds) {
+			this.channel = channel;
+			this.bounds = bounds;
+		}
+
+		@Override
+		public byte[] next() throws IOException {
+			if (next >= bounds.length - 1)
+				return null;
+			next++;
+			return read(channel, bounds[next - 1], bounds[next]);
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Chunks of a compressed file, cut after the last line break once chunkSize
+	 * bytes are decompressed
+	 */
+	private static final class GzipChunkReader implements ChunkReader {
+		private final InputStream in;
+		private final int chunkSize;
+		private byte[] buffer;
+		private int length;
+		private boolean ended;
+
+		GzipChunkReader(InputStream in, int chunkSize) {
+			this.in = in;
+			this.chunkSize = chunkSize;
+			this.buffer = new byte[Math.max(chunkSize, 32) * 2];
+		}
+
+		@Override
+		public byte[] next() throws IOException {
+			while (!ended) {
+				int read = in.read(buffer, length, buffer.length - length);
+				if (read < 0) {
+					ended = true;
+					break;
+				}
+				length += read;
+				if (length < chunkSize)
+					continue;
+
+				// Cut after the last line break, or read on if there is none yet
+				int cut = length;
+				while (cut > 0 && buffer[cut - 1] != '\n' && buffer[cut - 1] != '\r')
+					cut--;
+				if (cut == 0) {
+					if (length == buffer.length)
+						buffer = Arrays.copyOf(buffer, buffer.length * 2);
+					continue;
+				}
+				byte[] chunk = Arrays.copyOf(buffer, cut);
+				System.arraycopy(buffer, cut, buffer, 0, length - cut);
+				length -= cut;
+				return chunk;
+			}
+			if (length == 0)
+				return null;
+			byte[] chunk = Arrays.copyOf(buffer, length);
+			length = 0;
+			return chunk;
+		}
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+	}
+
+	/**
+	 * The words of each chunk of a file, in file order. Chunks are read a batch
+	 * at a time, one per thread of the common pool, and the chunks of a batch are
+	 * parsed in parallel, so only a batch is in memory however large the file
+	 * is. The reader is closed at the end of the file.
+	 */
+	private static final class ParsedChunks extends Spliterators.AbstractSpliterator<List<String>> {
+		private final ChunkReader reader;
+		private final ArrayDeque<List<String>> parsed = new ArrayDeque<>();
+		private final int batch = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+		private boolean closed;
+
+		ParsedChunks(ChunkReader reader) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+			this.reader = reader;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super List<String>> action) {
+			if (parsed.isEmpty() && !closed) {
+				List<byte[]> chunks = new ArrayList<>(batch);
+				try {
+					byte[] chunk;
+					while (chunks.size() < batch && (chunk = reader.next()) != null)
+						chunks.add(chunk);
+				} catch (IOException ioe) {
+					close();
+					throw new UncheckedIOException(ioe);
+				}
+				if (chunks.size() < batch)
+					close();
+				parsed.addAll(chunks.parallelStream().map(WordProcessor::parse).collect(Collectors.toList()));
+			}
+			if (parsed.isEmpty())
+				return false;
+			action.accept(parsed.poll());
+			return true;
+		}
+
+		void close() {
+			if (closed)
+				return;
+			closed = true;
+			try {
+				reader.close();
+			} catch (IOException ioe) {
+				throw new UncheckedIOException(ioe);
+			}
+		}
+	}
+
+	/**
+	 * Private helper method to check for the gzip magic number at the start of a
+	 * file
+	 */
+	private static boolean isGzip(FileChannel channel) throws IOException {
+		ByteBuffer magic = ByteBuffer.allocate(2);
+		while (magic.hasRemaining() && channel.read(magic, magic.position()) > 0)
+			;
+		return magic.position() == 2 && (magic.get(0) & 0xFF) == 0x1F && (magic.get(1) & 0xFF) == 0x8B;
+	}
+
+	/**
+	 * Private helper method to cut a file into chunks that end at a line break
+	 * 
+	 * @return long[] the offset of the start of each chunk, followed by the size
+	 *         of the file
+	 */
+	private static long[] chunkBounds(FileChannel channel, int chunkSize) throws IOException {
+		long size = channel.size();
+		long[] bounds = new long[16];
+		int count = 1;
+		ByteBuffer buffer = ByteBuffer.allocate(4096);
+		long position = 0;
+		while (position < size) {
+			long end = Math.min(size, position + chunkSize);
+			// Move the end past the next line break
+			search: while (end < size) {
+				buffer.clear();
+				int read = channel.read(buffer, end);
+				for (int i = 0; i < read; i++) {
+					byte b = buffer.get(i);
+					if (b == '\n' || b == '\r') {
+						end += i + 1;
+						break search;
+					}
+				}
+				end += Math.max(read, 0);
+			}
+			if (count == bounds.length)
+				bounds = Arrays.copyOf(bounds, count * 2);
+			bounds[count++] = end;
+			position = end;
+		}
+		return Arrays.copyOf(bounds, count);
+	}
+
+	/**
+	 * Private helper method to read the bytes of a file between two offsets
+	 */
+	private static byte[] read(FileChannel channel, long start, long end) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+		while (buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) >= 0)
+			;
+		return buffer.position() == buffer.capacity() ? buffer.array() : Arrays.copyOf(buffer.array(), buffer.position());
+	}
+
+	/**
+	 * Private helper method to parse the words of a chunk of lines
+	 * 
+	 * @param chunk
+	 *            - the bytes of whole lines
+	 * @return List<String> the trimmed, non-empty and UPPERCASE words of the lines
+	 */
+	private static List<String> parse(byte[] chunk) {
+		List<String> words = new ArrayList<>();
+		int i = 0;
+		while (i < chunk.length) {
+			int end = i;
+			while (end < chunk.length && chunk[end] != '\n' && chunk[end] != '\r')
+				end++;
+			// Trim like String.trim, which removes every char up to the space
+			int start = i;
+			int stop = end;
+			while (start < stop && (chunk[start] & 0xFF) <= ' ')
+				start++;
+			while (stop > start && (chunk[stop - 1] & 0xFF) <= ' ')
+				stop--;
+			if (start < stop)
+				words.add(normalize(chunk, start, stop));
+			i = end + 1;
+		}
+		return words;
+	}
+
+	/**
+	 * Private helper method to uppercase a trimmed line
+	 * 
+	 * @param chunk
+	 *            - the bytes of the line
+	 * @param start
+	 *            - the offset of the first byte of the line
+	 * @param stop
+	 *            - the offset after the last byte of the line
+	 * @return String the line in uppercase
+	 */
+	private static String normalize(byte[] chunk, int start, int stop) {
+		for (int k = start; k < stop; k++) {
+			if (chunk[k] < 0)
+				return new String(chunk, start, stop - start, StandardCharsets.UTF_8).toUpperCase(Locale.ROOT);
+		}
+		for (int k = start; k < stop; k++) {
+			if (chunk[k] >= 'a' && chunk[k] <= 'z')
+				chunk[k] -= 'a' - 'A';
+		}
+		return new String(chunk, start, stop - start, StandardCharsets.ISO_8859_1);
 	}
 
 	/**
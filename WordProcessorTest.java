@@ -0,0 +1,105 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Junit test class to test class @see WordProcessor
+ */
+public class WordProcessorTest {
+
+	private Path file;
+
+	@Before
+	public void setUp() throws Exception {
+		file = Files.createTempFile("words", ".txt");
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		Files.deleteIfExists(file);
+	}
+
+	@Test
+	public final void readWordsMatchesLineByLineParsing() throws IOException {
+		List<String> expected = Files.lines(Paths.get("word_list.txt")).map(String::trim).filter(x -> !x.equals(""))
+				.map(String::toUpperCase).collect(Collectors.toList());
+		assertEquals(expected, WordProcessor.getWordStream("word_list.txt").collect(Collectors.toList()));
+		for (int chunkSize : new int[] { 1, 7, 64, 1000 })
+			assertEquals(expected, WordProcessor.readWords(Paths.get("word_list.txt"), chunkSize));
+	}
+
+	@Test
+	public final void readWordsNormalizesLines() throws IOException {
+		Files.write(file, "  cat\r\nDog\t\n\n \r\nhAt\rzeb\u00e9ra \n  ".getBytes(StandardCharsets.UTF_8));
+		List<String> expected = Arrays.asList("CAT", "DOG", "HAT", "ZEB\u00c9RA");
+		for (int chunkSize : new int[] { 1, 3, 1 << 20 })
+			assertEquals(expected, WordProcessor.readWords(file, chunkSize));
+	}
+
+	@Test
+	public final void readWordsDecompressesGzip() throws IOException {
+		List<String> expected = WordProcessor.readWords(Paths.get("word_list.txt"));
+		try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+			Files.copy(Paths.get("word_list.txt"), out);
+		}
+		assertEquals(expected, WordProcessor.readWords(file));
+		assertEquals(expected, WordProcessor.readWords(file, 5));
+	}
+
+	@Test
+	public final void getWordStreamReadsFilesInOrder() throws IOException {
+		Files.write(file, Arrays.asList("cat", "hat"));
+		List<String> words = WordProcessor.getWordStream(Arrays.asList(file, Paths.get("no_connection.txt"), file))
+				.collect(Collectors.toList());
+		List<String> expected = Arrays.asList("CAT", "HAT");
+		assertEquals(expected, words.subList(0, 2));
+		assertEquals(expected, words.subList(words.size() - 2, words.size()));
+	}
+
+	@Test
+	public final void getWordStreamChecksEveryFileFirst() throws IOException {
+		Files.write(file, Arrays.asList("cat", "hat"));
+		try {
+			WordProcessor.getWordStream(Arrays.asList(file, Paths.get("no_such_dictionary.txt")));
+			fail("opened a missing dictionary");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public final void getWordStreamReadsOnlyWhatIsConsumed() throws IOException {
+		List<String> lines = new ArrayList<>(Collections.nCopies(10000, "cat"));
+		lines.add("hat");
+		Files.write(file, lines);
+		try (Stream<String> words = WordProcessor.getWordStream(file, 1)) {
+			Iterator<String> iterator = words.iterator();
+			assertEquals("CAT", iterator.next());
+			// The last chunk is read from the file as it is when it is reached
+			lines.set(lines.size() - 1, "dog");
+			Files.write(file, lines);
+			String last = null;
+			while (iterator.hasNext())
+				last = iterator.next();
+			assertEquals("DOG", last);
+		}
+	}
+}
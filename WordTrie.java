@@ -0,0 +1,578 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Trie of the words of a dictionary, giving each word a dense int ID.
+ *
+ * Words are not kept as strings: a word is the path of letters from the root
+ * to the node holding its ID, so words sharing a prefix share its nodes, and
+ * {@link #getWord(int)} rebuilds a word from its node up. Each node is a
+ * record of five ints in one array (letter and word lengths, parent, first
+ * child, next sibling and ID), 20 bytes per distinct prefix and no object per
+ * word.
+ *
+ * Whenever the array grows, the records are laid out again in breadth-first
+ * order, so that the children of a node are next to each other and the walks
+ * below read the trie mostly in sequence. Siblings are kept in letter order,
+ * so words are enumerated in lexicographic order. IDs of removed words are
+ * reused by the next words added, so they stay below the number of words ever
+ * held at once.
+ *
+ * The trie is searched for the words within an edit distance of a query by
+ * simulating a Levenshtein automaton of the query over it: the search walks
+ * the trie depth first, keeping for each node the row of edit distances
+ * between the node's prefix and every prefix of the query, computed from the
+ * row of the parent. A subtree is skipped as soon as every entry of its row
+ * exceeds the bound, since no word below can come back within it, or when it
+ * has no word of a length within the bound of the query's. Each search
+ * therefore visits the prefixes near the query rather than the whole
+ * dictionary, and is shared by all words with a common prefix.
+ */
+public class WordTrie {
+
+	/**
+	 * Node of the empty prefix
+	 */
+	private static final int ROOT = 0;
+
+	/**
+	 * Missing node or ID
+	 */
+	private static final int NONE = -1;
+
+	/**
+	 * Fields of a node record: the letter leading to it from its parent in the
+	 * low 16 bits, and in the high 16 bits the lengths of the words ending at it
+	 * or below (see {@link #lengthBit(int)}); its parent (NONE for the root and
+	 * unused nodes); its first child in letter order; its next sibling in letter
+	 * order (linking the unused nodes together); and the ID of the word ending
+	 * at it
+	 */
+	private static final int LABEL = 0;
+	private static final int PARENT = 1;
+	private static final int FIRST_CHILD = 2;
+	private static final int NEXT_SIBLING = 3;
+	private static final int ID = 4;
+	private static final int FIELDS = 5;
+
+	/**
+	 * Bits of the LABEL field holding the letter
+	 */
+	private static final int LETTER = 0xFFFF;
+
+	/**
+	 * Node records, node n at index n * FIELDS
+	 */
+	private int[] data;
+
+	/**
+	 * Node of each ID, NONE for unused IDs
+	 */
+	private int[] nodes;
+
+	/**
+	 * Number of nodes ever used, the first never used slot
+	 */
+	private int nodeCount;
+
+	/**
+	 * First of the unused nodes linked by their NEXT_SIBLING field, or NONE
+	 */
+	private int freeNodes;
+
+	/**
+	 * Unused IDs below idBound, as a stack
+	 */
+	private int[] freeIds;
+	private int freeIdCount;
+
+	/**
+	 * One more than the largest ID ever given
+	 */
+	private int idBound;
+
+	/**
+	 * Number of words in the trie
+	 */
+	private int size;
+
+	/**
+	 * Constructor for an empty trie
+	 */
+	public WordTrie() {
+		data = new int[16 * FIELDS];
+		nodes = new int[16];
+		freeIds = new int[4];
+		freeNodes = NONE;
+		newNode(NONE, (char) 0);
+	}
+
+	/**
+	 * Adds a word to the trie
+	 *
+	 * @param word
+	 *            the word to add
+	 * @return true if the word was added, false if it is null or already in the
+	 *         trie
+	 */
+	public boolean add(String word) {
+		if (word == null)
+			return false;
+		// Grow before taking any node index, since growing renumbers the nodes
+		if ((nodeCount + word.length()) * FIELDS > data.length)
+			relayout(word.length());
+		int node = ROOT;
+		for (int i = 0; i < word.length(); i++)
+			node = addChild(node, word.charAt(i));
+		if (get(node, ID) != NONE)
+			return false;
+
+		int id;
+		if (freeIdCount > 0) {
+			id = freeIds[--freeIdCount];
+		} else {
+			id = idBound++;
+			if (id == nodes.length)
+				nodes = Arrays.copyOf(nodes, id * 2);
+		}
+		set(node, ID, id);
+		nodes[id] = node;
+		size++;
+		int bit = lengthBit(word.length());
+		for (; node != NONE; node = get(node, PARENT))
+			data[node * FIELDS + LABEL] |= bit;
+		return true;
+	}
+
+	/**
+	 * Removes a word from the trie, with the prefixes no other word uses. Its ID
+	 * is given to a later word.
+	 *
+	 * @param word
+	 *            the word to remove
+	 * @return true if the word was removed, false if it was not in the trie
+	 */
+	public boolean remove(String word) {
+		int node = find(word);
+		if (node == NONE || get(node, ID) == NONE)
+			return false;
+		int id = get(node, ID);
+		set(node, ID, NONE);
+		nodes[id] = NONE;
+		if (freeIdCount == freeIds.length)
+			freeIds = Arrays.copyOf(freeIds, freeIdCount * 2);
+		freeIds[freeIdCount++] = id;
+		size--;
+
+		for (int depth = word.length(); node != NONE; depth--) {
+			int parent = get(node, PARENT);
+			if (node != ROOT && get(node, ID) == NONE && get(node, FIRST_CHILD) == NONE) {
+				unlink(parent, node);
+			} else {
+				int bits = get(node, ID) == NONE ? 0 : lengthBit(depth);
+				for (int c = get(node, FIRST_CHILD); c != NONE; c = get(c, NEXT_SIBLING))
+					bits |= get(c, LABEL) & ~LETTER;
+				set(node, LABEL, get(node, LABEL) & LETTER | bits);
+			}
+			node = parent;
+		}
+		return true;
+	}
+
+	/**
+	 * @param word
+	 *            a word
+	 * @return true if the word is in the trie
+	 */
+	public boolean contains(String word) {
+		return getId(word) != NONE;
+	}
+
+	/**
+	 * @param word
+	 *            a word
+	 * @return int the ID of word, or -1 if it is not in the trie
+	 */
+	public int getId(String word) {
+		int node = find(word);
+		return node == NONE ? NONE : get(node, ID);
+	}
+
+	/**
+	 * Rebuilds a word from its ID
+	 *
+	 * @param id
+	 *            an ID
+	 * @return String the word with that ID, or null if the ID is not used
+	 */
+	public String getWord(int id) {
+		if (id < 0 || id >= idBound || nodes[id] == NONE)
+			return null;
+		int node = nodes[id];
+		int depth = 0;
+		for (int n = node; n != ROOT; n = get(n, PARENT))
+			depth++;
+		char[] letters = new char[depth];
+		for (int i = depth - 1; i >= 0; i--, node = get(node, PARENT))
+			letters[i] = (char) get(node, LABEL);
+		return new String(letters);
+	}
+
+	/**
+	 * @return int the number of words in the trie
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return int one more than the largest ID given to a word, the size of an
+	 *         array indexed by ID
+	 */
+	public int idBound() {
+		return idBound;
+	}
+
+	/**
+	 * Gets the IDs of the words starting with a prefix
+	 *
+	 * @param prefix
+	 *            the prefix, the empty string for all words
+	 * @param action
+	 *            called with the ID of each word starting with prefix, in
+	 *            lexicographic order of the words
+	 */
+	public void forEachWithPrefix(String prefix, IntConsumer action) {
+		int top = find(prefix);
+		// Preorder walk of the subtree of top, without recursion
+		for (int node = top; node != NONE;) {
+			if (get(node, ID) != NONE)
+				action.accept(get(node, ID));
+			if (get(node, FIRST_CHILD) != NONE) {
+				node = get(node, FIRST_CHILD);
+				continue;
+			}
+			while (node != top && get(node, NEXT_SIBLING) == NONE)
+				node = get(node, PARENT);
+			node = node == top ? NONE : get(node, NEXT_SIBLING);
+		}
+	}
+
+	/**
+	 * Gets the words starting with a prefix
+	 *
+	 * @param prefix
+	 *            the prefix, the empty string for all words
+	 * @return List<String> the words starting with prefix, in lexicographic order
+	 */
+	public List<String> withPrefix(String prefix) {
+		List<String> words = new ArrayList<>();
+		forEachWithPrefix(prefix, id -> words.add(getWord(id)));
+		return words;
+	}
+
+	/**
+	 * Gets the words of the trie within an edit distance of a word, other than
+	 * the word itself
+	 *
+	 * @param word
+	 *            the query (does not need to be in the trie)
+	 * @param maxEdits
+	 *            the largest edit distance
+	 * @param transpositions
+	 *            whether swapping two neighboring letters counts as one edit
+	 * @return List<String> the words at distance 1 to maxEdits from word, as
+	 *         computed by {@link AdjacencyPolicy#distance(String, String, int,
+	 *         boolean)}
+	 */
+	public List<String> search(String word, int maxEdits, boolean transpositions) {
+		List<String> found = new ArrayList<>();
+		search(word, maxEdits, transpositions, id -> found.add(getWord(id)));
+		return found;
+	}
+
+	/**
+	 * Gets the IDs of the words of the trie within an edit distance of a word,
+	 * other than the word itself. With maxEdits 1 and no transpositions these are
+	 * the neighbors of {@link WordProcessor#isAdjacent(String, String)}.
+	 *
+	 * @param word
+	 *            the query (does not need to be in the trie)
+	 * @param maxEdits
+	 *            the largest edit distance
+	 * @param transpositions
+	 *            whether swapping two neighboring letters counts as one edit
+	 * @param action
+	 *            called with the ID of each word at distance 1 to maxEdits from
+	 *            word
+	 */
+	public void search(String word, int maxEdits, boolean transpositions, IntConsumer action) {
+		new Search(word.toCharArray(), maxEdits, transpositions, action).run();
+	}
+
+	/**
+	 * Estimates the memory used by the trie
+	 *
+	 * @return long the size of the arrays of the trie, in bytes
+	 */
+	public long sizeInBytes() {
+		return (data.length + nodes.length + freeIds.length) * 4L;
+	}
+
+	/**
+	 * Shrinks the trie to the memory its words need, for a dictionary that is
+	 * done growing. Words can still be added and removed afterwards.
+	 */
+	public void trimToSize() {
+		relayout(0);
+		data = Arrays.copyOf(data, nodeCount * FIELDS);
+		nodes = Arrays.copyOf(nodes, Math.max(1, idBound));
+	}
+
+	/**
+	 * One search of {@link WordTrie#search(String, int, boolean, IntConsumer)}
+	 */
+	private final class Search {
+		private final char[] query;
+		private final int maxEdits;
+		private final boolean transpositions;
+		private final IntConsumer action;
+
+		/**
+		 * Length bits of the words that can be within maxEdits of the query
+		 */
+		private final int reachable;
+
+		/**
+		 * Distance row of each depth of the walk. Distances above maxEdits are
+		 * all stored as maxEdits + 1, which is what the entries outside the band
+		 * computed at each depth keep
+		 */
+		private final int[][] rows;
+
+		Search(char[] query, int maxEdits, boolean transpositions, IntConsumer action) {
+			this.query = query;
+			this.maxEdits = maxEdits;
+			this.transpositions = transpositions;
+			this.action = action;
+			int n = query.length;
+			int bits = 0;
+			for (int l = Math.max(0, n - maxEdits); l <= n + maxEdits; l++)
+				bits |= lengthBit(l);
+			reachable = bits;
+			// Words longer than n + maxEdits are out of reach
+			rows = new int[n + maxEdits + 1][n + 1];
+			for (int[] row : rows)
+				Arrays.fill(row, maxEdits + 1);
+			for (int j = 0; j <= Math.min(n, maxEdits); j++)
+				rows[0][j] = j;
+		}
+
+		void run() {
+			for (int c = get(ROOT, FIRST_CHILD); c != NONE; c = get(c, NEXT_SIBLING))
+				visit(c, (char) 0, 1);
+		}
+
+		/**
+		 * Computes the row of a node, then visits its children
+		 *
+		 * Only the entries of the row within maxEdits of the diagonal are
+		 * computed, since the others are always above maxEdits
+		 *
+		 * @param node
+		 *            - the node
+		 * @param parentLetter
+		 *            - the letter leading to the parent of node, if depth > 1
+		 * @param depth
+		 *            - the length of the prefix of node
+		 */
+		private void visit(int node, char parentLetter, int depth) {
+			int[] data = WordTrie.this.data;
+			int at = node * FIELDS;
+			if ((data[at + LABEL] & reachable) == 0)
+				return;
+			char letter = (char) data[at + LABEL];
+			int n = query.length;
+			int[] previous = rows[depth - 1];
+			int[] row = rows[depth];
+			int over = maxEdits + 1;
+			int best = over;
+			if (depth <= maxEdits)
+				best = row[0] = depth;
+			int from = Math.max(1, depth - maxEdits);
+			int to = Math.min(n, depth + maxEdits);
+			for (int j = from; j <= to; j++) {
+				int d = previous[j - 1] + (letter == query[j - 1] ? 0 : 1);
+				d = Math.min(d, Math.min(previous[j], row[j - 1]) + 1);
+				if (transpositions && depth > 1 && j > 1 && letter == query[j - 2] && parentLetter == query[j - 1])
+					d = Math.min(d, rows[depth - 2][j - 2] + 1);
+				d = Math.min(d, over);
+				row[j] = d;
+				best = Math.min(best, d);
+			}
+			// The distances of a child are never below the smallest of this row,
+			// so no word below node is within maxEdits either
+			if (best > maxEdits)
+				return;
+			if (data[at + ID] != NONE && row[n] > 0 && row[n] <= maxEdits)
+				action.accept(data[at + ID]);
+			if (depth + 1 < rows.length) {
+				for (int c = data[at + FIRST_CHILD]; c != NONE; c = data[c * FIELDS + NEXT_SIBLING])
+					visit(c, letter, depth + 1);
+			}
+		}
+	}
+
+	/**
+	 * Private helper method to find the node of a word or prefix
+	 *
+	 * @return int the node, or NONE if no word starts with it
+	 */
+	private int find(String word) {
+		if (word == null)
+			return NONE;
+		int node = ROOT;
+		for (int i = 0; i < word.length() && node != NONE; i++)
+			node = child(node, word.charAt(i));
+		return node;
+	}
+
+	/**
+	 * Private helper method to find the child of a node reached by a letter
+	 *
+	 * @return int the child, or NONE
+	 */
+	private int child(int node, char letter) {
+		for (int c = get(node, FIRST_CHILD); c != NONE && (char) get(c, LABEL) <= letter; c = get(c, NEXT_SIBLING)) {
+			if ((char) get(c, LABEL) == letter)
+				return c;
+		}
+		return NONE;
+	}
+
+	/**
+	 * Private helper method to find or add the child of a node reached by a
+	 * letter, keeping siblings in letter order
+	 *
+	 * @return int the child
+	 */
+	private int addChild(int node, char letter) {
+		int previous = NONE;
+		int c = get(node, FIRST_CHILD);
+		while (c != NONE && (char) get(c, LABEL) < letter) {
+			previous = c;
+			c = get(c, NEXT_SIBLING);
+		}
+		if (c != NONE && (char) get(c, LABEL) == letter)
+			return c;
+		int child = newNode(node, letter);
+		set(child, NEXT_SIBLING, c);
+		if (previous == NONE)
+			set(node, FIRST_CHILD, child);
+		else
+			set(previous, NEXT_SIBLING, child);
+		return child;
+	}
+
+	/**
+	 * Private helper method to take an unused node. The caller makes sure there
+	 * is room for it
+	 *
+	 * @return int the new node, with no children, siblings or word
+	 */
+	private int newNode(int parent, char letter) {
+		int node;
+		if (freeNodes != NONE) {
+			node = freeNodes;
+			freeNodes = get(node, NEXT_SIBLING);
+		} else {
+			node = nodeCount++;
+		}
+		int at = node * FIELDS;
+		data[at + LABEL] = letter;
+		data[at + PARENT] = parent;
+		data[at + FIRST_CHILD] = NONE;
+		data[at + NEXT_SIBLING] = NONE;
+		data[at + ID] = NONE;
+		return node;
+	}
+
+	/**
+	 * Private helper method to copy the nodes in use to a new array with room for
+	 * half as many more, in breadth-first order, dropping the unused ones
+	 *
+	 * @param room
+	 *            - the number of new nodes needed
+	 */
+	private void relayout(int room) {
+		int[] order = new int[nodeCount];
+		int[] renumber = new int[nodeCount];
+		order[0] = ROOT;
+		int count = 1;
+		for (int head = 0; head < count; head++) {
+			for (int c = get(order[head], FIRST_CHILD); c != NONE; c = get(c, NEXT_SIBLING)) {
+				renumber[c] = count;
+				order[count++] = c;
+			}
+		}
+
+		int capacity = count + room;
+		int[] moved = new int[Math.max(16, capacity + capacity / 2) * FIELDS];
+		for (int i = 0; i < count; i++) {
+			int from = order[i] * FIELDS;
+			int to = i * FIELDS;
+			moved[to + LABEL] = data[from + LABEL];
+			moved[to + PARENT] = i == ROOT ? NONE : renumber[data[from + PARENT]];
+			moved[to + FIRST_CHILD] = data[from + FIRST_CHILD] == NONE ? NONE : renumber[data[from + FIRST_CHILD]];
+			moved[to + NEXT_SIBLING] = data[from + NEXT_SIBLING] == NONE ? NONE : renumber[data[from + NEXT_SIBLING]];
+			moved[to + ID] = data[from + ID];
+			if (moved[to + ID] != NONE)
+				nodes[moved[to + ID]] = i;
+		}
+		data = moved;
+		nodeCount = count;
+		freeNodes = NONE;
+	}
+
+	/**
+	 * Private helper method to remove a childless node from the children of its
+	 * parent and make it unused
+	 */
+	private void unlink(int parent, int node) {
+		if (get(parent, FIRST_CHILD) == node) {
+			set(parent, FIRST_CHILD, get(node, NEXT_SIBLING));
+		} else {
+			int c = get(parent, FIRST_CHILD);
+			while (get(c, NEXT_SIBLING) != node)
+				c = get(c, NEXT_SIBLING);
+			set(c, NEXT_SIBLING, get(node, NEXT_SIBLING));
+		}
+		set(node, PARENT, NONE);
+		set(node, NEXT_SIBLING, freeNodes);
+		freeNodes = node;
+	}
+
+	/**
+	 * Private helper method to read a field of a node
+	 */
+	private int get(int node, int field) {
+		return data[node * FIELDS + field];
+	}
+
+	/**
+	 * Private helper method to write a field of a node
+	 */
+	private void set(int node, int field, int value) {
+		data[node * FIELDS + field] = value;
+	}
+
+	/**
+	 * Private helper method to get the bit of a word length in the LABEL field:
+	 * bit 16 + l for length l, and bit 31 for lengths of 15 and more
+	 */
+	private static int lengthBit(int length) {
+		return 1 << 16 + Math.min(length, 15);
+	}
+}
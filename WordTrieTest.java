@@ -0,0 +1,80 @@
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Junit test class to test class @see WordTrie
+ */
+public class WordTrieTest {
+
+	private WordTrie trie;
+
+	@Before
+	public void setUp() throws Exception {
+		trie = new WordTrie();
+		for (String word : new String[] { "CAT", "CART", "CAST", "ACT", "AT", "CATS", "DOG" })
+			trie.add(word);
+	}
+
+	@Test
+	public final void addRemoveAndContains() {
+		assertEquals(7, trie.size());
+		assertEquals(false, trie.add("CAT"));
+		assertEquals(false, trie.contains("CA"));
+		assertEquals(true, trie.remove("CAT"));
+		assertEquals(false, trie.contains("CAT"));
+		assertEquals(true, trie.contains("CATS"));
+		assertEquals(false, trie.remove("CAT"));
+		assertEquals(true, trie.remove("DOG"));
+		assertEquals(false, trie.contains("DOG"));
+		assertEquals(5, trie.size());
+	}
+
+	@Test
+	public final void searchFindsWordsWithinDistance() {
+		assertEquals(sorted("AT", "CART", "CAST", "CATS"), sorted(trie.search("CAT", 1, false)));
+		assertEquals(sorted("ACT", "AT", "CART", "CAST", "CATS"), sorted(trie.search("CAT", 1, true)));
+		assertEquals(sorted("ACT", "AT", "CART", "CAST", "CATS"), sorted(trie.search("CAT", 2, false)));
+		assertEquals(sorted("CAT", "CATS"), sorted(trie.search("CATZ", 1, false)));
+	}
+
+	@Test
+	public final void searchMatchesComparingEveryPair() throws IOException {
+		List<String> words = new ArrayList<>();
+		WordProcessor.getWordStream("word_list.txt").distinct().forEach(words::add);
+		WordTrie dictionary = new WordTrie();
+		for (String word : words)
+			dictionary.add(word);
+		for (int k = 1; k <= 2; k++) {
+			for (boolean transpositions : new boolean[] { false, true }) {
+				for (String word : words) {
+					List<String> expected = new ArrayList<>();
+					for (String other : words) {
+						int distance = AdjacencyPolicy.distance(word, other, k, transpositions);
+						if (distance > 0 && distance <= k)
+							expected.add(other);
+					}
+					assertEquals(sorted(expected), sorted(dictionary.search(word, k, transpositions)));
+				}
+			}
+		}
+	}
+
+	private static List<String> sorted(String... words) {
+		List<String> list = new ArrayList<>();
+		Collections.addAll(list, words);
+		return sorted(list);
+	}
+
+	private static List<String> sorted(List<String> words) {
+		List<String> list = new ArrayList<>(words);
+		Collections.sort(list);
+		return list;
+	}
+}
@@ -0,0 +1,144 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import bench.Subjects;
+
+/**
+ * Implementation of {@link Subjects} over the classes of the repository, which
+ * are in the same unnamed package as this class.
+ */
+public class BenchmarkSubjects implements Subjects {
+
+	@Override
+	public Processor newProcessor(String strategy) {
+		GraphProcessor processor = new GraphProcessor();
+		processor.setPathStrategy(PathStrategy.valueOf(strategy));
+		return new Processor() {
+			@Override
+			public void setPathStrategy(String strategy) {
+				processor.setPathStrategy(PathStrategy.valueOf(strategy));
+			}
+
+			@Override
+			public Integer populateGraph(String filepath) {
+				return processor.populateGraph(filepath);
+			}
+
+			@Override
+			public Integer populateGraph(String filepath, Path snapshot) {
+				return processor.populateGraph(filepath, snapshot);
+			}
+
+			@Override
+			public void shortestPathPrecomputation() {
+				processor.shortestPathPrecomputation();
+			}
+
+			@Override
+			public List<String> getShortestPath(String word1, String word2) {
+				return processor.getShortestPath(word1, word2);
+			}
+
+			@Override
+			public Integer getShortestDistance(String word1, String word2) {
+				return processor.getShortestDistance(word1, word2);
+			}
+
+			@Override
+			@SuppressWarnings({ "unchecked", "rawtypes" })
+			public List<List<String>> getShortestPaths(Collection<Object> pairs) {
+				return processor.getShortestPaths((Collection) pairs);
+			}
+
+			@Override
+			@SuppressWarnings({ "unchecked", "rawtypes" })
+			public List<Integer> getShortestDistances(Collection<Object> pairs) {
+				return processor.getShortestDistances((Collection) pairs);
+			}
+
+			@Override
+			public boolean areConnected(String word1, String word2) {
+				return processor.areConnected(word1, word2);
+			}
+
+			@Override
+			public Integer removeWords(Collection<String> words) {
+				return processor.removeWords(words);
+			}
+
+			@Override
+			public boolean savePrecomputation(Path file) {
+				return processor.savePrecomputation(file);
+			}
+
+			@Override
+			public Integer loadPrecomputation(Path file) {
+				return processor.loadPrecomputation(file);
+			}
+		};
+	}
+
+	@Override
+	public Object newPair(String word1, String word2) {
+		return new Pair(word1, word2);
+	}
+
+	@Override
+	public WordGraph newGraph(String implementation) {
+		GraphADT<String> graph = implementation.equals("ConcurrentGraph") ? new ConcurrentGraph<>() : new Graph<>();
+		return new WordGraph() {
+			@Override
+			public String addVertex(String vertex) {
+				return graph.addVertex(vertex);
+			}
+
+			@Override
+			public String removeVertex(String vertex) {
+				return graph.removeVertex(vertex);
+			}
+
+			@Override
+			public boolean addEdge(String vertex1, String vertex2) {
+				return graph.addEdge(vertex1, vertex2);
+			}
+
+			@Override
+			public boolean removeEdge(String vertex1, String vertex2) {
+				return graph.removeEdge(vertex1, vertex2);
+			}
+
+			@Override
+			public boolean isAdjacent(String vertex1, String vertex2) {
+				return graph.isAdjacent(vertex1, vertex2);
+			}
+
+			@Override
+			public Iterable<String> getNeighbors(String vertex) {
+				return graph.getNeighbors(vertex);
+			}
+
+			@Override
+			public Iterable<String> getAllVertices() {
+				return graph.getAllVertices();
+			}
+		};
+	}
+
+	@Override
+	public Words words() {
+		return new Words() {
+			@Override
+			public Stream<String> getWordStream(String filepath) throws IOException {
+				return WordProcessor.getWordStream(filepath);
+			}
+
+			@Override
+			public boolean isAdjacent(String word1, String word2) {
+				return WordProcessor.isAdjacent(word1, word2);
+			}
+		};
+	}
+}
@@ -0,0 +1,130 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Synthetic dictionary shared by the benchmarks of one parameter combination,
+ * written to a temporary file by {@link DictionaryGenerator}.
+ *
+ * A further one percent of words, generated with the same settings but not in
+ * the dictionary file, is kept in a second file for the benchmarks of
+ * incremental updates.
+ */
+@State(Scope.Benchmark)
+public class Dictionary {
+
+	/**
+	 * Number of query pairs; a power of two so a cursor can wrap with a mask
+	 */
+	public static final int QUERIES = 4096;
+
+	@Param({ "1000", "10000" })
+	public int words;
+
+	@Param({ DictionaryGenerator.DEFAULT_LENGTHS })
+	public String lengths;
+
+	@Param({ DictionaryGenerator.DEFAULT_ALPHABET })
+	public String alphabet;
+
+	@Param({ "0.95" })
+	public double mutation;
+
+	/**
+	 * The dictionary file
+	 */
+	public Path file;
+
+	/**
+	 * File of the additional words
+	 */
+	public Path extraFile;
+
+	/**
+	 * Words of the dictionary file
+	 */
+	public List<String> list;
+
+	/**
+	 * Random pairs of dictionary words
+	 */
+	public String[][] queries;
+
+	/**
+	 * Subjects under benchmark
+	 */
+	public Subjects subjects;
+
+	/**
+	 * The WordProcessor operations of subjects
+	 */
+	public Subjects.Words wordProcessor;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		subjects = Subjects.load();
+		wordProcessor = subjects.words();
+		int extra = Math.max(1, words / 100);
+		List<String> all = new DictionaryGenerator(words + extra, lengths, alphabet, mutation, 1).generate();
+		list = new ArrayList<>(all.subList(0, words));
+		file = Files.write(Files.createTempFile("dictionary", ".txt"), list);
+		extraFile = Files.write(Files.createTempFile("extra", ".txt"), all.subList(words, all.size()));
+
+		Random random = new Random(2);
+		queries = new String[QUERIES][];
+		for (int i = 0; i < QUERIES; i++)
+			queries[i] = new String[] { list.get(random.nextInt(words)), list.get(random.nextInt(words)) };
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+		Files.deleteIfExists(extraFile);
+	}
+
+	/**
+	 * Finds the edges of the dictionary without comparing every pair: words one
+	 * substitution apart share a masked pattern, and a word one insertion away
+	 * from another has it as one of its deletions
+	 *
+	 * @return List<String[]> the adjacent pairs of words
+	 */
+	public List<String[]> edges() {
+		Map<String, List<String>> patterns = new HashMap<>();
+		Set<String> dictionary = new HashSet<>(list);
+		List<String[]> edges = new ArrayList<>();
+		for (String word : list) {
+			Set<String> deletions = new HashSet<>();
+			for (int i = 0; i < word.length(); i++) {
+				String deletion = word.substring(0, i) + word.substring(i + 1);
+				if (deletions.add(deletion) && dictionary.contains(deletion))
+					edges.add(new String[] { deletion, word });
+				patterns.computeIfAbsent(word.substring(0, i) + '\0' + word.substring(i + 1), k -> new ArrayList<>())
+						.add(word);
+			}
+		}
+		for (List<String> bucket : patterns.values()) {
+			for (int i = 0; i < bucket.size(); i++) {
+				for (int j = i + 1; j < bucket.size(); j++)
+					edges.add(new String[] { bucket.get(i), bucket.get(j) });
+			}
+		}
+		return edges;
+	}
+}
@@ -0,0 +1,216 @@
+package bench;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates synthetic dictionaries for the benchmarks.
+ *
+ * Random strings over a large alphabet are almost never one edit apart, which
+ * gives a graph with no edges. So each new word is, with probability
+ * {@code mutation}, one random substitution, insertion or deletion away from a
+ * word generated earlier, and otherwise a fresh random word whose length is
+ * drawn from the length distribution. Every fresh word starts a new component,
+ * so a mutation rate around 0.95 gives one large component with long ladders
+ * plus many small components and singletons, like a real word list.
+ *
+ * Run from the command line to write a dictionary file:
+ *
+ * java -cp target/benchmarks.jar bench.DictionaryGenerator words=100000
+ * lengths=3:2,4:5,5:8,6:8,7:6,8:4 alphabet=ABCDEFGHIJKLMNOPQRSTUVWXYZ
+ * mutation=0.95 seed=1 out=words.txt
+ */
+public class DictionaryGenerator {
+
+	/**
+	 * Length weights roughly following an English word list
+	 */
+	public static final String DEFAULT_LENGTHS = "2:1,3:4,4:8,5:10,6:10,7:9,8:7,9:5,10:3,11:2,12:1";
+
+	/**
+	 * Letters of the default alphabet
+	 */
+	public static final String DEFAULT_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+	private final int words;
+	private final int[] lengths;
+	private final String alphabet;
+	private final double mutation;
+	private final long seed;
+
+	/**
+	 * Constructor for a generator
+	 *
+	 * @param words
+	 *            the number of distinct words to generate, 1k to 1M in the
+	 *            benchmarks
+	 * @param lengths
+	 *            the length distribution, as comma-separated length:weight
+	 *            entries, or "uniform:min-max"
+	 * @param alphabet
+	 *            the letters words are made of
+	 * @param mutation
+	 *            the probability that a word is derived from an earlier one by
+	 *            one edit
+	 * @param seed
+	 *            the seed of the random generator, so runs on different commits
+	 *            see the same dictionary
+	 */
+	public DictionaryGenerator(int words, String lengths, String alphabet, double mutation, long seed) {
+		if (words < 1)
+			throw new IllegalArgumentException("words must be positive");
+		if (alphabet.isEmpty())
+			throw new IllegalArgumentException("alphabet must not be empty");
+		this.words = words;
+		this.lengths = parseLengths(lengths);
+		this.alphabet = alphabet;
+		this.mutation = mutation;
+		this.seed = seed;
+	}
+
+	/**
+	 * @return List<String> the distinct words of the dictionary, in generation
+	 *         order
+	 */
+	public List<String> generate() {
+		Random random = new Random(seed);
+		List<String> list = new ArrayList<>(words);
+		Set<String> seen = new HashSet<>(words * 2);
+		int attempts = 0;
+		while (list.size() < words) {
+			if (++attempts > words * 100)
+				throw new IllegalStateException("the alphabet and lengths do not allow " + words + " distinct words");
+			String word = !list.isEmpty() && random.nextDouble() < mutation
+					? mutate(list.get(random.nextInt(list.size())), random)
+					: fresh(random);
+			if (!word.isEmpty() && seen.add(word))
+				list.add(word);
+		}
+		return list;
+	}
+
+	/**
+	 * Writes the dictionary, one word per line
+	 *
+	 * @param file
+	 *            the file to create or replace
+	 * @return Path file
+	 * @throws IOException
+	 *             exception resulting from writing the file
+	 */
+	public Path write(Path file) throws IOException {
+		try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			for (String word : generate()) {
+				out.write(word);
+				out.newLine();
+			}
+		}
+		return file;
+	}
+
+	/**
+	 * Private helper method to draw a fresh word
+	 */
+	private String fresh(Random random) {
+		int length = lengths[random.nextInt(lengths.length)];
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++)
+			chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+		return new String(chars);
+	}
+
+	/**
+	 * Private helper method to apply one random edit to a word
+	 */
+	private String mutate(String word, Random random) {
+		char letter = alphabet.charAt(random.nextInt(alphabet.length()));
+		int kind = random.nextInt(3);
+		if (kind == 0 && word.length() > 1) {
+			int i = random.nextInt(word.length());
+			return word.substring(0, i) + word.substring(i + 1);
+		}
+		if (kind == 1) {
+			int i = random.nextInt(word.length() + 1);
+			return word.substring(0, i) + letter + word.substring(i);
+		}
+		int i = random.nextInt(word.length());
+		return word.substring(0, i) + letter + word.substring(i + 1);
+	}
+
+	/**
+	 * Private helper method to expand a length distribution into a table drawn
+	 * from uniformly
+	 */
+	private static int[] parseLengths(String spec) {
+		List<Integer> table = new ArrayList<>();
+		if (spec.startsWith("uniform:")) {
+			String[] range = spec.substring("uniform:".length()).split("-");
+			for (int length = Integer.parseInt(range[0]); length <= Integer.parseInt(range[1]); length++)
+				table.add(length);
+		} else {
+			for (String entry : spec.split(",")) {
+				String[] parts = entry.trim().split(":");
+				for (int i = Integer.parseInt(parts[1]); i > 0; i--)
+					table.add(Integer.parseInt(parts[0]));
+			}
+		}
+		if (table.isEmpty() || table.contains(0))
+			throw new IllegalArgumentException("invalid length distribution " + spec);
+		return table.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * Writes a dictionary from key=value arguments: words, lengths, alphabet,
+	 * mutation, seed and out
+	 *
+	 * @param args
+	 *            the arguments
+	 * @throws IOException
+	 *             exception resulting from writing the file
+	 */
+	public static void main(String[] args) throws IOException {
+		int words = 10000;
+		String lengths = DEFAULT_LENGTHS;
+		String alphabet = DEFAULT_ALPHABET;
+		double mutation = 0.95;
+		long seed = 1;
+		String out = "words.txt";
+		for (String arg : args) {
+			String[] pair = arg.split("=", 2);
+			if (pair.length != 2)
+				throw new IllegalArgumentException("expected key=value, got " + arg);
+			switch (pair[0]) {
+			case "words":
+				words = Integer.parseInt(pair[1]);
+				break;
+			case "lengths":
+				lengths = pair[1];
+				break;
+			case "alphabet":
+				alphabet = pair[1];
+				break;
+			case "mutation":
+				mutation = Double.parseDouble(pair[1]);
+				break;
+			case "seed":
+				seed = Long.parseLong(pair[1]);
+				break;
+			case "out":
+				out = pair[1];
+				break;
+			default:
+				throw new IllegalArgumentException("unknown argument " + pair[0]);
+			}
+		}
+		new DictionaryGenerator(words, lengths, alphabet, mutation, seed).write(Paths.get(out));
+	}
+}
@@ -0,0 +1,135 @@
+package bench;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the GraphADT operations of Graph and ConcurrentGraph on the
+ * graph of a synthetic dictionary.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphBenchmark {
+
+	/**
+	 * Edges of the dictionary, and a graph holding all of them
+	 */
+	@State(Scope.Benchmark)
+	public static class Built {
+		@Param({ "Graph", "ConcurrentGraph" })
+		public String implementation;
+
+		List<String[]> edges;
+		Subjects.WordGraph graph;
+
+		/**
+		 * Pairs of words half of which are edges
+		 */
+		String[][] pairs;
+
+		@Setup(Level.Trial)
+		public void setUp(Dictionary dictionary) {
+			edges = dictionary.edges();
+			graph = build(dictionary, implementation, edges);
+			Random random = new Random(4);
+			pairs = new String[Dictionary.QUERIES][];
+			for (int i = 0; i < pairs.length; i++)
+				pairs[i] = i % 2 == 0 && !edges.isEmpty() ? edges.get(random.nextInt(edges.size()))
+						: dictionary.queries[i];
+		}
+	}
+
+	/**
+	 * Graph built again before each invocation, for the benchmarks that change it
+	 */
+	@State(Scope.Thread)
+	public static class Rebuilt {
+		Subjects.WordGraph graph;
+
+		@Setup(Level.Invocation)
+		public void setUp(Dictionary dictionary, Built built) {
+			graph = build(dictionary, built.implementation, built.edges);
+		}
+	}
+
+	/**
+	 * Position of a thread in the pairs and words
+	 */
+	@State(Scope.Thread)
+	public static class Cursor {
+		int next;
+	}
+
+	/**
+	 * Private helper method to build the graph of a dictionary
+	 */
+	private static Subjects.WordGraph build(Dictionary dictionary, String implementation, List<String[]> edges) {
+		Subjects.WordGraph graph = dictionary.subjects.newGraph(implementation);
+		for (String word : dictionary.list)
+			graph.addVertex(word);
+		for (String[] edge : edges)
+			graph.addEdge(edge[0], edge[1]);
+		return graph;
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Subjects.WordGraph addVerticesAndEdges(Dictionary dictionary, Built built) {
+		return build(dictionary, built.implementation, built.edges);
+	}
+
+	@Benchmark
+	public boolean isAdjacent(Built built, Cursor cursor) {
+		String[] pair = built.pairs[cursor.next++ & (Dictionary.QUERIES - 1)];
+		return built.graph.isAdjacent(pair[0], pair[1]);
+	}
+
+	@Benchmark
+	public void getNeighbors(Dictionary dictionary, Built built, Cursor cursor, Blackhole blackhole) {
+		String word = dictionary.list.get(cursor.next++ % dictionary.words);
+		for (String neighbor : built.graph.getNeighbors(word))
+			blackhole.consume(neighbor);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public void getAllVertices(Built built, Blackhole blackhole) {
+		for (String vertex : built.graph.getAllVertices())
+			blackhole.consume(vertex);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public void removeEdges(Built built, Rebuilt rebuilt) {
+		for (String[] edge : built.edges)
+			rebuilt.graph.removeEdge(edge[0], edge[1]);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public void removeVertices(Dictionary dictionary, Rebuilt rebuilt) {
+		for (String word : dictionary.list)
+			rebuilt.graph.removeVertex(word);
+	}
+}
@@ -0,0 +1,238 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the public operations of GraphProcessor.
+ *
+ * Queries report both throughput and the latency distribution of single
+ * operations. Graph construction, precomputation and updates run once per
+ * invocation on a freshly prepared processor and report the time of each run.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphProcessorBenchmark {
+
+	/**
+	 * Processor populated once with the dictionary, for queries
+	 */
+	@State(Scope.Benchmark)
+	public static class Queries {
+		@Param({ "PRECOMPUTED", "LAZY", "BIDIRECTIONAL", "ASTAR", "PLL" })
+		public String strategy;
+
+		Subjects.Processor processor;
+
+		/**
+		 * Query pairs in batches of {@link #BATCH}
+		 */
+		List<List<Object>> batches;
+
+		@Setup(Level.Trial)
+		public void setUp(Dictionary dictionary) {
+			processor = dictionary.subjects.newProcessor(strategy);
+			processor.populateGraph(dictionary.file.toString());
+			batches = new ArrayList<>();
+			for (int first = 0; first < Dictionary.QUERIES; first += BATCH) {
+				List<Object> batch = new ArrayList<>();
+				for (int i = first; i < first + BATCH; i++)
+					batch.add(dictionary.subjects.newPair(dictionary.queries[i][0], dictionary.queries[i][1]));
+				batches.add(batch);
+			}
+		}
+	}
+
+	/**
+	 * Number of pairs in a batch query
+	 */
+	static final int BATCH = 1024;
+
+	/**
+	 * Position of a thread in the query pairs
+	 */
+	@State(Scope.Thread)
+	public static class Cursor {
+		int next;
+
+		String[] pair(Dictionary dictionary) {
+			return dictionary.queries[next++ & (Dictionary.QUERIES - 1)];
+		}
+	}
+
+	/**
+	 * Processor prepared again before each invocation
+	 */
+	@State(Scope.Thread)
+	public static class Fresh {
+		Subjects.Processor processor;
+		Path file;
+
+		@TearDown(Level.Invocation)
+		public void tearDown() throws IOException {
+			if (file != null)
+				Files.deleteIfExists(file);
+			file = null;
+		}
+	}
+
+	@Benchmark
+	public List<String> getShortestPath(Dictionary dictionary, Queries queries, Cursor cursor) {
+		String[] pair = cursor.pair(dictionary);
+		return queries.processor.getShortestPath(pair[0], pair[1]);
+	}
+
+	@Benchmark
+	public Integer getShortestDistance(Dictionary dictionary, Queries queries, Cursor cursor) {
+		String[] pair = cursor.pair(dictionary);
+		return queries.processor.getShortestDistance(pair[0], pair[1]);
+	}
+
+	@Benchmark
+	public boolean areConnected(Dictionary dictionary, Queries queries, Cursor cursor) {
+		String[] pair = cursor.pair(dictionary);
+		return queries.processor.areConnected(pair[0], pair[1]);
+	}
+
+	@Benchmark
+	public List<List<String>> getShortestPaths(Queries queries, Cursor cursor) {
+		return queries.processor.getShortestPaths(queries.batches.get(cursor.next++ % queries.batches.size()));
+	}
+
+	@Benchmark
+	public List<Integer> getShortestDistances(Queries queries, Cursor cursor) {
+		return queries.processor.getShortestDistances(queries.batches.get(cursor.next++ % queries.batches.size()));
+	}
+
+	/**
+	 * Empty processor for {@link GraphProcessorBenchmark#populateGraph}
+	 */
+	@State(Scope.Thread)
+	public static class Empty extends Fresh {
+		@Setup(Level.Invocation)
+		public void setUp(Dictionary dictionary) {
+			processor = dictionary.subjects.newProcessor("PRECOMPUTED");
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Integer populateGraph(Dictionary dictionary, Empty empty) {
+		return empty.processor.populateGraph(dictionary.file.toString());
+	}
+
+	/**
+	 * Empty processor with a snapshot of the dictionary's graph on disk. The
+	 * processor is LAZY, so the time is that of hashing the dictionary and
+	 * loading the snapshot, not of the precomputation that follows it under
+	 * PRECOMPUTED
+	 */
+	@State(Scope.Thread)
+	public static class WithSnapshot extends Fresh {
+		@Setup(Level.Invocation)
+		public void setUp(Dictionary dictionary) throws IOException {
+			file = Files.createTempFile("snapshot", ".bin");
+			Files.delete(file);
+			dictionary.subjects.newProcessor("LAZY").populateGraph(dictionary.file.toString(), file);
+			processor = dictionary.subjects.newProcessor("LAZY");
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Integer populateGraphFromSnapshot(Dictionary dictionary, WithSnapshot snapshot) {
+		return snapshot.processor.populateGraph(dictionary.file.toString(), snapshot.file);
+	}
+
+	/**
+	 * Populated processor without precomputed paths
+	 */
+	@State(Scope.Thread)
+	public static class Unprecomputed extends Fresh {
+		@Setup(Level.Invocation)
+		public void setUp(Dictionary dictionary) {
+			processor = dictionary.subjects.newProcessor("LAZY");
+			processor.populateGraph(dictionary.file.toString());
+			processor.setPathStrategy("PRECOMPUTED");
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public void shortestPathPrecomputation(Unprecomputed unprecomputed) {
+		unprecomputed.processor.shortestPathPrecomputation();
+	}
+
+	/**
+	 * Populated processor with precomputed paths
+	 */
+	@State(Scope.Thread)
+	public static class Precomputed extends Fresh {
+		List<String> removals;
+
+		@Setup(Level.Invocation)
+		public void setUp(Dictionary dictionary) throws IOException {
+			processor = dictionary.subjects.newProcessor("PRECOMPUTED");
+			processor.populateGraph(dictionary.file.toString());
+			file = Files.createTempFile("precomputation", ".bin");
+			processor.savePrecomputation(file);
+			Random random = new Random(3);
+			removals = new ArrayList<>();
+			for (int i = 0; i < Math.max(1, dictionary.words / 100); i++)
+				removals.add(dictionary.list.get(random.nextInt(dictionary.words)));
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Integer populateGraphIncrementally(Dictionary dictionary, Precomputed precomputed) {
+		return precomputed.processor.populateGraph(dictionary.extraFile.toString());
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Integer removeWords(Precomputed precomputed) {
+		return precomputed.processor.removeWords(precomputed.removals);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public boolean savePrecomputation(Precomputed precomputed) {
+		return precomputed.processor.savePrecomputation(precomputed.file);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Integer loadPrecomputation(Dictionary dictionary, Precomputed precomputed) {
+		return dictionary.subjects.newProcessor("PRECOMPUTED").loadPrecomputation(precomputed.file);
+	}
+}
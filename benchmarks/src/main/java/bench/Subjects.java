@@ -0,0 +1,116 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The code under benchmark, seen from the benchmarks.
+ *
+ * The classes of the repository are in the unnamed package, which a named
+ * package can not import, and JMH does not accept benchmarks in the unnamed
+ * package. So the benchmarks call these interfaces, which the unnamed-package
+ * class {@code BenchmarkSubjects} implements by delegating to the real
+ * classes. Each interface has a single implementation, so the JIT inlines the
+ * calls.
+ */
+public interface Subjects {
+
+	/**
+	 * Operations of a GraphProcessor
+	 */
+	interface Processor {
+		void setPathStrategy(String strategy);
+
+		Integer populateGraph(String filepath);
+
+		Integer populateGraph(String filepath, Path snapshot);
+
+		void shortestPathPrecomputation();
+
+		List<String> getShortestPath(String word1, String word2);
+
+		Integer getShortestDistance(String word1, String word2);
+
+		List<List<String>> getShortestPaths(Collection<Object> pairs);
+
+		List<Integer> getShortestDistances(Collection<Object> pairs);
+
+		boolean areConnected(String word1, String word2);
+
+		Integer removeWords(Collection<String> words);
+
+		boolean savePrecomputation(Path file);
+
+		Integer loadPrecomputation(Path file);
+	}
+
+	/**
+	 * Operations of a GraphADT of words
+	 */
+	interface WordGraph {
+		String addVertex(String vertex);
+
+		String removeVertex(String vertex);
+
+		boolean addEdge(String vertex1, String vertex2);
+
+		boolean removeEdge(String vertex1, String vertex2);
+
+		boolean isAdjacent(String vertex1, String vertex2);
+
+		Iterable<String> getNeighbors(String vertex);
+
+		Iterable<String> getAllVertices();
+	}
+
+	/**
+	 * Operations of WordProcessor
+	 */
+	interface Words {
+		Stream<String> getWordStream(String filepath) throws IOException;
+
+		boolean isAdjacent(String word1, String word2);
+	}
+
+	/**
+	 * @param strategy
+	 *            the name of a PathStrategy
+	 * @return Processor a new, empty GraphProcessor using that strategy
+	 */
+	Processor newProcessor(String strategy);
+
+	/**
+	 * @param word1
+	 *            first word
+	 * @param word2
+	 *            second word
+	 * @return Object a Pair for the batch queries of a Processor
+	 */
+	Object newPair(String word1, String word2);
+
+	/**
+	 * @param implementation
+	 *            "Graph" or "ConcurrentGraph"
+	 * @return WordGraph a new, empty graph of that implementation
+	 */
+	WordGraph newGraph(String implementation);
+
+	/**
+	 * @return Words the WordProcessor operations
+	 */
+	Words words();
+
+	/**
+	 * @return Subjects the implementation over the classes of the repository
+	 */
+	static Subjects load() {
+		try {
+			return (Subjects) Class.forName("BenchmarkSubjects").getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("BenchmarkSubjects is missing from the class path", e);
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package bench;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the WordProcessor operations: reading a dictionary file and
+ * the adjacency test.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WordProcessorBenchmark {
+
+	/**
+	 * Pairs of words half of which are adjacent. Random pairs are mostly of
+	 * different lengths, which the test rejects at once, so the other half pairs
+	 * each word with a word of the same length.
+	 */
+	@State(Scope.Benchmark)
+	public static class Candidates {
+		String[][] pairs;
+
+		@Setup(Level.Trial)
+		public void setUp(Dictionary dictionary) {
+			List<String[]> edges = dictionary.edges();
+			Random random = new Random(5);
+			pairs = new String[Dictionary.QUERIES][];
+			for (int i = 0; i < pairs.length; i++) {
+				if (i % 2 == 0 && !edges.isEmpty()) {
+					pairs[i] = edges.get(random.nextInt(edges.size()));
+				} else {
+					String word = dictionary.list.get(random.nextInt(dictionary.words));
+					String other = word;
+					for (int tries = 0; tries < 100 && (other.equals(word) || other.length() != word.length()); tries++)
+						other = dictionary.list.get(random.nextInt(dictionary.words));
+					pairs[i] = new String[] { word, other };
+				}
+			}
+		}
+	}
+
+	/**
+	 * Position of a thread in the pairs
+	 */
+	@State(Scope.Thread)
+	public static class Cursor {
+		int next;
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public boolean isAdjacent(Dictionary dictionary, Candidates candidates, Cursor cursor) {
+		String[] pair = candidates.pairs[cursor.next++ & (Dictionary.QUERIES - 1)];
+		return dictionary.wordProcessor.isAdjacent(pair[0], pair[1]);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public long getWordStream(Dictionary dictionary) throws IOException {
+		return dictionary.wordProcessor.getWordStream(dictionary.file.toString()).count();
+	}
+}